@@ -2,8 +2,6 @@ package com.project.tabletobserverjava;
 
 import static org.junit.Assert.assertEquals;
 
-import android.content.Context;
-
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
 
 import com.project.tabletobserverjava.data.model.EventLog;
@@ -14,7 +12,6 @@ import com.project.tabletobserverjava.ui.theme.EventLogViewModel;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
-import org.mockito.Mock;
 
 import java.util.List;
 
@@ -23,16 +20,15 @@ public class EventLogViewModelTest {
     @Rule
     public InstantTaskExecutorRule rule = new InstantTaskExecutorRule();
 
-    @Mock
-    private Context mockContext; // Mock para o Context
-
     private EventLogViewModel viewModel;
     private MockEventLogRepository mockRepository; // Mock do repositório para simulação
 
     @Before
     public void setup() {
         mockRepository = new MockEventLogRepository();
-        viewModel = new EventLogViewModel(mockRepository, mockContext);
+        viewModel = new EventLogViewModel(mockRepository);
+        // A lista exibida é derivada do repositório e só é calculada enquanto observada
+        viewModel.getLiveLogs().observeForever(logs -> { });
     }
 
     @Test
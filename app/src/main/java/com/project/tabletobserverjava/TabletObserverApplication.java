@@ -2,24 +2,51 @@ package com.project.tabletobserverjava;
 
 import android.app.Application;
 
-import androidx.room.Room;
-
 import com.project.tabletobserverjava.data.local.AppDatabase;
+import com.project.tabletobserverjava.data.repository.EventLogRepository;
+import com.project.tabletobserverjava.monitor.CollectionEngine;
+import com.project.tabletobserverjava.monitor.MemoryTrimDispatcher;
 
+/**
+ * Application do observador. Mantém os componentes que vivem durante todo o processo:
+ * o banco de dados, o repositório de logs e o motor de coleta, que continua
+ * amostrando mesmo quando nenhuma tela está visível. Os pedidos de liberação de memória
+ * do sistema são repassados a cada componente que mantém dados em memória.
+ */
 public class TabletObserverApplication extends Application {
     private AppDatabase database;
+    private EventLogRepository repository;
+    private CollectionEngine collectionEngine;
+    private MemoryTrimDispatcher memoryTrimDispatcher;
 
     @Override
     public void onCreate() {
         super.onCreate();
-        database = Room.databaseBuilder(
-                getApplicationContext(),
-                AppDatabase.class,
-                "tablet_observer_db"
-        ).build();
+        database = AppDatabase.getInstance(this);
+        repository = new EventLogRepository(database.eventLogDao());
+
+        collectionEngine = new CollectionEngine(this, repository);
+        collectionEngine.start();
+
+        memoryTrimDispatcher = new MemoryTrimDispatcher(collectionEngine);
+        memoryTrimDispatcher.register(repository::trimMemory);
+        memoryTrimDispatcher.register(collectionEngine);
+        registerComponentCallbacks(memoryTrimDispatcher);
     }
 
     public AppDatabase getDatabase() {
         return database;
     }
-}
\ No newline at end of file
+
+    public EventLogRepository getRepository() {
+        return repository;
+    }
+
+    public CollectionEngine getCollectionEngine() {
+        return collectionEngine;
+    }
+
+    public MemoryTrimDispatcher getMemoryTrimDispatcher() {
+        return memoryTrimDispatcher;
+    }
+}
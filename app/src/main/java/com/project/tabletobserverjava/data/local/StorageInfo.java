@@ -4,11 +4,21 @@ public class StorageInfo {
     private final String type; // Ex.: "Interno", "Externo"
     private final long totalSpace; // Total em bytes
     private final long freeSpace; // Livre em bytes
+    private final String volumeId; // UUID do volume, ou "primary" para o volume principal
+    private final boolean removable;
+    private final long sampledAt; // Momento da amostra, em System.currentTimeMillis()
 
     public StorageInfo(String type, long totalSpace, long freeSpace) {
+        this(type, null, false, totalSpace, freeSpace, System.currentTimeMillis());
+    }
+
+    public StorageInfo(String type, String volumeId, boolean removable, long totalSpace, long freeSpace, long sampledAt) {
         this.type = type;
+        this.volumeId = volumeId;
+        this.removable = removable;
         this.totalSpace = totalSpace;
         this.freeSpace = freeSpace;
+        this.sampledAt = sampledAt;
     }
 
     public String getType() {
@@ -22,4 +32,20 @@ public class StorageInfo {
     public long getFreeSpace() {
         return freeSpace;
     }
+
+    public long getUsedSpace() {
+        return totalSpace - freeSpace;
+    }
+
+    public String getVolumeId() {
+        return volumeId;
+    }
+
+    public boolean isRemovable() {
+        return removable;
+    }
+
+    public long getSampledAt() {
+        return sampledAt;
+    }
 }
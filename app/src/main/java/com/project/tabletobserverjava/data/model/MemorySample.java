@@ -0,0 +1,84 @@
+package com.project.tabletobserverjava.data.model;
+
+/**
+ * Amostra estruturada de memória: /proc/meminfo, pressão (PSI) e ActivityManager.MemoryInfo.
+ * Valores de memória em kB; campos indisponíveis no aparelho valem -1.
+ */
+public class MemorySample {
+    private final long timestamp;
+    private final long totalKb;
+    private final long availableKb;
+    private final long freeKb;
+    private final long cachedKb;
+    private final long buffersKb;
+    private final long swapTotalKb;
+    private final long swapFreeKb;
+    private final long swapCachedKb;
+    private final boolean lowMemory;
+    private final long thresholdKb;
+    // Porcentagem de tempo em espera desde a amostra anterior; -1 sem PSI
+    private final double memorySomePercent;
+    private final double memoryFullPercent;
+    private final double cpuSomePercent;
+    private final double ioSomePercent;
+    private final double ioFullPercent;
+
+    public MemorySample(long timestamp, long totalKb, long availableKb, long freeKb, long cachedKb, long buffersKb,
+                        long swapTotalKb, long swapFreeKb, long swapCachedKb, boolean lowMemory, long thresholdKb,
+                        double memorySomePercent, double memoryFullPercent, double cpuSomePercent,
+                        double ioSomePercent, double ioFullPercent) {
+        this.timestamp = timestamp;
+        this.totalKb = totalKb;
+        this.availableKb = availableKb;
+        this.freeKb = freeKb;
+        this.cachedKb = cachedKb;
+        this.buffersKb = buffersKb;
+        this.swapTotalKb = swapTotalKb;
+        this.swapFreeKb = swapFreeKb;
+        this.swapCachedKb = swapCachedKb;
+        this.lowMemory = lowMemory;
+        this.thresholdKb = thresholdKb;
+        this.memorySomePercent = memorySomePercent;
+        this.memoryFullPercent = memoryFullPercent;
+        this.cpuSomePercent = cpuSomePercent;
+        this.ioSomePercent = ioSomePercent;
+        this.ioFullPercent = ioFullPercent;
+    }
+
+    public long getTimestamp() { return timestamp; }
+
+    public long getTotalKb() { return totalKb; }
+
+    public long getAvailableKb() { return availableKb; }
+
+    public long getFreeKb() { return freeKb; }
+
+    public long getCachedKb() { return cachedKb; }
+
+    public long getBuffersKb() { return buffersKb; }
+
+    /** @return Swap total, normalmente zram em tablets. */
+    public long getSwapTotalKb() { return swapTotalKb; }
+
+    public long getSwapFreeKb() { return swapFreeKb; }
+
+    public long getSwapUsedKb() { return swapTotalKb >= 0 && swapFreeKb >= 0 ? swapTotalKb - swapFreeKb : -1; }
+
+    public long getSwapCachedKb() { return swapCachedKb; }
+
+    /** @return MemoryInfo.lowMemory: o sistema se considera com pouca memória. */
+    public boolean isLowMemory() { return lowMemory; }
+
+    /** @return MemoryInfo.threshold: memória disponível abaixo da qual o sistema mata processos em segundo plano. */
+    public long getThresholdKb() { return thresholdKb; }
+
+    public double getMemorySomePercent() { return memorySomePercent; }
+
+    public double getMemoryFullPercent() { return memoryFullPercent; }
+
+    public double getCpuSomePercent() { return cpuSomePercent; }
+
+    public double getIoSomePercent() { return ioSomePercent; }
+
+    public double getIoFullPercent() { return ioFullPercent; }
+}
@@ -0,0 +1,23 @@
+package com.project.tabletobserverjava.data.model;
+
+/**
+ * Amostra numérica de uma métrica produzida pelos coletores.
+ * Complementa o EventLog, que carrega apenas texto para exibição.
+ */
+public class MetricSample {
+    private final String name;
+    private final double value;
+    private final long timestamp;
+
+    public MetricSample(String name, double value, long timestamp) {
+        this.name = name;
+        this.value = value;
+        this.timestamp = timestamp;
+    }
+
+    public String getName() { return name; }
+
+    public double getValue() { return value; }
+
+    public long getTimestamp() { return timestamp; }
+}
@@ -1,12 +1,23 @@
 package com.project.tabletobserverjava.data.repository;
 
 
+import android.content.ComponentCallbacks2;
+
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 
 import com.project.tabletobserverjava.data.dao.EventLogDao;
 import com.project.tabletobserverjava.data.model.EventLog;
+import com.project.tabletobserverjava.data.model.MetricSample;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
@@ -15,9 +26,21 @@ import java.util.concurrent.Executors;
  * Centraliza o acesso ao DAO e gerencia threads para operações assíncronas.
  */
 public class EventLogRepository {
+    // Tipos de evento mantidos quando o sistema pede para liberar memória
+    private static final int TRIM_KEEP_LOG_TYPES = 8;
+    // Métricas sem atualização há mais tempo que isso são descartadas sob pressão de memória
+    private static final long TRIM_METRIC_MAX_AGE_MS = 5 * 60 * 1000;
+
     private final EventLogDao eventLogDao;
     private final Executor executor = Executors.newSingleThreadExecutor();
 
+    // Último log publicado por tipo de evento, na ordem de publicação
+    private final LinkedHashMap<String, EventLog> latestByType = new LinkedHashMap<>();
+    private final MutableLiveData<List<EventLog>> latestLogs = new MutableLiveData<>(new ArrayList<>());
+
+    // Último valor de cada métrica numérica
+    private final ConcurrentHashMap<String, MetricSample> latestMetrics = new ConcurrentHashMap<>();
+
     /**
      * Construtor para inicializar o DAO.
      *
@@ -44,4 +67,116 @@ public class EventLogRepository {
     public void insertLog(EventLog log) {
         executor.execute(() -> eventLogDao.insertLog(log));
     }
+
+    /**
+     * Publica o resultado mais recente de um coletor.
+     * Mantém apenas o último log de cada tipo em memória e notifica os observadores.
+     * Pode ser chamado de qualquer thread.
+     *
+     * @param log Instância de EventLog produzida pelo motor de coleta.
+     */
+    public void publishLog(EventLog log) {
+        List<EventLog> snapshot;
+        synchronized (latestByType) {
+            latestByType.remove(log.getEventType());
+            latestByType.put(log.getEventType(), log);
+            snapshot = new ArrayList<>(latestByType.values());
+        }
+        latestLogs.postValue(snapshot);
+    }
+
+    /**
+     * Obtém os últimos resultados publicados pelo motor de coleta, um por tipo de evento.
+     *
+     * @return LiveData com a lista dos últimos logs publicados.
+     */
+    public LiveData<List<EventLog>> getLatestLogs() {
+        return latestLogs;
+    }
+
+    /**
+     * Registra o valor mais recente de uma métrica. Pode ser chamado de qualquer thread.
+     *
+     * @param sample Amostra produzida por um coletor.
+     */
+    public void recordMetric(MetricSample sample) {
+        latestMetrics.put(sample.getName(), sample);
+    }
+
+    /**
+     * Obtém o último valor registrado de cada métrica.
+     *
+     * @return Cópia imutável das métricas, indexada pelo nome.
+     */
+    public Map<String, MetricSample> getLatestMetrics() {
+        return Collections.unmodifiableMap(new HashMap<>(latestMetrics));
+    }
+
+    /**
+     * Reduz os últimos logs e métricas mantidos em memória ao orçamento do nível.
+     * Em TRIM_MEMORY_RUNNING_CRITICAL e a partir de TRIM_MEMORY_BACKGROUND mantém só os tipos de
+     * evento mais recentes e descarta métricas paradas; em TRIM_MEMORY_COMPLETE descarta tudo,
+     * já que os coletores voltam a publicar na próxima execução.
+     *
+     * @param level Nível de ComponentCallbacks2.
+     * @return Descrição do que foi liberado, ou null se nada foi liberado.
+     */
+    public String trimMemory(int level) {
+        int keep = keptLogTypes(level);
+        if (keep < 0) {
+            return null;
+        }
+        boolean complete = keep == 0;
+
+        int removedLogs = 0;
+        List<EventLog> snapshot = null;
+        synchronized (latestByType) {
+            // O LinkedHashMap está em ordem de publicação: os primeiros são os mais antigos
+            Iterator<EventLog> oldestFirst = latestByType.values().iterator();
+            while (latestByType.size() > keep && oldestFirst.hasNext()) {
+                oldestFirst.next();
+                oldestFirst.remove();
+                removedLogs++;
+            }
+            if (removedLogs > 0) {
+                snapshot = new ArrayList<>(latestByType.values());
+            }
+        }
+        if (snapshot != null) {
+            latestLogs.postValue(snapshot);
+        }
+
+        int removedMetrics = 0;
+        long cutoff = System.currentTimeMillis() - TRIM_METRIC_MAX_AGE_MS;
+        Iterator<MetricSample> metrics = latestMetrics.values().iterator();
+        while (metrics.hasNext()) {
+            MetricSample sample = metrics.next();
+            if (complete || sample.getTimestamp() < cutoff) {
+                metrics.remove();
+                removedMetrics++;
+            }
+        }
+
+        if (removedLogs == 0 && removedMetrics == 0) {
+            return null;
+        }
+        return String.format("repositório: %d logs e %d métricas", removedLogs, removedMetrics);
+    }
+
+    /**
+     * Tipos de evento mantidos em cada nível. TRIM_MEMORY_UI_HIDDEN só indica que a interface
+     * saiu da tela, sem pressão de memória, e é ignorado apesar do valor numérico maior.
+     *
+     * @return Quantidade de tipos mantidos, ou -1 se o nível não pede liberação.
+     */
+    static int keptLogTypes(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_COMPLETE) {
+            return 0;
+        }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            return TRIM_KEEP_LOG_TYPES;
+        }
+        return -1;
+    }
 }
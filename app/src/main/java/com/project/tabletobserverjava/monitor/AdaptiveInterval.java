@@ -0,0 +1,73 @@
+package com.project.tabletobserverjava.monitor;
+
+/**
+ * Intervalo de amostragem que se adapta ao sinal medido por um coletor.
+ *
+ * Enquanto as leituras ficam dentro de uma faixa de tolerância em torno da leitura de
+ * referência, o intervalo dobra a cada STABLE_SAMPLES_TO_SLOW amostras, até o máximo. Uma
+ * leitura fora da faixa, ou acima do limite de alerta, volta na hora ao intervalo mínimo e
+ * passa a ser a nova referência. A referência não acompanha a leitura dentro da faixa, então
+ * uma subida lenta também acaba saindo dela.
+ */
+public class AdaptiveInterval {
+
+    /** Leituras estáveis seguidas antes de cada vez que o intervalo dobra. */
+    static final int STABLE_SAMPLES_TO_SLOW = 3;
+
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final double tolerance;
+    private final double fastThreshold;
+
+    private long intervalMs;
+    private double reference = Double.NaN;
+    private int stableSamples;
+
+    /**
+     * @param minIntervalMs Intervalo durante mudanças e alertas.
+     * @param maxIntervalMs Intervalo com o sinal estável.
+     * @param tolerance     Variação, na unidade do sinal, ainda considerada estável.
+     * @param fastThreshold Valor a partir do qual o coletor fica no intervalo mínimo,
+     *                      ou NaN para nenhum.
+     */
+    public AdaptiveInterval(long minIntervalMs, long maxIntervalMs, double tolerance, double fastThreshold) {
+        this.minIntervalMs = minIntervalMs;
+        this.maxIntervalMs = Math.max(minIntervalMs, maxIntervalMs);
+        this.tolerance = tolerance;
+        this.fastThreshold = fastThreshold;
+        this.intervalMs = minIntervalMs;
+    }
+
+    /**
+     * Registra a leitura principal de uma coleta e recalcula o intervalo.
+     *
+     * @return Intervalo até a próxima coleta, em milissegundos.
+     */
+    public synchronized long onSample(double value) {
+        boolean alert = !Double.isNaN(fastThreshold) && value >= fastThreshold;
+        if (Double.isNaN(reference) || alert || Math.abs(value - reference) > tolerance) {
+            reference = value;
+            stableSamples = 0;
+            intervalMs = minIntervalMs;
+        } else if (++stableSamples >= STABLE_SAMPLES_TO_SLOW) {
+            stableSamples = 0;
+            intervalMs = Math.min(maxIntervalMs, intervalMs * 2);
+        }
+        return intervalMs;
+    }
+
+    /**
+     * @return Intervalo atual, em milissegundos.
+     */
+    public synchronized long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public long getMinIntervalMs() {
+        return minIntervalMs;
+    }
+
+    public long getMaxIntervalMs() {
+        return maxIntervalMs;
+    }
+}
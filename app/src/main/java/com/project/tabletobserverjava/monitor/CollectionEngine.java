@@ -0,0 +1,244 @@
+package com.project.tabletobserverjava.monitor;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.project.tabletobserverjava.R;
+import com.project.tabletobserverjava.data.local.StorageInfo;
+import com.project.tabletobserverjava.data.model.EventLog;
+import com.project.tabletobserverjava.data.model.MemorySample;
+import com.project.tabletobserverjava.data.model.MetricSample;
+import com.project.tabletobserverjava.data.repository.EventLogRepository;
+import com.project.tabletobserverjava.monitor.collector.CacheUsageCollector;
+import com.project.tabletobserverjava.monitor.collector.ConnectionCollector;
+import com.project.tabletobserverjava.monitor.collector.CpuCollector;
+import com.project.tabletobserverjava.monitor.collector.DiskIoCollector;
+import com.project.tabletobserverjava.monitor.collector.FlashIoCollector;
+import com.project.tabletobserverjava.monitor.collector.LatencyCollector;
+import com.project.tabletobserverjava.monitor.collector.MainThreadCollector;
+import com.project.tabletobserverjava.monitor.collector.MemoryCollector;
+import com.project.tabletobserverjava.monitor.collector.SelfHeapCollector;
+import com.project.tabletobserverjava.monitor.collector.StorageCollector;
+import com.project.tabletobserverjava.monitor.collector.ThermalCollector;
+import com.project.tabletobserverjava.monitor.collector.ThroughputCollector;
+import com.project.tabletobserverjava.monitor.collector.TrafficCollector;
+import com.project.tabletobserverjava.monitor.collector.VolumeStorageCollector;
+import com.project.tabletobserverjava.monitor.storage.StorageRanking;
+
+import java.net.MalformedURLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Motor de coleta que vive durante todo o processo, independente da interface.
+ * Executa os coletores em threads de trabalho, cada um na sua cadência, e publica os
+ * resultados no EventLogRepository; o Fragment apenas observa os logs publicados.
+ */
+public class CollectionEngine implements MetricSink, MemoryTrimmable {
+
+    private static final String TAG = "CollectionEngine";
+    private static final String PUBLIC_PROBE_URL = "https://www.google.com";
+    private static final int WORKER_COUNT = 2;
+    /** CPU que o observador pode usar, em porcentagem de um núcleo, antes de alongar intervalos. */
+    private static final double MAX_OVERHEAD_CPU_PERCENT = 1.0;
+
+    private final Context context;
+    private final EventLogRepository repository;
+    private final CollectorScheduler scheduler;
+    private MemoryCollector memoryCollector;
+    private StorageCollector storageCollector;
+    private CacheUsageCollector cacheUsageCollector;
+    private VolumeStorageCollector volumeCollector;
+    private MainThreadCollector mainThreadCollector;
+    private LatencyCollector latencyCollector;
+    private ConnectionCollector connectionCollector;
+    private ThermalCollector thermalCollector;
+    private ThroughputCollector throughputCollector;
+    private boolean started;
+
+    /**
+     * @param context    Contexto da aplicação (nunca de uma Activity ou Fragment).
+     * @param repository Repositório que recebe os resultados das coletas.
+     */
+    public CollectionEngine(Context context, EventLogRepository repository) {
+        this.context = context.getApplicationContext();
+        this.repository = repository;
+        this.scheduler = new CollectorScheduler(this, WORKER_COUNT, CollectorScheduler.DEFAULT_COALESCE_WINDOW_MS,
+                new OverheadBudget(MAX_OVERHEAD_CPU_PERCENT));
+    }
+
+    /**
+     * Registra os coletores padrão e inicia a coleta. Chamadas repetidas são ignoradas; depois
+     * de stop(), recomeça com coletores novos.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        memoryCollector = new MemoryCollector(context);
+        scheduler.register(memoryCollector);
+        scheduler.register(new CpuCollector());
+        scheduler.register(new SelfHeapCollector());
+        mainThreadCollector = new MainThreadCollector();
+        mainThreadCollector.start();
+        scheduler.register(mainThreadCollector);
+        scheduler.registerAccount(mainThreadCollector.getWatchdogAccount());
+        scheduler.register(new DiskIoCollector());
+        thermalCollector = new ThermalCollector(context);
+        thermalCollector.registerThermalListener(this);
+        scheduler.register(thermalCollector);
+        connectionCollector = new ConnectionCollector(context);
+        connectionCollector.registerNetworkCallback(this);
+        scheduler.register(connectionCollector);
+        scheduler.register(new TrafficCollector());
+        storageCollector = new StorageCollector(context);
+        scheduler.register(storageCollector);
+        cacheUsageCollector = new CacheUsageCollector(context);
+        scheduler.register(cacheUsageCollector);
+        volumeCollector = new VolumeStorageCollector(context);
+        VolumeStorageCollector volumes = volumeCollector;
+        volumes.setOnVolumesChanged(() -> scheduler.runNow(volumes));
+        volumes.registerVolumeReceiver();
+        scheduler.register(volumes);
+        scheduler.register(new FlashIoCollector(context));
+        latencyCollector = new LatencyCollector(context, PUBLIC_PROBE_URL,
+                context.getString(R.string.probe_backend_url));
+        scheduler.register(latencyCollector);
+        registerThroughputCollector(context.getString(R.string.throughput_endpoint_url));
+        scheduler.start();
+        Log.d(TAG, "Motor de coleta iniciado.");
+    }
+
+    /**
+     * Registra a medição de banda, só quando há um endpoint configurado.
+     */
+    private void registerThroughputCollector(String endpointUrl) {
+        if (endpointUrl.isEmpty()) {
+            return;
+        }
+        try {
+            throughputCollector = new ThroughputCollector(context, endpointUrl);
+            scheduler.register(throughputCollector);
+        } catch (MalformedURLException e) {
+            Log.w(TAG, "URL inválida para a medição de banda: " + endpointUrl);
+        }
+    }
+
+    /**
+     * Interrompe a coleta periódica e libera os receivers e callbacks dos coletores.
+     */
+    public synchronized void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        scheduler.stop();
+        scheduler.unregisterAll();
+        if (mainThreadCollector != null) {
+            mainThreadCollector.stop();
+        }
+        if (latencyCollector != null) {
+            latencyCollector.stop();
+        }
+        if (throughputCollector != null) {
+            throughputCollector.stop();
+        }
+        if (connectionCollector != null) {
+            connectionCollector.unregisterNetworkCallback();
+        }
+        if (thermalCollector != null) {
+            thermalCollector.unregisterThermalListener();
+        }
+        if (cacheUsageCollector != null) {
+            cacheUsageCollector.stop();
+        }
+        if (storageCollector != null) {
+            storageCollector.stop();
+        }
+        if (volumeCollector != null) {
+            volumeCollector.unregisterVolumeReceiver();
+        }
+        Log.d(TAG, "Motor de coleta parado.");
+    }
+
+    /**
+     * @return Estatísticas de execução de cada coletor.
+     */
+    public List<CollectorStats> getCollectorStats() {
+        return scheduler.getStats();
+    }
+
+    /**
+     * @return Última amostra estruturada de memória e pressão, ou null antes da primeira coleta.
+     */
+    public synchronized MemorySample getLatestMemorySample() {
+        return memoryCollector != null ? memoryCollector.getLatest() : null;
+    }
+
+    /**
+     * @return Coletor de fluidez da interface, ou null antes do início.
+     */
+    public synchronized MainThreadCollector getMainThreadCollector() {
+        return mainThreadCollector;
+    }
+
+    /**
+     * Consulta o estado da rede agora, além das transições recebidas pelo callback.
+     */
+    public synchronized void pollConnectivity() {
+        if (connectionCollector != null) {
+            connectionCollector.requestPoll();
+            scheduler.runNow(connectionCollector);
+        }
+    }
+
+    /**
+     * Pede que a próxima coleta de armazenamento também calcule a soma por pacote.
+     */
+    public synchronized void requestStorageBreakdown() {
+        if (storageCollector != null) {
+            storageCollector.requestBreakdown();
+        }
+    }
+
+    /**
+     * @return Ranking dos maiores consumidores de armazenamento, ou null antes do início.
+     */
+    public synchronized StorageRanking getStorageRanking() {
+        return storageCollector != null ? storageCollector.getRanking() : null;
+    }
+
+    /**
+     * @return Última amostra de cada volume de armazenamento montado.
+     */
+    public synchronized List<StorageInfo> getVolumeStorage() {
+        return volumeCollector != null ? volumeCollector.getVolumes() : Collections.emptyList();
+    }
+
+    /**
+     * Repassa o pedido de liberação de memória aos coletores que mantêm caches.
+     */
+    @Override
+    public synchronized String onTrimMemory(int level) {
+        if (storageCollector == null) {
+            return null;
+        }
+        String storage = storageCollector.trimMemory(level);
+        String cache = cacheUsageCollector.trimMemory(level);
+        if (storage == null || cache == null) {
+            return storage != null ? storage : cache;
+        }
+        return storage + "; " + cache;
+    }
+
+    @Override
+    public void publish(String eventType, String description) {
+        repository.publishLog(new EventLog(System.currentTimeMillis(), eventType, description));
+    }
+
+    @Override
+    public void record(String name, double value) {
+        repository.recordMetric(new MetricSample(name, value, System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,397 @@
+package com.project.tabletobserverjava.monitor;
+
+import android.os.Debug;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agendador que executa cada MetricCollector na sua própria cadência.
+ *
+ * Uma única thread de temporização calcula a próxima ativação; os coletores que vencem
+ * dentro da janela de agrupamento rodam juntos nessa mesma ativação, em um pool pequeno
+ * de threads de trabalho. Um coletor cuja execução anterior ainda não terminou é pulado,
+ * e execuções que ultrapassam o tempo declarado são registradas como estouro de orçamento.
+ *
+ * O custo de cada coletor (CPU da thread, tempo de parede, chamadas de binder e execuções) é
+ * somado por janela e avaliado pelo OverheadBudget, que alonga o intervalo dos coletores mais
+ * caros quando o observador passa do limite e o restaura quando há folga.
+ *
+ * Coletores com AdaptiveInterval têm o intervalo recalculado ao fim de cada execução; se ele
+ * encurtar, a próxima execução é antecipada na hora, sem esperar o intervalo longo já agendado.
+ */
+public class CollectorScheduler {
+
+    /** Janela padrão para agrupar coletores que vencem quase ao mesmo tempo. */
+    public static final long DEFAULT_COALESCE_WINDOW_MS = 250;
+
+    /** Limite padrão de CPU do observador, em porcentagem de um núcleo. */
+    public static final double DEFAULT_MAX_CPU_PERCENT = 1.0;
+
+    private static final String TAG = "CollectorScheduler";
+
+    /** Janela em que o custo é somado antes de cada avaliação do orçamento. */
+    private static final long OVERHEAD_WINDOW_MS = 60 * 1000;
+
+    private final MetricSink sink;
+    private final int workerCount;
+    private final long coalesceWindowMs;
+    private final OverheadBudget budget;
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<OverheadBudget.Account> accounts = new ArrayList<>();
+
+    private ScheduledExecutorService timer;
+    private ExecutorService workers;
+    private ScheduledFuture<?> pendingWakeup;
+    private long wakeupCount;
+    private long windowStartMs = -1;
+    private long windowStartWakeups;
+
+    /**
+     * @param sink             Destino dos resultados e dos avisos de estouro.
+     * @param workerCount      Número de threads que executam os coletores.
+     * @param coalesceWindowMs Coletores que vencem até este tempo após uma ativação rodam nela.
+     */
+    public CollectorScheduler(MetricSink sink, int workerCount, long coalesceWindowMs) {
+        this(sink, workerCount, coalesceWindowMs, new OverheadBudget(DEFAULT_MAX_CPU_PERCENT));
+    }
+
+    /**
+     * @param budget Orçamento de custo que alonga os intervalos quando estourado.
+     */
+    public CollectorScheduler(MetricSink sink, int workerCount, long coalesceWindowMs, OverheadBudget budget) {
+        this.sink = sink;
+        this.workerCount = workerCount;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.budget = budget;
+    }
+
+    /**
+     * Registra um coletor. Se o agendador já estiver rodando, o coletor vence imediatamente.
+     */
+    public synchronized void register(MetricCollector collector) {
+        Entry entry = new Entry(collector);
+        entries.add(entry);
+        accounts.add(entry.account);
+        if (timer != null) {
+            entry.nextDueMs = now();
+            rescheduleWakeup(now());
+        }
+    }
+
+    /**
+     * Inclui no orçamento o custo de uma tarefa que roda fora do agendador, como o watchdog da
+     * thread principal. O alongamento decidido pelo orçamento fica na conta e é aplicado pela
+     * própria tarefa.
+     */
+    public synchronized void registerAccount(OverheadBudget.Account account) {
+        accounts.add(account);
+    }
+
+    /**
+     * Antecipa a próxima execução de um coletor para agora, por exemplo após um evento do sistema.
+     * Se o coletor ainda estiver rodando, a execução antecipada é pulada como as demais.
+     */
+    public synchronized void runNow(MetricCollector collector) {
+        if (timer == null) {
+            return;
+        }
+        for (Entry entry : entries) {
+            if (entry.collector == collector) {
+                entry.nextDueMs = now();
+                rescheduleWakeup(now());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Inicia o agendamento. Todos os coletores vencem na primeira ativação.
+     */
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(
+                runnable -> newThread(runnable, "TabletObserver-Scheduler"));
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount,
+                runnable -> newThread(runnable, "TabletObserver-Collector-" + threadIndex.incrementAndGet()));
+
+        long now = now();
+        for (Entry entry : entries) {
+            entry.nextDueMs = now;
+        }
+        windowStartMs = now;
+        windowStartWakeups = wakeupCount;
+        rescheduleWakeup(now);
+    }
+
+    /**
+     * Interrompe o agendamento e as coletas em andamento.
+     */
+    public synchronized void stop() {
+        if (timer == null) {
+            return;
+        }
+        timer.shutdownNow();
+        workers.shutdownNow();
+        timer = null;
+        workers = null;
+        pendingWakeup = null;
+    }
+
+    /**
+     * Remove os coletores e as contas registrados, para que um novo start() comece do zero.
+     * Chamar com o agendador parado.
+     */
+    public synchronized void unregisterAll() {
+        entries.clear();
+        accounts.clear();
+    }
+
+    /**
+     * @return Cópia das estatísticas de cada coletor registrado.
+     */
+    public synchronized List<CollectorStats> getStats() {
+        List<CollectorStats> stats = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            stats.add(entry.stats.copy());
+        }
+        return stats;
+    }
+
+    /**
+     * @return Quantidade de ativações da thread de temporização desde o início.
+     */
+    public synchronized long getWakeupCount() {
+        return wakeupCount;
+    }
+
+    private synchronized void onWakeup() {
+        if (timer == null) {
+            return;
+        }
+        wakeupCount++;
+        long now = now();
+        long horizon = now + coalesceWindowMs;
+
+        for (Entry entry : entries) {
+            if (entry.nextDueMs > horizon) {
+                continue;
+            }
+            // Mantém a fase do coletor para que cadências múltiplas continuem alinhadas;
+            // se o agendador atrasou mais de um intervalo, recomeça a partir de agora.
+            long interval = currentInterval(entry);
+            long next = entry.nextDueMs + interval;
+            entry.nextDueMs = next > now ? next : now + interval;
+
+            if (entry.inFlight) {
+                entry.stats.onSkipped();
+                reportIfHung(entry, now);
+                continue;
+            }
+            dispatch(entry, now);
+        }
+        sink.record("scheduler.wakeups", wakeupCount);
+        if (now - windowStartMs >= OVERHEAD_WINDOW_MS) {
+            evaluateBudget(now);
+        }
+        rescheduleWakeup(now);
+    }
+
+    /**
+     * Fecha a janela de custo, publica o custo do observador e aplica o ajuste do orçamento.
+     */
+    private void evaluateBudget(long now) {
+        long windowMs = now - windowStartMs;
+        long wakeups = wakeupCount - windowStartWakeups;
+        windowStartMs = now;
+        windowStartWakeups = wakeupCount;
+
+        OverheadBudget.Adjustment adjustment = budget.evaluate(accounts, windowMs);
+
+        long wallMs = 0;
+        int binderCalls = 0;
+        int runs = 0;
+        OverheadBudget.Account mostExpensive = null;
+        for (OverheadBudget.Account account : accounts) {
+            wallMs += account.getWindowWallMs();
+            binderCalls += account.getWindowBinderCalls();
+            runs += account.getWindowRuns();
+            if (mostExpensive == null || account.getWindowCpuNanos() > mostExpensive.getWindowCpuNanos()) {
+                mostExpensive = account;
+            }
+            sink.record("collector." + account.getName() + ".cpu_ms", account.getWindowCpuNanos() / 1_000_000.0);
+            sink.record("collector." + account.getName() + ".stretch", account.getStretch());
+        }
+        double minutes = windowMs / 60_000.0;
+        sink.record("overhead.cpu_pct", budget.getLastCpuPercent());
+        sink.record("overhead.wall_ms_per_min", wallMs / minutes);
+        sink.record("overhead.binder_calls_per_min", binderCalls / minutes);
+        sink.record("overhead.wakeups_per_min", wakeups / minutes);
+        sink.publish("OVERHEAD", String.format("Custo do observador: %.2f%% de um núcleo (limite %.2f%%), "
+                        + "%.0f ativações/min, %.0f execuções/min, %.0f binder/min; mais caro: %s (%.0f ms de CPU)",
+                budget.getLastCpuPercent(), budget.getMaxCpuPercent(), wakeups / minutes, runs / minutes,
+                binderCalls / minutes, mostExpensive != null ? mostExpensive.getName() : "-",
+                mostExpensive != null ? mostExpensive.getWindowCpuNanos() / 1_000_000.0 : 0.0));
+
+        if (adjustment != null) {
+            applyAdjustment(adjustment);
+        }
+    }
+
+    /**
+     * Intervalo declarado ou adaptado ao sinal, alongado pelo orçamento de custo.
+     */
+    private static long currentInterval(Entry entry) {
+        AdaptiveInterval adaptive = entry.collector.getAdaptiveInterval();
+        long base = adaptive != null ? adaptive.getIntervalMs() : entry.collector.getIntervalMillis();
+        return base * entry.account.getStretch();
+    }
+
+    /**
+     * Após uma execução de um coletor adaptativo: se o intervalo encurtou, antecipa a próxima.
+     */
+    private synchronized void onAdaptiveIntervalChanged(Entry entry, long runStartMs) {
+        long interval = currentInterval(entry);
+        entry.stats.onIntervalChanged(interval);
+        if (timer != null && runStartMs + interval < entry.nextDueMs) {
+            entry.nextDueMs = runStartMs + interval;
+            rescheduleWakeup(now());
+        }
+    }
+
+    private void applyAdjustment(OverheadBudget.Adjustment adjustment) {
+        for (Entry entry : entries) {
+            if (!entry.collector.getName().equals(adjustment.getName())) {
+                continue;
+            }
+            long interval = currentInterval(entry);
+            entry.stats.onIntervalChanged(interval);
+            String description = String.format(adjustment.isBackOff()
+                            ? "Orçamento estourado: intervalo de %s alongado para %d ms (%dx)"
+                            : "Folga no orçamento: intervalo de %s reduzido para %d ms (%dx)",
+                    adjustment.getName(), interval, adjustment.getStretch());
+            Log.i(TAG, description);
+            sink.publish("OVERHEAD_BUDGET", description);
+            return;
+        }
+        // Conta de fora do agendador: a tarefa aplica o alongamento no seu próprio intervalo
+        String description = String.format(adjustment.isBackOff()
+                        ? "Orçamento estourado: intervalo de %s alongado %dx"
+                        : "Folga no orçamento: intervalo de %s reduzido para %dx",
+                adjustment.getName(), adjustment.getStretch());
+        Log.i(TAG, description);
+        sink.publish("OVERHEAD_BUDGET", description);
+    }
+
+    private void rescheduleWakeup(long now) {
+        if (pendingWakeup != null) {
+            pendingWakeup.cancel(false);
+        }
+        long nextDue = Long.MAX_VALUE;
+        for (Entry entry : entries) {
+            nextDue = Math.min(nextDue, entry.nextDueMs);
+        }
+        if (nextDue == Long.MAX_VALUE) {
+            pendingWakeup = null;
+            return;
+        }
+        pendingWakeup = timer.schedule(this::onWakeup, Math.max(0, nextDue - now), TimeUnit.MILLISECONDS);
+    }
+
+    private void dispatch(Entry entry, long now) {
+        entry.inFlight = true;
+        entry.startedAtMs = now;
+        entry.overrunReported.set(false);
+        try {
+            workers.execute(() -> run(entry));
+        } catch (RejectedExecutionException e) {
+            entry.inFlight = false;
+        }
+    }
+
+    private void run(Entry entry) {
+        MetricCollector collector = entry.collector;
+        AdaptiveInterval adaptive = collector.getAdaptiveInterval();
+        long previousInterval = adaptive != null ? adaptive.getIntervalMs() : 0;
+        long start = now();
+        long cpuStart = Debug.threadCpuTimeNanos();
+        boolean failed = false;
+        try {
+            collector.collect(sink);
+        } catch (Exception e) {
+            failed = true;
+            sink.publish("COLLECTOR_ERROR", "Falha no coletor " + collector.getName() + ": " + e.getMessage());
+        } finally {
+            long duration = now() - start;
+            long cpuEnd = Debug.threadCpuTimeNanos();
+            // Sem medida de CPU da thread, o tempo de parede é um limite superior
+            long cpuNanos = cpuStart >= 0 && cpuEnd >= cpuStart ? cpuEnd - cpuStart : duration * 1_000_000L;
+            boolean overrun = duration > collector.getTimeoutMillis()
+                    && entry.overrunReported.compareAndSet(false, true);
+            entry.stats.onCompleted(duration, cpuNanos / 1_000_000L, failed, overrun);
+            entry.account.onRun(cpuNanos, duration, collector.getLastBinderCalls());
+            sink.record("collector." + collector.getName() + ".duration_ms", duration);
+            if (overrun) {
+                sink.publish("COLLECTOR_OVERRUN", String.format("Coletor %s excedeu o orçamento: %d ms (limite %d ms)",
+                        collector.getName(), duration, collector.getTimeoutMillis()));
+            }
+            entry.inFlight = false;
+            if (adaptive != null && adaptive.getIntervalMs() != previousInterval) {
+                onAdaptiveIntervalChanged(entry, start);
+            }
+        }
+    }
+
+    /**
+     * Registra o estouro de um coletor que ainda não terminou, sem esperar a sua conclusão.
+     */
+    private void reportIfHung(Entry entry, long now) {
+        long elapsed = now - entry.startedAtMs;
+        if (elapsed > entry.collector.getTimeoutMillis() && entry.overrunReported.compareAndSet(false, true)) {
+            entry.stats.onOverrunDetected();
+            sink.publish("COLLECTOR_OVERRUN", String.format("Coletor %s em execução há %d ms (limite %d ms)",
+                    entry.collector.getName(), elapsed, entry.collector.getTimeoutMillis()));
+        }
+    }
+
+    private static Thread newThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+
+    /**
+     * Estado de agendamento de um coletor.
+     */
+    private static class Entry {
+        final MetricCollector collector;
+        final CollectorStats stats;
+        final OverheadBudget.Account account;
+        final AtomicBoolean overrunReported = new AtomicBoolean();
+        long nextDueMs;
+        volatile boolean inFlight;
+        volatile long startedAtMs;
+
+        Entry(MetricCollector collector) {
+            this.collector = collector;
+            this.stats = new CollectorStats(collector.getName(), collector.getIntervalMillis());
+            this.account = new OverheadBudget.Account(collector.getName());
+        }
+    }
+}
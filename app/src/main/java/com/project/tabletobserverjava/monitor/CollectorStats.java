@@ -0,0 +1,84 @@
+package com.project.tabletobserverjava.monitor;
+
+/**
+ * Estatísticas de execução de um coletor, mantidas pelo CollectorScheduler.
+ */
+public class CollectorStats {
+    private final String name;
+    private long runCount;
+    private long skipCount;
+    private long failureCount;
+    private long overrunCount;
+    private long lastDurationMs;
+    private long maxDurationMs;
+    private long totalCpuMs;
+    private long intervalMs;
+
+    CollectorStats(String name, long intervalMs) {
+        this.name = name;
+        this.intervalMs = intervalMs;
+    }
+
+    synchronized void onCompleted(long durationMs, long cpuMs, boolean failed, boolean overrun) {
+        runCount++;
+        totalCpuMs += cpuMs;
+        lastDurationMs = durationMs;
+        maxDurationMs = Math.max(maxDurationMs, durationMs);
+        if (failed) {
+            failureCount++;
+        }
+        if (overrun) {
+            overrunCount++;
+        }
+    }
+
+    synchronized void onSkipped() {
+        skipCount++;
+    }
+
+    synchronized void onOverrunDetected() {
+        overrunCount++;
+    }
+
+    synchronized void onIntervalChanged(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * @return Cópia consistente das estatísticas atuais.
+     */
+    synchronized CollectorStats copy() {
+        CollectorStats copy = new CollectorStats(name, intervalMs);
+        copy.runCount = runCount;
+        copy.skipCount = skipCount;
+        copy.failureCount = failureCount;
+        copy.overrunCount = overrunCount;
+        copy.lastDurationMs = lastDurationMs;
+        copy.maxDurationMs = maxDurationMs;
+        copy.totalCpuMs = totalCpuMs;
+        return copy;
+    }
+
+    public String getName() { return name; }
+
+    /** @return Execuções concluídas, com ou sem falha. */
+    public synchronized long getRunCount() { return runCount; }
+
+    /** @return Execuções puladas porque a anterior ainda estava em andamento. */
+    public synchronized long getSkipCount() { return skipCount; }
+
+    public synchronized long getFailureCount() { return failureCount; }
+
+    /** @return Execuções que ultrapassaram o tempo máximo declarado pelo coletor. */
+    public synchronized long getOverrunCount() { return overrunCount; }
+
+    public synchronized long getLastDurationMs() { return lastDurationMs; }
+
+    public synchronized long getMaxDurationMs() { return maxDurationMs; }
+
+    /** @return Tempo de CPU somado de todas as execuções. */
+    public synchronized long getTotalCpuMs() { return totalCpuMs; }
+
+    /** @return Intervalo atual, já alongado se o orçamento de custo estiver estourado. */
+    public synchronized long getIntervalMs() { return intervalMs; }
+}
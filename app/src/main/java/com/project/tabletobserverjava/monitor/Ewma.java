@@ -0,0 +1,39 @@
+package com.project.tabletobserverjava.monitor;
+
+/**
+ * Média móvel exponencial com peso proporcional ao tempo decorrido, para amostras em
+ * intervalos irregulares, como os de coletores alongados pelo orçamento de custo.
+ *
+ * Uma amostra após {@code timeConstantMs} pesa cerca de 63% no novo valor; amostras mais
+ * próximas pesam menos, e o resultado não depende da cadência do coletor.
+ */
+public class Ewma {
+
+    private final double timeConstantMs;
+    private double value;
+    private boolean initialized;
+
+    public Ewma(long timeConstantMs) {
+        this.timeConstantMs = timeConstantMs;
+    }
+
+    /**
+     * @param sample    Novo valor.
+     * @param elapsedMs Tempo desde a amostra anterior.
+     * @return Valor suavizado; a primeira amostra é usada como está.
+     */
+    public double update(double sample, long elapsedMs) {
+        if (!initialized) {
+            value = sample;
+            initialized = true;
+        } else {
+            double alpha = 1 - Math.exp(-Math.max(0, elapsedMs) / timeConstantMs);
+            value += alpha * (sample - value);
+        }
+        return value;
+    }
+
+    public double getValue() {
+        return value;
+    }
+}
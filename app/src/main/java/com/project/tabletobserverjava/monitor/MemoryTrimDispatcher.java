@@ -0,0 +1,104 @@
+package com.project.tabletobserverjava.monitor;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Repassa os pedidos de liberação de memória do sistema a cada componente registrado.
+ *
+ * Dentro da mesma prioridade, o low memory killer encerra primeiro os processos que ocupam
+ * mais memória; liberando históricos e caches a cada pedido, o observador evita ser o primeiro
+ * a ser encerrado. Cada liberação é publicada como um evento MEMORY_TRIM. Os componentes rodam
+ * em uma thread própria, para que uma liberação lenta não bloqueie a thread principal.
+ */
+public class MemoryTrimDispatcher implements ComponentCallbacks2 {
+
+    private static final String TAG = "MemoryTrimDispatcher";
+
+    private final MetricSink sink;
+    private final List<MemoryTrimmable> trimmables = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    /**
+     * @param sink Destino dos eventos de liberação.
+     */
+    public MemoryTrimDispatcher(MetricSink sink) {
+        this.sink = sink;
+    }
+
+    public void register(MemoryTrimmable trimmable) {
+        trimmables.add(trimmable);
+    }
+
+    public void unregister(MemoryTrimmable trimmable) {
+        trimmables.remove(trimmable);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        executor.execute(() -> trim(level));
+    }
+
+    @Override
+    public void onLowMemory() {
+        // Equivale ao nível mais alto nas versões que já enviam onTrimMemory
+        onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    /**
+     * Aplica o nível a todos os componentes e publica o que foi liberado.
+     */
+    void trim(int level) {
+        List<String> released = new ArrayList<>();
+        for (MemoryTrimmable trimmable : trimmables) {
+            try {
+                String description = trimmable.onTrimMemory(level);
+                if (description != null) {
+                    released.add(description);
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Erro ao liberar memória: " + e.getMessage(), e);
+            }
+        }
+        sink.record("memory.trim.level", level);
+        if (released.isEmpty()) {
+            Log.d(TAG, "Nível " + levelName(level) + ": nada a liberar.");
+            return;
+        }
+        String description = "Nível " + levelName(level) + ": " + String.join("; ", released);
+        Log.i(TAG, description);
+        sink.publish("MEMORY_TRIM", description);
+    }
+
+    static String levelName(int level) {
+        switch (level) {
+            case TRIM_MEMORY_RUNNING_MODERATE:
+                return "RUNNING_MODERATE";
+            case TRIM_MEMORY_RUNNING_LOW:
+                return "RUNNING_LOW";
+            case TRIM_MEMORY_RUNNING_CRITICAL:
+                return "RUNNING_CRITICAL";
+            case TRIM_MEMORY_UI_HIDDEN:
+                return "UI_HIDDEN";
+            case TRIM_MEMORY_BACKGROUND:
+                return "BACKGROUND";
+            case TRIM_MEMORY_MODERATE:
+                return "MODERATE";
+            case TRIM_MEMORY_COMPLETE:
+                return "COMPLETE";
+            default:
+                return String.valueOf(level);
+        }
+    }
+}
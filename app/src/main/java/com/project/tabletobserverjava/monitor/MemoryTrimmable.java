@@ -0,0 +1,17 @@
+package com.project.tabletobserverjava.monitor;
+
+/**
+ * Componente que mantém dados em memória e pode liberá-los quando o sistema pede.
+ * Os níveis são os de ComponentCallbacks2.onTrimMemory; cada componente decide o que
+ * manter em cada nível, liberando mais quanto mais alto for o nível.
+ */
+public interface MemoryTrimmable {
+
+    /**
+     * Reduz a memória mantida ao orçamento do nível. Roda fora da thread principal.
+     *
+     * @param level Nível de ComponentCallbacks2, como TRIM_MEMORY_RUNNING_LOW.
+     * @return Descrição do que foi liberado, ou null se nada foi liberado.
+     */
+    String onTrimMemory(int level);
+}
@@ -0,0 +1,66 @@
+package com.project.tabletobserverjava.monitor;
+
+/**
+ * Contrato de um coletor de métricas executado pelo CollectorScheduler.
+ * Cada coletor declara sua própria cadência, classe de custo e orçamento de tempo.
+ */
+public interface MetricCollector {
+
+    /**
+     * Classe de custo aproximada de uma execução do coletor.
+     */
+    enum CostClass {
+        /** Leitura local barata, adequada para amostragem a cada segundo. */
+        CHEAP,
+        /** Chamadas de sistema ou binder em pequeno número. */
+        MODERATE,
+        /** Varreduras ou I/O de rede; deve rodar raramente. */
+        EXPENSIVE
+    }
+
+    /**
+     * @return Nome único do coletor, usado em logs e métricas.
+     */
+    String getName();
+
+    /**
+     * @return Intervalo desejado entre duas execuções, em milissegundos.
+     * Com um AdaptiveInterval, é o intervalo mínimo.
+     */
+    long getIntervalMillis();
+
+    /**
+     * @return Intervalo adaptado ao sinal, atualizado pelo próprio coletor a cada coleta,
+     * ou null para manter o intervalo fixo de getIntervalMillis().
+     */
+    default AdaptiveInterval getAdaptiveInterval() {
+        return null;
+    }
+
+    /**
+     * @return Classe de custo do coletor.
+     */
+    CostClass getCostClass();
+
+    /**
+     * @return Tempo máximo esperado para uma execução, em milissegundos.
+     * Execuções mais longas são registradas como estouro de orçamento.
+     */
+    long getTimeoutMillis();
+
+    /**
+     * Executa uma coleta e publica os resultados. Sempre chamado fora da thread principal.
+     *
+     * @param sink Destino dos resultados.
+     * @throws Exception Falhas são contabilizadas pelo agendador sem afetar os demais coletores.
+     */
+    void collect(MetricSink sink) throws Exception;
+
+    /**
+     * @return Chamadas de binder feitas na última execução, para o orçamento de custo do
+     * observador; 0 se o coletor não as conta.
+     */
+    default int getLastBinderCalls() {
+        return 0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.tabletobserverjava.monitor;
+
+/**
+ * Destino dos resultados de um coletor.
+ * Logs de texto vão para a lista exibida; métricas numéricas ficam disponíveis de forma estruturada.
+ */
+public interface MetricSink {
+
+    /**
+     * Publica um log de texto, substituindo o último log do mesmo tipo.
+     *
+     * @param eventType   Tipo do evento (ex.: "MEMORY_USAGE").
+     * @param description Texto exibido na interface.
+     */
+    void publish(String eventType, String description);
+
+    /**
+     * Registra o valor atual de uma métrica numérica.
+     *
+     * @param name  Nome da métrica (ex.: "memory.used_mb").
+     * @param value Valor medido.
+     */
+    void record(String name, double value);
+}
@@ -0,0 +1,184 @@
+package com.project.tabletobserverjava.monitor;
+
+import java.util.List;
+
+/**
+ * Orçamento de custo do próprio observador.
+ *
+ * A cada janela soma o tempo de CPU gasto pelos coletores e o compara com o limite, em
+ * porcentagem de um núcleo. Acima do limite, dobra o intervalo do coletor mais caro da janela;
+ * com folga, devolve metade do alongamento ao coletor cuja volta custa menos, desde que a
+ * projeção continue dentro do limite. Uma mudança por janela, para que o efeito de cada
+ * ajuste seja medido antes do próximo.
+ */
+public class OverheadBudget {
+
+    /** Fator máximo de alongamento do intervalo declarado por um coletor. */
+    public static final int MAX_STRETCH = 8;
+
+    /** Só restaura quando a projeção fica abaixo desta fração do limite, para não oscilar. */
+    private static final double RESTORE_FRACTION = 0.8;
+
+    private final double maxCpuPercent;
+    private double lastCpuPercent;
+
+    /**
+     * @param maxCpuPercent Limite de CPU do observador, em porcentagem de um núcleo.
+     */
+    public OverheadBudget(double maxCpuPercent) {
+        this.maxCpuPercent = maxCpuPercent;
+    }
+
+    public double getMaxCpuPercent() {
+        return maxCpuPercent;
+    }
+
+    /**
+     * @return CPU usada pelos coletores na última janela avaliada, em porcentagem de um núcleo.
+     */
+    public double getLastCpuPercent() {
+        return lastCpuPercent;
+    }
+
+    /**
+     * Fecha a janela: calcula o custo, ajusta no máximo um coletor e zera os acumuladores.
+     *
+     * @param accounts Contas de todos os coletores.
+     * @param windowMs Duração da janela que está sendo fechada.
+     * @return O ajuste feito, ou null se nenhum intervalo mudou.
+     */
+    public Adjustment evaluate(List<Account> accounts, long windowMs) {
+        long totalNanos = 0;
+        for (Account account : accounts) {
+            account.closeWindow();
+            totalNanos += account.windowCpuNanos;
+        }
+        if (windowMs <= 0) {
+            return null;
+        }
+        lastCpuPercent = percentOfCore(totalNanos, windowMs);
+
+        if (lastCpuPercent > maxCpuPercent) {
+            Account mostExpensive = null;
+            for (Account account : accounts) {
+                if (account.stretch < MAX_STRETCH && account.windowCpuNanos > 0
+                        && (mostExpensive == null || account.windowCpuNanos > mostExpensive.windowCpuNanos)) {
+                    mostExpensive = account;
+                }
+            }
+            return mostExpensive != null ? mostExpensive.setStretch(mostExpensive.stretch * 2) : null;
+        }
+
+        Account cheapest = null;
+        for (Account account : accounts) {
+            if (account.stretch > 1 && (cheapest == null || account.windowCpuNanos < cheapest.windowCpuNanos)) {
+                cheapest = account;
+            }
+        }
+        if (cheapest == null) {
+            return null;
+        }
+        // Com metade do alongamento o coletor roda o dobro de vezes e custa o dobro
+        double projected = lastCpuPercent + percentOfCore(cheapest.windowCpuNanos, windowMs);
+        if (projected > maxCpuPercent * RESTORE_FRACTION) {
+            return null;
+        }
+        return cheapest.setStretch(cheapest.stretch / 2);
+    }
+
+    private static double percentOfCore(long cpuNanos, long windowMs) {
+        return 100.0 * cpuNanos / (windowMs * 1_000_000.0);
+    }
+
+    /**
+     * Custo acumulado de um coletor na janela atual e o seu alongamento de intervalo.
+     */
+    public static class Account {
+        private final String name;
+        private int stretch = 1;
+
+        // Janela em andamento, atualizada pelas threads de trabalho
+        private long cpuNanos;
+        private long wallMs;
+        private int runs;
+        private int binderCalls;
+
+        // Última janela fechada
+        private long windowCpuNanos;
+        private long windowWallMs;
+        private int windowRuns;
+        private int windowBinderCalls;
+
+        public Account(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Registra uma execução.
+         *
+         * @param cpuNanos    Tempo de CPU da thread na execução; sem medida, use o tempo de parede.
+         * @param wallMs      Duração da execução.
+         * @param binderCalls Chamadas de binder informadas pelo coletor.
+         */
+        public synchronized void onRun(long cpuNanos, long wallMs, int binderCalls) {
+            this.cpuNanos += cpuNanos;
+            this.wallMs += wallMs;
+            this.runs++;
+            this.binderCalls += binderCalls;
+        }
+
+        synchronized void closeWindow() {
+            windowCpuNanos = cpuNanos;
+            windowWallMs = wallMs;
+            windowRuns = runs;
+            windowBinderCalls = binderCalls;
+            cpuNanos = 0;
+            wallMs = 0;
+            runs = 0;
+            binderCalls = 0;
+        }
+
+        synchronized Adjustment setStretch(int stretch) {
+            Adjustment adjustment = new Adjustment(name, this.stretch, stretch);
+            this.stretch = stretch;
+            return adjustment;
+        }
+
+        public String getName() { return name; }
+
+        /** @return Fator que multiplica o intervalo declarado pelo coletor. */
+        public synchronized int getStretch() { return stretch; }
+
+        public synchronized long getWindowCpuNanos() { return windowCpuNanos; }
+
+        public synchronized long getWindowWallMs() { return windowWallMs; }
+
+        public synchronized int getWindowRuns() { return windowRuns; }
+
+        public synchronized int getWindowBinderCalls() { return windowBinderCalls; }
+    }
+
+    /**
+     * Mudança de alongamento de um coletor.
+     */
+    public static class Adjustment {
+        private final String name;
+        private final int previousStretch;
+        private final int stretch;
+
+        Adjustment(String name, int previousStretch, int stretch) {
+            this.name = name;
+            this.previousStretch = previousStretch;
+            this.stretch = stretch;
+        }
+
+        public String getName() { return name; }
+
+        public int getPreviousStretch() { return previousStretch; }
+
+        public int getStretch() { return stretch; }
+
+        /** @return true se o intervalo aumentou. */
+        public boolean isBackOff() { return stretch > previousStretch; }
+    }
+}
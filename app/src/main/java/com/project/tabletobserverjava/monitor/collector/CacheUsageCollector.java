@@ -0,0 +1,139 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.util.Log;
+
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.storage.DirectorySizeScanner;
+import com.project.tabletobserverjava.monitor.storage.DirectoryUsageTracker;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coletor do tamanho dos diretórios de cache do próprio app, interno e externo.
+ *
+ * Cada diretório é acompanhado por um DirectoryUsageTracker: a primeira coleta faz a
+ * varredura completa e as seguintes só consultam os arquivos alterados desde a anterior.
+ */
+public class CacheUsageCollector implements MetricCollector {
+
+    private static final String TAG = "CacheUsageCollector";
+
+    private static final int SCAN_THREADS = 2;
+    /** Idade máxima de uma listagem de diretório reaproveitada pela varredura. */
+    private static final long LISTING_MAX_AGE_MS = 10 * 60 * 1000;
+    /** Arquivos e diretórios acompanhados por pasta. */
+    private static final int MAX_TRACKED_NODES = 50_000;
+    private static final long RESYNC_INTERVAL_MS = 30 * 60 * 1000;
+
+    private final Context context;
+    private final DirectorySizeScanner scanner = new DirectorySizeScanner(SCAN_THREADS, LISTING_MAX_AGE_MS);
+    private final Map<File, DirectoryUsageTracker> trackers = new HashMap<>();
+
+    public CacheUsageCollector(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * A partir de TRIM_MEMORY_RUNNING_LOW desliga os observadores e descarta as árvores e as
+     * listagens em cache; a próxima coleta refaz a varredura. TRIM_MEMORY_UI_HIDDEN não indica
+     * pressão de memória e é ignorado.
+     *
+     * @return Descrição do que foi liberado, ou null se nada foi liberado.
+     */
+    public String trimMemory(int level) {
+        if (level < ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW || level == ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            return null;
+        }
+        int nodes = 0;
+        synchronized (trackers) {
+            for (DirectoryUsageTracker tracker : trackers.values()) {
+                nodes += tracker.getTrackedNodeCount();
+                tracker.stop();
+            }
+        }
+        int listings = scanner.getCachedDirectoryCount();
+        scanner.invalidate();
+        if (nodes == 0 && listings == 0) {
+            return null;
+        }
+        return String.format("pastas: %d nós e %d listagens", nodes, listings);
+    }
+
+    /**
+     * Desliga os observadores e encerra as threads de varredura.
+     */
+    public void stop() {
+        synchronized (trackers) {
+            for (DirectoryUsageTracker tracker : trackers.values()) {
+                tracker.stop();
+            }
+            trackers.clear();
+        }
+        scanner.shutdown();
+    }
+
+    @Override
+    public String getName() {
+        return "cache_usage";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return 60 * 1000;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.MODERATE;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        // Cobre a varredura inicial ou a ressincronização de uma pasta grande
+        return 10_000;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        long internalBytes = folderSize(context.getCacheDir());
+        // O cache externo some quando o armazenamento compartilhado é desmontado
+        long externalBytes = folderSize(context.getExternalCacheDir());
+
+        sink.record("cache.internal_bytes", internalBytes);
+        sink.record("cache.external_bytes", externalBytes);
+        sink.publish("CACHE_USAGE", String.format("Cache do app: %.2f MB (interno %.2f MB, externo %.2f MB)",
+                (internalBytes + externalBytes) / (1024.0 * 1024.0),
+                internalBytes / (1024.0 * 1024.0), externalBytes / (1024.0 * 1024.0)));
+    }
+
+    private long folderSize(File dir) {
+        if (dir == null) {
+            return 0;
+        }
+        DirectoryUsageTracker tracker;
+        synchronized (trackers) {
+            tracker = trackers.get(dir);
+            if (tracker == null) {
+                tracker = new DirectoryUsageTracker(dir, MAX_TRACKED_NODES, RESYNC_INTERVAL_MS, scanner);
+                trackers.put(dir, tracker);
+            }
+        }
+        boolean wasPolling = tracker.isPolling();
+        long bytes = tracker.getTotalBytes();
+        if (tracker.isPolling() != wasPolling) {
+            Log.w(TAG, tracker.isPolling()
+                    ? String.format("%s tem mais de %d nós; acompanhamento incremental desligado", dir, MAX_TRACKED_NODES)
+                    : dir + " voltou ao limite de nós; acompanhamento incremental retomado");
+        }
+        String error = tracker.takeLastError();
+        if (error != null) {
+            Log.w(TAG, "Falha na varredura de " + dir + ": " + error);
+        }
+        return bytes;
+    }
+}
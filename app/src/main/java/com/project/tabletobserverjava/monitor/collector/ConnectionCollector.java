@@ -0,0 +1,203 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.LinkProperties;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.util.Log;
+
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.net.ConnectivityTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coletor do estado de conexão da rede ativa.
+ *
+ * O estado vem do NetworkCallback da rede padrão: cada transição é publicada no instante em
+ * que acontece, com o horário exato, e quedas de qualquer duração são contadas. A execução
+ * periódica só publica o resumo, sem chamadas ao sistema; a consulta direta ao
+ * ConnectivityManager acontece apenas quando pedida, ou a cada execução se o callback não
+ * pôde ser registrado.
+ */
+public class ConnectionCollector implements MetricCollector {
+
+    private static final String TAG = "ConnectionCollector";
+
+    private static final long SUMMARY_INTERVAL_MS = 60 * 1000;
+    /** Transições listadas no resumo, já que o log guarda só o último evento de cada tipo. */
+    private static final int SUMMARY_TRANSITIONS = 5;
+
+    private final ConnectivityManager connectivityManager;
+    private final ConnectivityTracker tracker = new ConnectivityTracker();
+    private final List<ConnectivityTracker.Transition> recent = new ArrayList<>(SUMMARY_TRANSITIONS);
+
+    private volatile MetricSink listenerSink;
+    private volatile boolean pollRequested;
+    private int lastBinderCalls;
+
+    private final ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onAvailable(Network network) {
+            publish(tracker.onAvailable(System.currentTimeMillis()), listenerSink);
+        }
+
+        @Override
+        public void onLost(Network network) {
+            publish(tracker.onLost(System.currentTimeMillis()), listenerSink);
+        }
+
+        @Override
+        public void onCapabilitiesChanged(Network network, NetworkCapabilities capabilities) {
+            publish(tracker.onCapabilities(isValidated(capabilities), transportName(capabilities),
+                    System.currentTimeMillis()), listenerSink);
+        }
+
+        @Override
+        public void onLinkPropertiesChanged(Network network, LinkProperties linkProperties) {
+            publish(tracker.onLinkProperties(linkProperties.getInterfaceName(), System.currentTimeMillis()),
+                    listenerSink);
+        }
+    };
+
+    public ConnectionCollector(Context context) {
+        this.connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+    }
+
+    /**
+     * Passa a receber as transições da rede padrão. O sistema chama o callback logo no
+     * registro com o estado atual, se houver rede.
+     *
+     * @param sink Destino das transições, publicadas fora do ciclo do coletor.
+     */
+    public void registerNetworkCallback(MetricSink sink) {
+        if (connectivityManager == null) {
+            return;
+        }
+        listenerSink = sink;
+        try {
+            connectivityManager.registerDefaultNetworkCallback(networkCallback);
+        } catch (RuntimeException e) {
+            // Limite de callbacks por app ou permissão ausente: volta a consultar a cada execução
+            Log.w(TAG, "Não foi possível registrar o NetworkCallback.", e);
+            listenerSink = null;
+        }
+    }
+
+    public void unregisterNetworkCallback() {
+        if (listenerSink != null) {
+            connectivityManager.unregisterNetworkCallback(networkCallback);
+            listenerSink = null;
+        }
+    }
+
+    /**
+     * Pede que a próxima execução também consulte o ConnectivityManager diretamente.
+     */
+    public void requestPoll() {
+        pollRequested = true;
+    }
+
+    private void publish(ConnectivityTracker.Transition transition, MetricSink sink) {
+        if (transition == null || sink == null) {
+            return;
+        }
+        sink.record("connection.connected", transition.isConnected() ? 1 : 0);
+        sink.record("connection.changed_at_ms", transition.getTimestampMs());
+        String description = String.format("%s às %tT.%<tL: %s", transition.isConnected()
+                ? "Dispositivo Conectado" : "Erro de conexão detectado",
+                transition.getTimestampMs(), transition.getDescription());
+        Log.i(TAG, description);
+        sink.publish("CONNECTION", description);
+    }
+
+    @Override
+    public String getName() {
+        return "connection";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return SUMMARY_INTERVAL_MS;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return 200;
+    }
+
+    @Override
+    public int getLastBinderCalls() {
+        return lastBinderCalls;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        lastBinderCalls = 0;
+        if (connectivityManager != null && (pollRequested || listenerSink == null)) {
+            pollRequested = false;
+            poll(sink);
+        }
+
+        long now = System.currentTimeMillis();
+        sink.record("connection.connected", tracker.isConnected() ? 1 : 0);
+        sink.record("connection.outages", tracker.getOutageCount());
+        sink.record("connection.flaps", tracker.getFlapCount());
+        sink.record("connection.outage_total_ms", tracker.getTotalOutageMs(now));
+        sink.record("connection.outage_longest_ms", tracker.getLongestOutageMs(now));
+
+        StringBuilder description = new StringBuilder(256);
+        description.append(tracker.isConnected() ? "Conectado" : "Desconectado");
+        if (tracker.getChangedAtMs() >= 0) {
+            description.append(String.format(" desde %tT", tracker.getChangedAtMs()));
+        }
+        description.append(String.format(" | quedas: %d (%d oscilações < %d s), total %.1f s, maior %.1f s",
+                tracker.getOutageCount(), tracker.getFlapCount(), ConnectivityTracker.FLAP_MAX_MS / 1000,
+                tracker.getTotalOutageMs(now) / 1000.0, tracker.getLongestOutageMs(now) / 1000.0));
+        recent.clear();
+        tracker.copyHistory(recent, SUMMARY_TRANSITIONS);
+        for (ConnectivityTracker.Transition transition : recent) {
+            description.append(String.format("%n%tT.%<tL %s", transition.getTimestampMs(), transition.getDescription()));
+        }
+        sink.publish("CONNECTION_SUMMARY", description.toString());
+    }
+
+    /**
+     * Consulta a rede ativa e concilia o estado, caso algum callback tenha se perdido.
+     */
+    private void poll(MetricSink sink) {
+        Network network = connectivityManager.getActiveNetwork();
+        NetworkCapabilities capabilities = network != null ? connectivityManager.getNetworkCapabilities(network) : null;
+        lastBinderCalls = network != null ? 2 : 1;
+        ConnectivityTracker.Transition transition = tracker.onPolled(capabilities != null,
+                isValidated(capabilities), System.currentTimeMillis());
+        publish(transition, sink);
+    }
+
+    private static boolean isValidated(NetworkCapabilities capabilities) {
+        return capabilities != null
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+    }
+
+    private static String transportName(NetworkCapabilities capabilities) {
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
+            return "wifi";
+        }
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
+            return "ethernet";
+        }
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
+            return "celular";
+        }
+        return "outro";
+    }
+}
@@ -0,0 +1,108 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.system.Os;
+import android.system.OsConstants;
+
+import com.project.tabletobserverjava.monitor.AdaptiveInterval;
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.proc.CpuSampler;
+
+import java.util.Arrays;
+
+/**
+ * Coletor de uso de CPU do aparelho, por núcleo, e do próprio app. Amostra a cada segundo
+ * durante mudanças e acima de 85% de uso, e até a cada 15 segundos com o uso estável.
+ */
+public class CpuCollector implements MetricCollector {
+
+    private static final long MIN_INTERVAL_MS = 1000;
+    private static final long MAX_INTERVAL_MS = 15_000;
+    /** Variação de uso, em pontos percentuais, considerada estável. */
+    private static final double STABLE_BAND_PCT = 10;
+    private static final double ALERT_PCT = 85;
+
+    private final AdaptiveInterval adaptiveInterval =
+            new AdaptiveInterval(MIN_INTERVAL_MS, MAX_INTERVAL_MS, STABLE_BAND_PCT, ALERT_PCT);
+    private final CpuSampler sampler = new CpuSampler(Os.sysconf(OsConstants._SC_CLK_TCK));
+    private final StringBuilder description = new StringBuilder(128);
+
+    private final int processorCount = Runtime.getRuntime().availableProcessors();
+
+    // Nome da métrica de cada núcleo, criado uma vez por núcleo
+    private String[] coreMetricNames = new String[0];
+
+    @Override
+    public String getName() {
+        return "cpu";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return MIN_INTERVAL_MS;
+    }
+
+    @Override
+    public AdaptiveInterval getAdaptiveInterval() {
+        return adaptiveInterval;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return 100;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        if (!sampler.sample(System.nanoTime())) {
+            // Primeira amostra: ainda não há intervalo para calcular porcentagens
+            return;
+        }
+        description.setLength(0);
+
+        if (sampler.isSystemAvailable()) {
+            sink.record("cpu.busy_pct", sampler.getBusyPercent());
+            sink.record("cpu.iowait_pct", sampler.getIowaitPercent());
+            description.append(String.format("CPU: %.0f%% (iowait %.0f%%), núcleos:",
+                    sampler.getBusyPercent(), sampler.getIowaitPercent()));
+
+            int cores = sampler.getCoreCount();
+            if (coreMetricNames.length < cores) {
+                coreMetricNames = Arrays.copyOf(coreMetricNames, cores);
+            }
+            for (int core = 0; core < cores; core++) {
+                if (!sampler.isCoreOnline(core)) {
+                    description.append(" -");
+                    continue;
+                }
+                if (coreMetricNames[core] == null) {
+                    coreMetricNames[core] = "cpu.core" + core + ".busy_pct";
+                }
+                sink.record(coreMetricNames[core], sampler.getCoreBusyPercent(core));
+                description.append(' ').append(Math.round(sampler.getCoreBusyPercent(core)));
+            }
+        } else {
+            description.append("CPU do aparelho indisponível");
+        }
+
+        if (sampler.isLoadAverageAvailable()) {
+            sink.record("cpu.load_1m", sampler.getLoadAverage(0));
+            description.append(String.format(", carga: %.2f %.2f %.2f",
+                    sampler.getLoadAverage(0), sampler.getLoadAverage(1), sampler.getLoadAverage(2)));
+        }
+        if (sampler.isSelfAvailable()) {
+            sink.record("cpu.self_pct", sampler.getSelfPercentOfDevice());
+            description.append(String.format(", app: %.1f%%", sampler.getSelfPercentOfDevice()));
+        }
+        // Sem o /proc/stat, a carga de 1 minuto por núcleo é o melhor sinal do aparelho
+        adaptiveInterval.onSample(sampler.isSystemAvailable() ? sampler.getBusyPercent()
+                : sampler.isLoadAverageAvailable() ? 100.0 * sampler.getLoadAverage(0) / processorCount
+                : sampler.getSelfPercentOfDevice());
+        sink.publish("CPU_USAGE", description.toString());
+    }
+}
@@ -0,0 +1,149 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.util.Log;
+
+import com.project.tabletobserverjava.monitor.AdaptiveInterval;
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.proc.DiskStatsSampler;
+import com.project.tabletobserverjava.monitor.proc.SelfIoSampler;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Coletor de carga de I/O: taxas por dispositivo de /proc/diskstats e do próprio app de
+ * /proc/self/io. Roda a cada segundo, junto com a memória, porque picos de I/O curtos
+ * são os que travam a interface. Com a ocupação estável o intervalo se alonga até 15 segundos;
+ * os contadores são acumulados, então nenhum I/O deixa de ser contado, apenas fica na média.
+ *
+ * Cada fonte é desligada na primeira falha de leitura, comum quando o SELinux bloqueia
+ * /proc/diskstats, e a outra continua sendo registrada.
+ */
+public class DiskIoCollector implements MetricCollector {
+
+    private static final String TAG = "DiskIoCollector";
+
+    private static final long MIN_INTERVAL_MS = 1000;
+    private static final long MAX_INTERVAL_MS = 15_000;
+    /** Variação da ocupação do disco mais ocupado, em pontos percentuais, considerada estável. */
+    private static final double STABLE_BAND_PCT = 10;
+    private static final double ALERT_BUSY_PCT = 50;
+
+    private final AdaptiveInterval adaptiveInterval =
+            new AdaptiveInterval(MIN_INTERVAL_MS, MAX_INTERVAL_MS, STABLE_BAND_PCT, ALERT_BUSY_PCT);
+
+    private final DiskStatsSampler diskStats = new DiskStatsSampler();
+    private final SelfIoSampler selfIo = new SelfIoSampler();
+    private boolean diskAvailable = true;
+    private boolean selfAvailable = true;
+
+    // Nomes das métricas de cada dispositivo, criados uma vez por dispositivo
+    private String[][] deviceMetricNames = new String[0][];
+
+    @Override
+    public String getName() {
+        return "disk_io";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return MIN_INTERVAL_MS;
+    }
+
+    @Override
+    public AdaptiveInterval getAdaptiveInterval() {
+        return adaptiveInterval;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return 100;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        long now = System.nanoTime();
+        boolean diskValid = false;
+        boolean selfValid = false;
+        if (diskAvailable) {
+            try {
+                diskValid = diskStats.sample(now);
+            } catch (IOException | SecurityException e) {
+                Log.w(TAG, "/proc/diskstats indisponível: " + e.getMessage());
+                diskAvailable = false;
+            }
+        }
+        if (selfAvailable) {
+            try {
+                selfValid = selfIo.sample(now);
+            } catch (IOException | SecurityException e) {
+                Log.w(TAG, "/proc/self/io indisponível: " + e.getMessage());
+                selfAvailable = false;
+            }
+        }
+        if (!diskAvailable && !selfAvailable) {
+            // Nada a medir: o intervalo se alonga até o máximo
+            adaptiveInterval.onSample(0);
+            sink.publish("DISK_IO", "Contadores de I/O indisponíveis.");
+            return;
+        }
+        if ((diskAvailable && !diskValid) || (selfAvailable && !selfValid)) {
+            // Primeira amostra: ainda não há intervalo para calcular taxas
+            return;
+        }
+
+        double readBytes = 0;
+        double writeBytes = 0;
+        double iops = 0;
+        DiskStatsSampler.Device busiest = null;
+        int count = diskAvailable ? diskStats.getDeviceCount() : 0;
+        if (deviceMetricNames.length < count) {
+            deviceMetricNames = Arrays.copyOf(deviceMetricNames, count);
+        }
+        for (int i = 0; i < count; i++) {
+            DiskStatsSampler.Device device = diskStats.getDevice(i);
+            if (!device.isAccepted() || !device.isPresent()) {
+                continue;
+            }
+            String[] names = deviceMetricNames[i];
+            if (names == null) {
+                String prefix = "disk." + device.getName();
+                names = new String[]{prefix + ".read_bps", prefix + ".write_bps", prefix + ".iops", prefix + ".busy_pct"};
+                deviceMetricNames[i] = names;
+            }
+            double deviceIops = device.getReadIops() + device.getWriteIops();
+            sink.record(names[0], device.getReadBytesPerSec());
+            sink.record(names[1], device.getWriteBytesPerSec());
+            sink.record(names[2], deviceIops);
+            sink.record(names[3], device.getBusyPercent());
+
+            readBytes += device.getReadBytesPerSec();
+            writeBytes += device.getWriteBytesPerSec();
+            iops += deviceIops;
+            if (busiest == null || device.getBusyPercent() > busiest.getBusyPercent()) {
+                busiest = device;
+            }
+        }
+        adaptiveInterval.onSample(busiest != null ? busiest.getBusyPercent() : 0);
+
+        String disk = diskAvailable
+                ? String.format("Leitura: %.2f MB/s, Escrita: %.2f MB/s, %.0f IOPS%s",
+                readBytes / (1024.0 * 1024.0), writeBytes / (1024.0 * 1024.0), iops,
+                busiest != null ? String.format(", %s ocupado %.0f%%", busiest.getName(), busiest.getBusyPercent()) : "")
+                : "Discos: indisponível";
+        String self = "App: indisponível";
+        if (selfAvailable) {
+            sink.record("io.self.read_bps", selfIo.getReadBytesPerSec());
+            sink.record("io.self.write_bps", selfIo.getWriteBytesPerSec());
+            self = String.format("App: L %.2f MB/s, E %.2f MB/s",
+                    selfIo.getReadBytesPerSec() / (1024.0 * 1024.0), selfIo.getWriteBytesPerSec() / (1024.0 * 1024.0));
+        }
+        sink.publish("DISK_IO", disk + " | " + self);
+    }
+}
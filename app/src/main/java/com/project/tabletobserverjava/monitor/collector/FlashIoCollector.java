@@ -0,0 +1,76 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.system.Os;
+import android.system.OsConstants;
+
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.storage.FlashIoProbe;
+
+/**
+ * Coletor de desempenho da memória flash baseado no FlashIoProbe.
+ * A sonda escreve na flash, por isso roda poucas vezes ao dia e nunca logo após o início do app.
+ */
+public class FlashIoCollector implements MetricCollector {
+
+    private static final long TICK_INTERVAL_MS = 15 * 60 * 1000;
+    private static final long PROBE_INTERVAL_MS = 6 * 60 * 60 * 1000;
+
+    private final FlashIoProbe probe;
+    private long nextProbeMs;
+
+    public FlashIoCollector(Context context) {
+        // O orçamento diário cobre exatamente as execuções da cadência
+        this.probe = new FlashIoProbe(context.getNoBackupFilesDir(),
+                new FlashIoProbe.Config().budgetForInterval(PROBE_INTERVAL_MS),
+                fd -> Os.posix_fadvise(fd, 0, 0, OsConstants.POSIX_FADV_DONTNEED));
+        // A primeira sonda só roda depois de um intervalo, longe da inicialização do app
+        this.nextProbeMs = SystemClock.elapsedRealtime() + TICK_INTERVAL_MS;
+    }
+
+    @Override
+    public String getName() {
+        return "flash_io";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return TICK_INTERVAL_MS;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.EXPENSIVE;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return 10_000;
+    }
+
+    @Override
+    public void collect(MetricSink sink) throws Exception {
+        long now = SystemClock.elapsedRealtime();
+        if (now < nextProbeMs) {
+            return;
+        }
+        nextProbeMs = now + PROBE_INTERVAL_MS;
+
+        FlashIoProbe.Result result = probe.run(now);
+        if (result.isSkipped()) {
+            sink.publish("STORAGE_IO", "Sonda de I/O não executada: " + result.getSkipReason() + ".");
+            return;
+        }
+        sink.record("storage.io.write_mbps", result.getWriteMbPerSec());
+        sink.record("storage.io.read_mbps", result.getReadMbPerSec());
+        sink.record("storage.io.fsync_p50_ms", result.getFsyncP50Ms());
+        sink.record("storage.io.fsync_p99_ms", result.getFsyncP99Ms());
+        sink.publish("STORAGE_IO", String.format("Escrita: %.1f MB/s, Leitura: %.1f MB/s%s, fsync p50: %.2f ms, p99: %.2f ms%s",
+                result.getWriteMbPerSec(), result.getReadMbPerSec(),
+                result.isReadFromFlash() ? "" : " (cache)",
+                result.getFsyncP50Ms(), result.getFsyncP99Ms(),
+                result.isCompleted() ? "" : " [parcial]"));
+    }
+}
@@ -0,0 +1,247 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.LinkProperties;
+import android.net.Network;
+import android.net.RouteInfo;
+import android.util.Log;
+
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.net.LatencyProbeEngine;
+import com.project.tabletobserverjava.monitor.net.LatencyStats;
+import com.project.tabletobserverjava.monitor.net.PhaseTimings;
+import com.project.tabletobserverjava.monitor.net.ProbeResult;
+import com.project.tabletobserverjava.monitor.net.ProbeTarget;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coletor de latência da rede ativa, com sondas HEAD a vários destinos: o backend próprio,
+ * quando configurado, o gateway da rede local e um host público. Cada destino tem sua janela
+ * deslizante, da qual são registrados p50, p95, p99, jitter e perda.
+ *
+ * O host público é sondado com uma conexão nova a cada ciclo, e o tempo de cada fase (DNS,
+ * conexão TCP, handshake TLS e primeiro byte) é registrado separadamente, para distinguir
+ * um DNS lento de um enlace Wi-Fi lento ou de um servidor lento. O backend reaproveita a
+ * conexão e mede só a requisição, como o app a vê.
+ *
+ * O gateway distingue um problema na rede local de um problema no caminho até a internet.
+ * Ele é descoberto pela rota padrão da rede ativa a cada coleta, e sondado sem reuso de
+ * conexão, já que roteadores costumam fechar a conexão após cada resposta.
+ */
+public class LatencyCollector implements MetricCollector {
+
+    private static final String TAG = "LatencyCollector";
+
+    private static final int WINDOW_SIZE = 60;
+    private static final int PROBE_TIMEOUT_MS = 3000;
+    /** Prazo de cada ciclo; as sondas passam dele só se a resolução de nome travar. */
+    private static final long PROBE_DEADLINE_MS = 4000;
+    /** Backend, gateway e host público. */
+    private static final int MAX_TARGETS = 3;
+    /** Latência do host público abaixo da qual a conexão é considerada rápida. */
+    private static final double FAST_LATENCY_MS = 300;
+
+    static final String TARGET_BACKEND = "backend";
+    static final String TARGET_GATEWAY = "gateway";
+    static final String TARGET_PUBLIC = "public";
+
+    private final ConnectivityManager connectivityManager;
+    private final LatencyProbeEngine engine = new LatencyProbeEngine(WINDOW_SIZE, MAX_TARGETS);
+    // Nomes das métricas de cada destino, criados uma vez
+    private final Map<String, String[]> metricNames = new HashMap<>();
+    private int lastBinderCalls;
+
+    /**
+     * @param context    Contexto usado para descobrir o gateway da rede ativa.
+     * @param publicUrl  URL de um host público (ex.: "https://www.google.com").
+     * @param backendUrl URL do backend próprio, ou vazio para não sondá-lo.
+     */
+    public LatencyCollector(Context context, String publicUrl, String backendUrl) {
+        this.connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        addTarget(TARGET_BACKEND, backendUrl, true);
+        addTarget(TARGET_PUBLIC, publicUrl, false);
+    }
+
+    private void addTarget(String name, String url, boolean reuseConnection) {
+        if (url == null || url.isEmpty()) {
+            return;
+        }
+        try {
+            engine.setTarget(new ProbeTarget(name, new URL(url), reuseConnection, PROBE_TIMEOUT_MS));
+        } catch (MalformedURLException e) {
+            Log.w(TAG, "URL inválida para o destino " + name + ": " + url);
+        }
+    }
+
+    /**
+     * Cancela as sondas em andamento e encerra as threads de sonda.
+     */
+    public void stop() {
+        engine.stop();
+    }
+
+    @Override
+    public String getName() {
+        return "latency";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return 5000;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.EXPENSIVE;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        // Os destinos são sondados em paralelo, até o prazo do ciclo
+        return PROBE_DEADLINE_MS + 500;
+    }
+
+    @Override
+    public int getLastBinderCalls() {
+        return lastBinderCalls;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        lastBinderCalls = 0;
+        updateGateway();
+        List<ProbeResult> results;
+        try {
+            results = engine.probeAll(PROBE_DEADLINE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        sink.record("latency.probes_skipped", engine.getSkippedCount());
+        sink.record("latency.probes_cancelled", engine.getCancelledCount());
+        sink.record("latency.results_discarded", engine.getStaleCount());
+        if (results.isEmpty()) {
+            sink.publish("LATENCY", "Nenhum destino de latência configurado");
+            return;
+        }
+
+        StringBuilder description = new StringBuilder(160);
+        for (ProbeResult result : results) {
+            String name = result.getTarget().getName();
+            LatencyStats stats = result.getStats();
+            String[] names = metricNames(name);
+            if (result.isSuccess()) {
+                sink.record(names[0], result.getLatencyMs());
+            }
+            sink.record(names[1], stats.getP50Ms());
+            sink.record(names[2], stats.getP95Ms());
+            sink.record(names[3], stats.getP99Ms());
+            sink.record(names[4], stats.getJitterMs());
+            sink.record(names[5], 100.0 * stats.getLossRate());
+            PhaseTimings phases = result.getPhases();
+            if (result.isSuccess() && phases != null) {
+                sink.record(names[6], phases.getDnsMs());
+                sink.record(names[7], phases.getConnectMs());
+                if (phases.getTlsMs() >= 0) {
+                    sink.record(names[8], phases.getTlsMs());
+                }
+                if (phases.getFirstByteMs() >= 0) {
+                    sink.record(names[9], phases.getFirstByteMs());
+                }
+            }
+
+            if (description.length() > 0) {
+                description.append(" | ");
+            }
+            description.append(name).append(": ");
+            if (result.isSuccess()) {
+                description.append(String.format("%.0f ms", result.getLatencyMs()));
+                if (phases != null) {
+                    description.append(String.format(" (DNS %.0f, TCP %.0f", phases.getDnsMs(), phases.getConnectMs()));
+                    if (phases.getTlsMs() >= 0) {
+                        description.append(String.format(", TLS %.0f", phases.getTlsMs()));
+                    }
+                    if (phases.getFirstByteMs() >= 0) {
+                        description.append(String.format(", 1º byte %.0f", phases.getFirstByteMs()));
+                    }
+                    description.append(')');
+                }
+            } else {
+                description.append("falha (").append(result.getError()).append(')');
+            }
+            description.append(String.format(", p50 %.0f, p95 %.0f, p99 %.0f, jitter %.1f ms, perda %.0f%%",
+                    stats.getP50Ms(), stats.getP95Ms(), stats.getP99Ms(), stats.getJitterMs(),
+                    100.0 * stats.getLossRate()));
+
+            if (TARGET_PUBLIC.equals(name) && result.isSuccess()) {
+                // Métrica e classificação anteriores, mantidas para quem já as consome
+                sink.record("latency.ms", result.getLatencyMs());
+                description.insert(0, result.getLatencyMs() < FAST_LATENCY_MS ? "Conexão rápida. " : "Conexão lenta. ");
+            }
+        }
+        sink.publish("LATENCY", description.toString());
+    }
+
+    private String[] metricNames(String target) {
+        String[] names = metricNames.get(target);
+        if (names == null) {
+            String prefix = "latency." + target + ".";
+            names = new String[]{prefix + "ms", prefix + "p50_ms", prefix + "p95_ms", prefix + "p99_ms",
+                    prefix + "jitter_ms", prefix + "loss_pct", prefix + "dns_ms", prefix + "connect_ms",
+                    prefix + "tls_ms", prefix + "ttfb_ms"};
+            metricNames.put(target, names);
+        }
+        return names;
+    }
+
+    /**
+     * Atualiza o destino do gateway com a rota padrão IPv4 da rede ativa, ou o remove sem rede.
+     */
+    private void updateGateway() {
+        InetAddress gateway = findGateway();
+        if (gateway == null) {
+            engine.removeTarget(TARGET_GATEWAY);
+            return;
+        }
+        try {
+            // Muitos roteadores não têm servidor web: a sonda só conecta, e a recusa também conta
+            engine.setTarget(new ProbeTarget(TARGET_GATEWAY,
+                    new URL("http", gateway.getHostAddress(), 80, "/"), false, true, PROBE_TIMEOUT_MS));
+        } catch (MalformedURLException e) {
+            engine.removeTarget(TARGET_GATEWAY);
+        }
+    }
+
+    private InetAddress findGateway() {
+        if (connectivityManager == null) {
+            return null;
+        }
+        Network network = connectivityManager.getActiveNetwork();
+        lastBinderCalls++;
+        if (network == null) {
+            return null;
+        }
+        LinkProperties properties = connectivityManager.getLinkProperties(network);
+        lastBinderCalls++;
+        if (properties == null) {
+            return null;
+        }
+        for (RouteInfo route : properties.getRoutes()) {
+            InetAddress gateway = route.getGateway();
+            // Só IPv4: gateways IPv6 são link-local e exigiriam o escopo da interface na URL
+            if (route.isDefaultRoute() && gateway instanceof Inet4Address && !gateway.isAnyLocalAddress()) {
+                return gateway;
+            }
+        }
+        return null;
+    }
+}
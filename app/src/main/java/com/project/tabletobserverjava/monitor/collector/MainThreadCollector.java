@@ -0,0 +1,116 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.OverheadBudget;
+import com.project.tabletobserverjava.monitor.jank.DurationWindow;
+import com.project.tabletobserverjava.monitor.jank.FrameMonitor;
+import com.project.tabletobserverjava.monitor.jank.LooperWatchdog;
+
+/**
+ * Coletor de fluidez da interface: atraso da fila da thread principal, medido o tempo todo
+ * pelo LooperWatchdog, com tick rápido só enquanto a interface está visível, e duração dos
+ * quadros, medida pelo FrameMonitor também só enquanto a interface está visível. A cada janela publica as contagens de jank, o maior travamento e, quando um
+ * travamento passa do limite, a pilha da thread principal capturada durante ele.
+ */
+public class MainThreadCollector implements MetricCollector {
+
+    private static final long WINDOW_MS = 10_000;
+    /** Atraso da thread principal a partir do qual a pilha é capturada. */
+    private static final long STALL_MS = 500;
+
+    private final LooperWatchdog watchdog = new LooperWatchdog(STALL_MS);
+    private final FrameMonitor frameMonitor = new FrameMonitor();
+    // Cópias reaproveitadas a cada janela
+    private final DurationWindow frames = new DurationWindow(0, 0);
+    private final DurationWindow lags = new DurationWindow(0, 0);
+    private long publishedStallSequence;
+
+    /**
+     * Inicia o watchdog da thread principal.
+     */
+    public void start() {
+        watchdog.start();
+    }
+
+    public void stop() {
+        watchdog.stop();
+    }
+
+    /**
+     * @return Conta de custo do watchdog, que roda fora do agendador.
+     */
+    public OverheadBudget.Account getWatchdogAccount() {
+        return watchdog.getAccount();
+    }
+
+    /**
+     * Passa a medir os quadros. Chamar na thread principal quando a interface fica visível.
+     *
+     * @param refreshRateHz Taxa de atualização da tela.
+     */
+    public void startFrameTracking(float refreshRateHz) {
+        frameMonitor.start(refreshRateHz);
+        watchdog.setVisible(true);
+    }
+
+    /**
+     * Para de medir os quadros. Chamar na thread principal quando a interface deixa de ser visível.
+     */
+    public void stopFrameTracking() {
+        frameMonitor.stop();
+        watchdog.setVisible(false);
+    }
+
+    @Override
+    public String getName() {
+        return "main_thread";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return WINDOW_MS;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return 100;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        frameMonitor.drainTo(frames);
+        watchdog.drainTo(lags);
+
+        sink.record("looper.max_lag_ms", lags.getMaxMs());
+        sink.record("looper.p99_lag_ms", lags.getPercentileMs(99));
+        sink.record("looper.lag_count", lags.getOverThresholdCount());
+        sink.record("looper.stall_count", lags.getSevereCount());
+        String description = String.format("Thread principal: atraso máx %.0f ms, p99 %.0f ms, %d lentos, %d travamentos",
+                lags.getMaxMs(), lags.getPercentileMs(99), lags.getOverThresholdCount(), lags.getSevereCount());
+
+        if (frames.getCount() > 0) {
+            sink.record("ui.frames", frames.getCount());
+            sink.record("ui.jank_frames", frames.getOverThresholdCount());
+            sink.record("ui.frozen_frames", frames.getSevereCount());
+            sink.record("ui.max_frame_ms", frames.getMaxMs());
+            description += String.format(" | Quadros: %d, jank %d (%.1f%%), congelados %d, maior %.0f ms",
+                    frames.getCount(), frames.getOverThresholdCount(),
+                    100.0 * frames.getOverThresholdCount() / frames.getCount(),
+                    frames.getSevereCount(), frames.getMaxMs());
+        }
+        sink.publish("MAIN_THREAD", description);
+
+        long stallSequence = watchdog.getStallSequence();
+        if (stallSequence != publishedStallSequence) {
+            publishedStallSequence = stallSequence;
+            sink.publish("MAIN_THREAD_STALL", String.format("Thread principal parada há mais de %d ms às %tT.%<tL:%n%s",
+                    STALL_MS, watchdog.getStallDetectedAtMs(), watchdog.getStallStack()));
+        }
+    }
+}
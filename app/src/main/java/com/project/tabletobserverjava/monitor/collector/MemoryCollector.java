@@ -0,0 +1,161 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.util.Log;
+
+import com.project.tabletobserverjava.data.model.MemorySample;
+import com.project.tabletobserverjava.monitor.AdaptiveInterval;
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.proc.MemInfoSampler;
+import com.project.tabletobserverjava.monitor.proc.PressureSampler;
+
+import java.io.IOException;
+
+/**
+ * Coletor de memória do dispositivo: ActivityManager.MemoryInfo, /proc/meminfo e a pressão
+ * de memória, CPU e I/O do PSI, que antecedem as mortes pelo low memory killer.
+ * Leitura barata, amostrada a cada segundo enquanto o uso muda ou passa de 80%, e até a cada
+ * 15 segundos com o uso estável; o resultado é uma MemorySample estruturada.
+ */
+public class MemoryCollector implements MetricCollector {
+
+    private static final String TAG = "MemoryCollector";
+
+    private static final long MIN_INTERVAL_MS = 1000;
+    private static final long MAX_INTERVAL_MS = 15_000;
+    /** Variação do uso, em pontos percentuais, considerada estável. */
+    private static final double STABLE_BAND_PCT = 2;
+    /** Mesmo limite do alerta de MEMORY_USAGE. */
+    private static final double ALERT_PCT = 80;
+
+    private final AdaptiveInterval adaptiveInterval =
+            new AdaptiveInterval(MIN_INTERVAL_MS, MAX_INTERVAL_MS, STABLE_BAND_PCT, ALERT_PCT);
+
+    private final ActivityManager activityManager;
+    private final ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+    private final MemInfoSampler memInfo = new MemInfoSampler();
+    private final PressureSampler memoryPressure = PressureSampler.forResource("memory");
+    private final PressureSampler cpuPressure = PressureSampler.forResource("cpu");
+    private final PressureSampler ioPressure = PressureSampler.forResource("io");
+    private boolean memInfoAvailable = true;
+    private volatile MemorySample latest;
+
+    public MemoryCollector(Context context) {
+        this.activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+    }
+
+    /**
+     * @return Última amostra estruturada, ou null antes da primeira coleta.
+     */
+    public MemorySample getLatest() {
+        return latest;
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return MIN_INTERVAL_MS;
+    }
+
+    @Override
+    public AdaptiveInterval getAdaptiveInterval() {
+        return adaptiveInterval;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return 100;
+    }
+
+    @Override
+    public int getLastBinderCalls() {
+        // ActivityManager.getMemoryInfo
+        return 1;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        activityManager.getMemoryInfo(memoryInfo);
+        if (memInfoAvailable) {
+            try {
+                memInfo.sample();
+            } catch (IOException e) {
+                Log.w(TAG, "/proc/meminfo indisponível: " + e.getMessage());
+                memInfoAvailable = false;
+            }
+        }
+        long now = System.nanoTime();
+        boolean memoryPsi = memoryPressure.sample(now);
+        boolean cpuPsi = cpuPressure.sample(now);
+        boolean ioPsi = ioPressure.sample(now);
+
+        MemorySample sample = new MemorySample(System.currentTimeMillis(),
+                memoryInfo.totalMem / 1024, memoryInfo.availMem / 1024,
+                meminfo(MemInfoSampler.MEM_FREE), meminfo(MemInfoSampler.CACHED), meminfo(MemInfoSampler.BUFFERS),
+                meminfo(MemInfoSampler.SWAP_TOTAL), meminfo(MemInfoSampler.SWAP_FREE),
+                meminfo(MemInfoSampler.SWAP_CACHED),
+                memoryInfo.lowMemory, memoryInfo.threshold / 1024,
+                memoryPsi ? memoryPressure.getSome().getIntervalPercent() : -1,
+                memoryPsi ? memoryPressure.getFull().getIntervalPercent() : -1,
+                cpuPsi ? cpuPressure.getSome().getIntervalPercent() : -1,
+                ioPsi ? ioPressure.getSome().getIntervalPercent() : -1,
+                ioPsi ? ioPressure.getFull().getIntervalPercent() : -1);
+        latest = sample;
+        record(sink, sample);
+
+        long totalMemory = sample.getTotalKb() / 1024; // Total de memória em MB
+        long usedMemory = (sample.getTotalKb() - sample.getAvailableKb()) / 1024; // Memória usada em MB
+        long usedPercentage = (usedMemory * 100) / totalMemory; // Porcentagem de memória usada
+
+        sink.publish("MEMORY_USAGE", String.format("Memória utilizada: %d MB de %d MB (%d%%)%s",
+                usedMemory, totalMemory, usedPercentage,
+                usedPercentage > 80 ? " - ALERTA: Uso acima de 80%!" : ""));
+        // Pouca memória segundo o sistema também mantém o intervalo mínimo
+        adaptiveInterval.onSample(sample.isLowMemory() ? ALERT_PCT : usedPercentage);
+        if (sample.isLowMemory()) {
+            sink.publish("WARNING", "Sistema com pouca memória: disponível abaixo do limite de "
+                    + sample.getThresholdKb() / 1024 + " MB.");
+        }
+    }
+
+    private long meminfo(int field) {
+        return memInfoAvailable ? memInfo.getKb(field) : -1;
+    }
+
+    private static void record(MetricSink sink, MemorySample sample) {
+        sink.record("memory.total_mb", sample.getTotalKb() / 1024);
+        sink.record("memory.used_mb", (sample.getTotalKb() - sample.getAvailableKb()) / 1024);
+        sink.record("memory.available_kb", sample.getAvailableKb());
+        sink.record("memory.threshold_kb", sample.getThresholdKb());
+        sink.record("memory.low_memory", sample.isLowMemory() ? 1 : 0);
+        if (sample.getCachedKb() >= 0) {
+            sink.record("memory.free_kb", sample.getFreeKb());
+            sink.record("memory.cached_kb", sample.getCachedKb());
+            sink.record("memory.buffers_kb", sample.getBuffersKb());
+            sink.record("memory.swap_total_kb", sample.getSwapTotalKb());
+            sink.record("memory.swap_used_kb", sample.getSwapUsedKb());
+        }
+        if (sample.getMemorySomePercent() >= 0) {
+            sink.record("pressure.memory.some_pct", sample.getMemorySomePercent());
+            sink.record("pressure.memory.full_pct", sample.getMemoryFullPercent());
+        }
+        if (sample.getCpuSomePercent() >= 0) {
+            sink.record("pressure.cpu.some_pct", sample.getCpuSomePercent());
+        }
+        if (sample.getIoSomePercent() >= 0) {
+            sink.record("pressure.io.some_pct", sample.getIoSomePercent());
+            sink.record("pressure.io.full_pct", sample.getIoFullPercent());
+        }
+    }
+}
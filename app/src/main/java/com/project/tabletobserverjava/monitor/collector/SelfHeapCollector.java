@@ -0,0 +1,105 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.os.Debug;
+
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+
+/**
+ * Coletor do consumo de memória do próprio observador: heap Java, heap nativo, coletas de
+ * lixo e taxa de alocação, para que o observador não vire a causa do que mede.
+ */
+public class SelfHeapCollector implements MetricCollector {
+
+    private static final String GC_COUNT = "art.gc.gc-count";
+    private static final String GC_TIME = "art.gc.gc-time";
+    private static final String BLOCKING_GC_COUNT = "art.gc.blocking-gc-count";
+    private static final String BLOCKING_GC_TIME = "art.gc.blocking-gc-time";
+    private static final String BYTES_ALLOCATED = "art.gc.bytes-allocated";
+
+    private long lastSampleNanos = -1;
+    private long lastBytesAllocated = -1;
+    private long lastGcCount = -1;
+    private long lastGcTimeMs = -1;
+
+    @Override
+    public String getName() {
+        return "self_heap";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return 5000;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return 100;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+        long heapMax = runtime.maxMemory();
+        long nativeAllocated = Debug.getNativeHeapAllocatedSize();
+
+        sink.record("self.heap.used_bytes", heapUsed);
+        sink.record("self.heap.max_bytes", heapMax);
+        sink.record("self.native_heap.allocated_bytes", nativeAllocated);
+        sink.record("self.native_heap.size_bytes", Debug.getNativeHeapSize());
+
+        long gcCount = runtimeStat(GC_COUNT);
+        long gcTimeMs = runtimeStat(GC_TIME);
+        long bytesAllocated = runtimeStat(BYTES_ALLOCATED);
+        if (gcCount >= 0) {
+            sink.record("self.gc.count", gcCount);
+            sink.record("self.gc.time_ms", gcTimeMs);
+            sink.record("self.gc.blocking_count", runtimeStat(BLOCKING_GC_COUNT));
+            sink.record("self.gc.blocking_time_ms", runtimeStat(BLOCKING_GC_TIME));
+        }
+
+        long now = System.nanoTime();
+        double allocationRate = -1;
+        if (lastSampleNanos >= 0) {
+            double elapsedSec = (now - lastSampleNanos) / 1_000_000_000.0;
+            if (bytesAllocated >= 0 && lastBytesAllocated >= 0 && bytesAllocated >= lastBytesAllocated) {
+                allocationRate = (bytesAllocated - lastBytesAllocated) / elapsedSec;
+                sink.record("self.alloc.bytes_per_sec", allocationRate);
+            }
+            if (gcCount >= 0 && lastGcCount >= 0) {
+                sink.record("self.gc.count_per_min", (gcCount - lastGcCount) * 60 / elapsedSec);
+                sink.record("self.gc.time_pct", 100.0 * (gcTimeMs - lastGcTimeMs) / (elapsedSec * 1000));
+            }
+        }
+        lastSampleNanos = now;
+        lastBytesAllocated = bytesAllocated;
+        lastGcCount = gcCount;
+        lastGcTimeMs = gcTimeMs;
+
+        sink.publish("SELF_MEMORY", String.format("Observador: heap %.1f de %.0f MB, nativo %.1f MB, GC %d (%d ms)%s",
+                heapUsed / (1024.0 * 1024.0), heapMax / (1024.0 * 1024.0), nativeAllocated / (1024.0 * 1024.0),
+                Math.max(0, gcCount), Math.max(0, gcTimeMs),
+                allocationRate >= 0 ? String.format(", alocando %.1f KB/s", allocationRate / 1024.0) : ""));
+    }
+
+    /**
+     * @return Estatística numérica do ART, ou -1 se não existir neste aparelho.
+     */
+    private static long runtimeStat(String name) {
+        String value = Debug.getRuntimeStat(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.storage.PackageStorageCache;
+import com.project.tabletobserverjava.monitor.storage.PerPackageStorageStrategy;
+import com.project.tabletobserverjava.monitor.storage.StatFsStorageStrategy;
+import com.project.tabletobserverjava.monitor.storage.StatsManagerStorageStrategy;
+import com.project.tabletobserverjava.monitor.storage.StorageEngine;
+import com.project.tabletobserverjava.monitor.storage.StorageRanking;
+import com.project.tabletobserverjava.monitor.storage.StorageSample;
+import com.project.tabletobserverjava.monitor.storage.StorageStrategy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coletor de armazenamento interno baseado no StorageEngine.
+ * Cada ciclo usa a estratégia agregada mais barata; a soma por pacote só roda
+ * quando alguém pede explicitamente com requestBreakdown() ou a cada BREAKDOWN_INTERVAL_MS,
+ * para manter o ranking dos maiores consumidores. Entre uma soma e outra, o cache por pacote
+ * continua sendo atualizado a cada ciclo, com os pacotes alterados e as reconsultas de cache
+ * vencidas, para que o ciclo de reconsultas não dependa da cadência da soma.
+ */
+public class StorageCollector implements MetricCollector {
+
+    private static final String TAG = "StorageCollector";
+    private static final long BREAKDOWN_INTERVAL_MS = 15 * 60 * 1000;
+    private static final int RANKING_SIZE = 5;
+
+    private final StorageEngine storageEngine;
+    private final PackageStorageCache packageCache;
+    private final StorageRanking ranking = new StorageRanking(RANKING_SIZE);
+    private final AtomicBoolean breakdownRequested = new AtomicBoolean();
+    private long lastBreakdownMs;
+    private int lastBinderCalls;
+
+    public StorageCollector(Context context) {
+        this.packageCache = new PackageStorageCache(context);
+        packageCache.registerPackageReceiver();
+        packageCache.setListener(ranking);
+
+        this.storageEngine = new StorageEngine()
+                .addStrategy(new StatsManagerStorageStrategy(context))
+                .addStrategy(new StatFsStorageStrategy())
+                .addStrategy(new PerPackageStorageStrategy(packageCache));
+    }
+
+    /**
+     * Deixa de receber os broadcasts de pacotes.
+     */
+    public void stop() {
+        packageCache.unregisterPackageReceiver();
+    }
+
+    public StorageEngine getStorageEngine() {
+        return storageEngine;
+    }
+
+    public StorageRanking getRanking() {
+        return ranking;
+    }
+
+    /**
+     * Pede que o próximo ciclo também calcule a soma por pacote.
+     */
+    public void requestBreakdown() {
+        breakdownRequested.set(true);
+    }
+
+    /**
+     * Em TRIM_MEMORY_COMPLETE descarta o cache por pacote e o ranking. Abaixo disso mantém
+     * o cache, porque refazê-lo custa uma consulta de binder por pacote instalado.
+     *
+     * @return Descrição do que foi liberado, ou null se nada foi liberado.
+     */
+    public String trimMemory(int level) {
+        if (level < ComponentCallbacks2.TRIM_MEMORY_COMPLETE) {
+            return null;
+        }
+        int packages = packageCache.clear();
+        ranking.clear();
+        return packages > 0 ? "cache de armazenamento: " + packages + " pacotes" : null;
+    }
+
+    @Override
+    public String getName() {
+        return "storage";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return 60 * 1000;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.MODERATE;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        // Cobre a varredura inicial por pacote, limitada a 15 segundos
+        return 20_000;
+    }
+
+    @Override
+    public int getLastBinderCalls() {
+        return lastBinderCalls;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        lastBinderCalls = 0;
+        double completeness = packageCache.getLastScanCompleteness();
+        try {
+            StorageSample sample = storageEngine.sample(StorageStrategy.Detail.AGGREGATE);
+            if ("stats_manager".equals(sample.getStrategy())) {
+                // getTotalBytes, getFreeBytes e queryStatsForUser
+                lastBinderCalls += 3;
+            }
+            recordSample(sink, "storage", sample);
+            String description = String.format("Total: %.2f GB, Usado: %.2f GB, Livre: %.2f GB (%d%%) [%s, %d ms]",
+                    sample.getTotalBytes() / (1024.0 * 1024.0 * 1024.0),
+                    sample.getUsedBytes() / (1024.0 * 1024.0 * 1024.0),
+                    sample.getFreeBytes() / (1024.0 * 1024.0 * 1024.0),
+                    sample.getUsedPercentage(), sample.getStrategy(), sample.getDurationMs());
+            if (completeness < 1.0) {
+                // O ranking e a soma por pacote ainda não cobrem todos os pacotes
+                description += String.format(" | Varredura por pacote parcial: %.0f%% dos pacotes", completeness * 100);
+            }
+            sink.publish("STORAGE_STATS", description);
+
+            // Aviso se o uso ultrapassar 90%
+            if (sample.getUsedPercentage() > 90) {
+                sink.publish("WARNING", "Uso de armazenamento acima de 90%.");
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Erro ao obter informações de armazenamento: " + e.getMessage(), e);
+            sink.publish("STORAGE_STATS", "Erro ao obter informações de armazenamento.");
+        }
+
+        long now = SystemClock.elapsedRealtime();
+        boolean breakdownDue = lastBreakdownMs == 0 || now - lastBreakdownMs >= BREAKDOWN_INTERVAL_MS;
+        if (breakdownRequested.getAndSet(false) || breakdownDue) {
+            lastBreakdownMs = now;
+            try {
+                recordSample(sink, "storage.packages", storageEngine.sample(StorageStrategy.Detail.PER_PACKAGE));
+                lastBinderCalls += packageCache.getLastBinderCalls();
+                publishRanking(sink);
+            } catch (Exception e) {
+                Log.e(TAG, "Erro ao calcular armazenamento por pacote: " + e.getMessage(), e);
+            }
+        } else {
+            packageCache.refreshIfInitialized();
+            lastBinderCalls += packageCache.getLastBinderCalls();
+        }
+        sink.record("storage.scan_completeness", packageCache.getLastScanCompleteness());
+    }
+
+    /**
+     * Publica os maiores consumidores de cada categoria junto com o STORAGE_STATS.
+     */
+    private void publishRanking(MetricSink sink) {
+        publishRanking(sink, "STORAGE_TOP_APP", "Maiores apps", ranking.top(StorageRanking.Category.APP), "");
+        publishRanking(sink, "STORAGE_TOP_DATA", "Maiores dados", ranking.top(StorageRanking.Category.DATA), "");
+        publishRanking(sink, "STORAGE_TOP_CACHE", "Maiores caches", ranking.top(StorageRanking.Category.CACHE), "");
+        publishRanking(sink, "STORAGE_TOP_GROWTH", "Maior crescimento", ranking.top(StorageRanking.Category.GROWTH), "/h");
+    }
+
+    private static void publishRanking(MetricSink sink, String eventType, String title,
+                                       List<Map.Entry<String, Long>> entries, String unitSuffix) {
+        StringBuilder description = new StringBuilder(title).append(':');
+        int shown = 0;
+        for (Map.Entry<String, Long> entry : entries) {
+            if (entry.getValue() <= 0) {
+                continue;
+            }
+            description.append(shown == 0 ? " " : ", ")
+                    .append(entry.getKey())
+                    .append(String.format(" (%.1f MB%s)", entry.getValue() / (1024.0 * 1024.0), unitSuffix));
+            shown++;
+        }
+        if (shown == 0) {
+            description.append(" nenhum");
+        }
+        sink.publish(eventType, description.toString());
+    }
+
+    private static void recordSample(MetricSink sink, String prefix, StorageSample sample) {
+        sink.record(prefix + ".total_bytes", sample.getTotalBytes());
+        sink.record(prefix + ".used_bytes", sample.getUsedBytes());
+        if (sample.getAppBytes() != StorageSample.UNKNOWN) {
+            sink.record(prefix + ".app_bytes", sample.getAppBytes());
+            sink.record(prefix + ".data_bytes", sample.getDataBytes());
+            sink.record(prefix + ".cache_bytes", sample.getCacheBytes());
+        }
+        sink.record(prefix + ".sample_ms", sample.getDurationMs());
+    }
+}
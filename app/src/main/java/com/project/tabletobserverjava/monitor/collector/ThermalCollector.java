@@ -0,0 +1,269 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.util.Log;
+
+import com.project.tabletobserverjava.monitor.AdaptiveInterval;
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.proc.CpuFreqSampler;
+import com.project.tabletobserverjava.monitor.proc.ThermalZoneSampler;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Coletor de limitação térmica.
+ *
+ * A partir do Android 10 as mudanças de status térmico chegam por
+ * PowerManager.addThermalStatusListener e são publicadas no instante em que acontecem; a partir
+ * do Android 11 a folga até a limitação vem de getThermalHeadroom. Em todas as versões, as
+ * temperaturas das zonas térmicas e o teto de frequência de cada núcleo são registrados como
+ * métricas. Sem o listener, a limitação é detectada pelo teto de frequência abaixo do máximo
+ * do hardware, com a resolução do intervalo do coletor.
+ */
+public class ThermalCollector implements MetricCollector {
+
+    private static final String TAG = "ThermalCollector";
+
+    /** Horizonte da previsão de getThermalHeadroom. */
+    private static final int HEADROOM_FORECAST_SECONDS = 10;
+    /** Teto de frequência abaixo do qual a CPU é considerada limitada, sem o listener. */
+    private static final double THROTTLED_CAP_PERCENT = 95;
+
+    private static final long MIN_INTERVAL_MS = 5000;
+    private static final long MAX_INTERVAL_MS = 60_000;
+    /** Variação da maior temperatura, em graus, considerada estável. */
+    private static final double STABLE_BAND_CELSIUS = 1.0;
+
+    // Sem limite de alerta: a limitação em si chega pelo listener ou pelo teto de frequência
+    private final AdaptiveInterval adaptiveInterval =
+            new AdaptiveInterval(MIN_INTERVAL_MS, MAX_INTERVAL_MS, STABLE_BAND_CELSIUS, Double.NaN);
+
+    private final PowerManager powerManager;
+    private final Executor callbackExecutor;
+    private final ThermalZoneSampler zones = new ThermalZoneSampler();
+    private final CpuFreqSampler frequencies = new CpuFreqSampler();
+    private final StringBuilder description = new StringBuilder(128);
+    private final PowerManager.OnThermalStatusChangedListener statusListener = this::onThermalStatusChanged;
+
+    // Nomes das métricas, criados uma vez por zona e por núcleo
+    private final String[] zoneMetricNames;
+    private final String[] frequencyMetricNames;
+    private final String[] capMetricNames;
+
+    private volatile MetricSink listenerSink;
+    private int lastStatus = -1;
+    private boolean lastCapped;
+    private int lastBinderCalls;
+
+    public ThermalCollector(Context context) {
+        this.powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        // Context.getMainExecutor só existe a partir do Android 9; o Handler vale para o minSdk 27
+        this.callbackExecutor = new Handler(Looper.getMainLooper())::post;
+
+        zoneMetricNames = new String[zones.getZoneCount()];
+        for (int i = 0; i < zoneMetricNames.length; i++) {
+            zoneMetricNames[i] = "thermal.zone" + zones.getZone(i).getIndex() + ".temp_c";
+        }
+        frequencyMetricNames = new String[frequencies.getCoreCount()];
+        capMetricNames = new String[frequencies.getCoreCount()];
+        for (int i = 0; i < frequencyMetricNames.length; i++) {
+            int core = frequencies.getCore(i).getIndex();
+            frequencyMetricNames[i] = "cpu.core" + core + ".freq_mhz";
+            capMetricNames[i] = "cpu.core" + core + ".freq_cap_pct";
+        }
+    }
+
+    /**
+     * Passa a receber as mudanças de status térmico, no Android 10 ou superior.
+     * O sistema chama o listener logo no registro com o status atual.
+     *
+     * @param sink Destino das transições, publicadas fora do ciclo do coletor.
+     */
+    public void registerThermalListener(MetricSink sink) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || powerManager == null) {
+            return;
+        }
+        listenerSink = sink;
+        powerManager.addThermalStatusListener(callbackExecutor, statusListener);
+    }
+
+    public void unregisterThermalListener() {
+        if (listenerSink != null) {
+            powerManager.removeThermalStatusListener(statusListener);
+            listenerSink = null;
+        }
+    }
+
+    private void onThermalStatusChanged(int status) {
+        long timestampMs = System.currentTimeMillis();
+        MetricSink sink = listenerSink;
+        if (sink != null) {
+            publishStatus(sink, status, timestampMs);
+        }
+    }
+
+    private synchronized int getLastStatus() {
+        return lastStatus;
+    }
+
+    private synchronized void publishStatus(MetricSink sink, int status, long timestampMs) {
+        if (status == lastStatus) {
+            return;
+        }
+        int previous = lastStatus;
+        lastStatus = status;
+        sink.record("thermal.status", status);
+        sink.record("thermal.status_changed_at_ms", timestampMs);
+        String transition = previous < 0
+                ? String.format("Status térmico: %s às %tT.%<tL", statusName(status), timestampMs)
+                : String.format("Status térmico: %s → %s às %tT.%<tL",
+                statusName(previous), statusName(status), timestampMs);
+        Log.i(TAG, transition);
+        sink.publish("THERMAL_THROTTLING", transition);
+        if (status >= PowerManager.THERMAL_STATUS_SEVERE) {
+            sink.publish("WARNING", "Limitação térmica " + statusName(status) + ".");
+        }
+    }
+
+    /**
+     * Transição detectada pelo teto de frequência, quando o listener não está ativo.
+     */
+    private synchronized void publishCap(MetricSink sink, boolean capped, double capPercent, long timestampMs) {
+        if (capped == lastCapped) {
+            return;
+        }
+        lastCapped = capped;
+        sink.record("thermal.throttled", capped ? 1 : 0);
+        sink.record("thermal.status_changed_at_ms", timestampMs);
+        String transition = capped
+                ? String.format("CPU limitada a %.0f%% da frequência máxima, detectada às %tT.%<tL",
+                capPercent, timestampMs)
+                : String.format("Limitação de frequência encerrada, detectada às %tT.%<tL", timestampMs);
+        Log.i(TAG, transition);
+        sink.publish("THERMAL_THROTTLING", transition);
+    }
+
+    @Override
+    public String getName() {
+        return "thermal";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return MIN_INTERVAL_MS;
+    }
+
+    @Override
+    public AdaptiveInterval getAdaptiveInterval() {
+        return adaptiveInterval;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return 200;
+    }
+
+    @Override
+    public int getLastBinderCalls() {
+        return lastBinderCalls;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        description.setLength(0);
+        lastBinderCalls = 0;
+
+        if (listenerSink != null) {
+            // O status chega pelo listener; nenhuma chamada ao sistema a cada execução
+            int status = getLastStatus();
+            if (status >= 0) {
+                description.append("Status: ").append(statusName(status));
+            }
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R && powerManager != null) {
+            // NaN quando o aparelho não informa a folga
+            float headroom = powerManager.getThermalHeadroom(HEADROOM_FORECAST_SECONDS);
+            lastBinderCalls++;
+            if (!Float.isNaN(headroom)) {
+                sink.record("thermal.headroom", headroom);
+                separator().append(String.format("folga: %.2f", headroom));
+            }
+        }
+
+        if (zones.sample() > 0) {
+            double hottest = Double.NEGATIVE_INFINITY;
+            String hottestType = null;
+            for (int i = 0; i < zones.getZoneCount(); i++) {
+                ThermalZoneSampler.Zone zone = zones.getZone(i);
+                if (!zone.isAvailable()) {
+                    continue;
+                }
+                sink.record(zoneMetricNames[i], zone.getCelsius());
+                if (zone.getCelsius() > hottest) {
+                    hottest = zone.getCelsius();
+                    hottestType = zone.getType();
+                }
+            }
+            sink.record("thermal.max_temp_c", hottest);
+            adaptiveInterval.onSample(hottest);
+            separator().append(String.format("maior temperatura: %.1f °C (%s)", hottest, hottestType));
+        }
+
+        if (frequencies.sample() > 0) {
+            for (int i = 0; i < frequencies.getCoreCount(); i++) {
+                CpuFreqSampler.Core core = frequencies.getCore(i);
+                if (!core.isPresent()) {
+                    continue;
+                }
+                sink.record(frequencyMetricNames[i], core.getCurrentMhz());
+                sink.record(capMetricNames[i], core.getCapPercent());
+            }
+            double minCap = frequencies.getMinCapPercent();
+            sink.record("cpu.freq_cap_min_pct", minCap);
+            separator().append(String.format("teto da CPU: %.0f%%", minCap));
+            if (listenerSink == null) {
+                publishCap(sink, minCap < THROTTLED_CAP_PERCENT, minCap, System.currentTimeMillis());
+            }
+        }
+
+        if (description.length() == 0) {
+            description.append("Sensores térmicos indisponíveis");
+        }
+        sink.publish("THERMAL", description.toString());
+    }
+
+    private StringBuilder separator() {
+        return description.length() == 0 ? description : description.append(", ");
+    }
+
+    static String statusName(int status) {
+        switch (status) {
+            case PowerManager.THERMAL_STATUS_NONE:
+                return "NONE";
+            case PowerManager.THERMAL_STATUS_LIGHT:
+                return "LIGHT";
+            case PowerManager.THERMAL_STATUS_MODERATE:
+                return "MODERATE";
+            case PowerManager.THERMAL_STATUS_SEVERE:
+                return "SEVERE";
+            case PowerManager.THERMAL_STATUS_CRITICAL:
+                return "CRITICAL";
+            case PowerManager.THERMAL_STATUS_EMERGENCY:
+                return "EMERGENCY";
+            case PowerManager.THERMAL_STATUS_SHUTDOWN:
+                return "SHUTDOWN";
+            default:
+                return String.valueOf(status);
+        }
+    }
+}
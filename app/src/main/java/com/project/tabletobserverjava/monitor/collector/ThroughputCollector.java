@@ -0,0 +1,220 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.util.Log;
+
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.net.ProbeCall;
+import com.project.tabletobserverjava.monitor.net.ProbeTarget;
+import com.project.tabletobserverjava.monitor.net.ThroughputEstimator;
+import com.project.tabletobserverjava.monitor.net.ThroughputProbe;
+import com.project.tabletobserverjava.monitor.net.ThroughputResult;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coletor da vazão alcançável, da qual o conteúdo de vídeo depende, medida com um download e um
+ * upload contra um endpoint configurado. A medição para assim que a vazão converge, então
+ * normalmente gasta bem menos que o limite de bytes; em redes tarifadas ela é pulada.
+ *
+ * A medição roda numa thread própria, fora dos workers do agendador, e o coletor espera por ela
+ * no máximo MEASURE_DEADLINE_MS. Passado o prazo, ou no stop(), o canal aberto é fechado pelo
+ * ProbeCall; uma medição presa na resolução de nome segue até o fim, e enquanto isso os ciclos
+ * seguintes são pulados em vez de abrir outra thread.
+ */
+public class ThroughputCollector implements MetricCollector {
+
+    private static final String TAG = "ThroughputCollector";
+
+    private static final long INTERVAL_MS = 30 * 60 * 1000;
+    /** Limite de cada sentido, se a estimativa não convergir antes. */
+    private static final long MAX_BYTES = 25L * 1024 * 1024;
+    private static final long MAX_DURATION_MS = 10_000;
+    private static final long WARMUP_MS = 1000;
+    private static final long SAMPLE_MS = 250;
+    private static final long STALL_MS = 500;
+    private static final double TOLERANCE = 0.05;
+    private static final int STABLE_SAMPLES = 4;
+    /** Prazo da medição inteira: os dois sentidos, a espera pelas respostas e a resolução de nome. */
+    private static final long MEASURE_DEADLINE_MS = 2 * (MAX_DURATION_MS + 2000) + 2000;
+
+    private final ConnectivityManager connectivityManager;
+    private final ProbeTarget target;
+    private int lastBinderCalls;
+    private long sequence;
+    // Medição em andamento, inclusive depois do prazo, até a thread terminar
+    private ProbeCall inFlight;
+    private ThreadPoolExecutor executor;
+    private final ThroughputProbe probe = new ThroughputProbe(
+            new ThroughputEstimator(WARMUP_MS, SAMPLE_MS, STALL_MS, TOLERANCE, STABLE_SAMPLES));
+
+    /**
+     * @param endpointUrl URL http que responde a GET com dados e aceita POST.
+     */
+    public ThroughputCollector(Context context, String endpointUrl) throws MalformedURLException {
+        this.connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        this.target = new ProbeTarget("throughput", new URL(endpointUrl), false, (int) MAX_DURATION_MS);
+    }
+
+    @Override
+    public String getName() {
+        return "throughput";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return INTERVAL_MS;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.EXPENSIVE;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return MEASURE_DEADLINE_MS + 1000;
+    }
+
+    @Override
+    public int getLastBinderCalls() {
+        return lastBinderCalls;
+    }
+
+    @Override
+    public void collect(MetricSink sink) throws InterruptedException {
+        lastBinderCalls = 0;
+        Network network = null;
+        if (connectivityManager != null) {
+            network = connectivityManager.getActiveNetwork();
+            lastBinderCalls++;
+        }
+        if (network == null) {
+            sink.publish("THROUGHPUT", "Sem rede: medição de banda pulada");
+            return;
+        }
+        lastBinderCalls++;
+        if (connectivityManager.isActiveNetworkMetered()) {
+            sink.publish("THROUGHPUT", "Rede tarifada: medição de banda pulada");
+            return;
+        }
+        ProbeCall call;
+        Future<ThroughputResult[]> future;
+        synchronized (this) {
+            if (inFlight != null) {
+                sink.publish("THROUGHPUT", "Medição anterior em andamento: medição de banda pulada");
+                return;
+            }
+            call = new ProbeCall(target, ++sequence);
+            try {
+                future = executor().submit(() -> measure(call));
+            } catch (RejectedExecutionException e) {
+                sink.publish("THROUGHPUT", "Fila de medição cheia: medição de banda pulada");
+                return;
+            }
+            inFlight = call;
+        }
+
+        ThroughputResult[] results;
+        try {
+            results = future.get(MEASURE_DEADLINE_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            call.cancel();
+            sink.publish("THROUGHPUT", "Prazo esgotado: medição de banda cancelada");
+            return;
+        } catch (ExecutionException e) {
+            sink.publish("THROUGHPUT", "Falha na medição de banda: " + e.getCause().getClass().getSimpleName());
+            return;
+        } catch (InterruptedException e) {
+            call.cancel();
+            throw e;
+        }
+        ThroughputResult download = results[0];
+        ThroughputResult upload = results[1];
+        sink.publish("THROUGHPUT", describe(download) + " | " + describe(upload));
+        record(sink, download);
+        record(sink, upload);
+    }
+
+    private ThroughputResult[] measure(ProbeCall call) {
+        try {
+            ThroughputResult download = probe.download(call, MAX_BYTES, MAX_DURATION_MS);
+            ThroughputResult upload = probe.upload(call, MAX_BYTES, MAX_DURATION_MS);
+            return new ThroughputResult[] {download, upload};
+        } finally {
+            synchronized (this) {
+                if (inFlight == call) {
+                    inFlight = null;
+                }
+            }
+        }
+    }
+
+    private ThreadPoolExecutor executor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "TabletObserver-Throughput");
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    });
+            // A medição é de meia em meia hora: a thread não fica parada esperando entre elas
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    /**
+     * Cancela a medição em andamento e encerra a thread. Uma nova coleta cria outra thread.
+     */
+    public void stop() {
+        ProbeCall call;
+        ThreadPoolExecutor pool;
+        synchronized (this) {
+            call = inFlight;
+            inFlight = null;
+            pool = executor;
+            executor = null;
+        }
+        if (call != null) {
+            call.cancel();
+        }
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void record(MetricSink sink, ThroughputResult result) {
+        if (!result.isSuccess()) {
+            Log.w(TAG, "Falha na medição de " + result.getDirection() + ": " + result.getError());
+            return;
+        }
+        String prefix = "throughput." + result.getDirection();
+        sink.record(prefix + ".mbps", result.getMbps());
+        sink.record(prefix + ".bytes", result.getBytes());
+        sink.record(prefix + ".stalls", result.getStalls());
+        sink.record(prefix + ".converge_ms", result.getConvergedAfterMs());
+    }
+
+    private static String describe(ThroughputResult result) {
+        if (!result.isSuccess()) {
+            return result.getDirection() + ": falha (" + result.getError() + ")";
+        }
+        return String.format("%s: %.1f Mbps, %.1f MB, %d travamentos, %s", result.getDirection(),
+                result.getMbps(), result.getBytes() / (1024.0 * 1024.0), result.getStalls(),
+                result.isConverged()
+                        ? String.format("convergiu em %.1f s", result.getConvergedAfterMs() / 1000.0)
+                        : String.format("sem convergir em %.1f s", result.getDurationMs() / 1000.0));
+    }
+}
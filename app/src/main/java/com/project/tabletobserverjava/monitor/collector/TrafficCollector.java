@@ -0,0 +1,225 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.net.TrafficStats;
+import android.util.Log;
+
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+import com.project.tabletobserverjava.monitor.net.TrafficCounter;
+import com.project.tabletobserverjava.monitor.proc.NetDevSampler;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Coletor de tráfego de rede: bytes e pacotes por segundo, recebidos e enviados, por
+ * interface de /proc/net/dev, com as taxas suavizadas por EWMA.
+ *
+ * Se /proc/net/dev não puder ser lido, o que acontece em aparelhos onde o SELinux bloqueia
+ * /proc/net para apps, os contadores vêm do TrafficStats, separados apenas em rede móvel e
+ * demais interfaces (Wi-Fi, ethernet).
+ *
+ * O coletor vive no motor de coleta, então os totais valem desde o início do processo e não
+ * recomeçam quando a tela é recriada; resets dos contadores do kernel são tratados pelo
+ * TrafficCounter. A interface de loopback fica de fora dos totais.
+ */
+public class TrafficCollector implements MetricCollector {
+
+    private static final String TAG = "TrafficCollector";
+
+    private static final long INTERVAL_MS = 5000;
+    /** Constante de tempo da suavização: cerca de quatro amostras. */
+    private static final long SMOOTHING_MS = 20_000;
+    private static final double MB = 1024.0 * 1024.0;
+    // Métricas da alternativa pelo TrafficStats
+    private static final String[] MOBILE_METRICS = {"traffic.mobile.rx_bps", "traffic.mobile.tx_bps",
+            "traffic.mobile.rx_pps", "traffic.mobile.tx_pps", "traffic.mobile.resets"};
+    private static final String[] OTHER_METRICS = {"traffic.other.rx_bps", "traffic.other.tx_bps",
+            "traffic.other.rx_pps", "traffic.other.tx_pps", "traffic.other.resets"};
+
+    private final NetDevSampler netDev = new NetDevSampler();
+    private boolean netDevAvailable = true;
+    private long lastSampleNanos;
+
+    // Contadores e nomes de métricas de cada interface, na ordem do NetDevSampler
+    private TrafficCounter[] counters = new TrafficCounter[0];
+    private String[][] metricNames = new String[0][];
+
+    // Alternativa pelo TrafficStats
+    private final TrafficCounter mobile = new TrafficCounter(SMOOTHING_MS);
+    private final TrafficCounter other = new TrafficCounter(SMOOTHING_MS);
+
+    @Override
+    public String getName() {
+        return "traffic";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return INTERVAL_MS;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return 100;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        long now = System.nanoTime();
+        long elapsedMs = lastSampleNanos == 0 ? 0 : (now - lastSampleNanos) / 1_000_000;
+        lastSampleNanos = now;
+
+        StringBuilder details = new StringBuilder(128);
+        if (netDevAvailable) {
+            try {
+                netDev.sample();
+            } catch (IOException | SecurityException e) {
+                Log.w(TAG, "/proc/net/dev indisponível, usando TrafficStats.", e);
+                netDevAvailable = false;
+            }
+        }
+        if (netDevAvailable) {
+            collectInterfaces(elapsedMs, sink, details);
+        } else {
+            collectTrafficStats(elapsedMs, sink, details);
+        }
+        if (elapsedMs == 0) {
+            // Primeira amostra: ainda não há intervalo para calcular taxas
+            return;
+        }
+
+        double rxBytes = 0;
+        double txBytes = 0;
+        double rxPackets = 0;
+        double txPackets = 0;
+        long totalBytes = 0;
+        if (netDevAvailable) {
+            for (int i = 0; i < netDev.getInterfaceCount(); i++) {
+                // Interfaces ausentes ficam fora das taxas, mas o que trafegaram segue no total
+                TrafficCounter counter = counters[i];
+                if (counter == null) {
+                    continue;
+                }
+                if (netDev.getInterface(i).isPresent()) {
+                    rxBytes += counter.getRxBytesPerSec();
+                    txBytes += counter.getTxBytesPerSec();
+                    rxPackets += counter.getRxPacketsPerSec();
+                    txPackets += counter.getTxPacketsPerSec();
+                }
+                totalBytes += counter.getTotalRxBytes() + counter.getTotalTxBytes();
+            }
+        } else {
+            rxBytes = mobile.getRxBytesPerSec() + other.getRxBytesPerSec();
+            txBytes = mobile.getTxBytesPerSec() + other.getTxBytesPerSec();
+            rxPackets = mobile.getRxPacketsPerSec() + other.getRxPacketsPerSec();
+            txPackets = mobile.getTxPacketsPerSec() + other.getTxPacketsPerSec();
+            totalBytes = mobile.getTotalRxBytes() + mobile.getTotalTxBytes()
+                    + other.getTotalRxBytes() + other.getTotalTxBytes();
+        }
+
+        sink.record("traffic.rx_bps", rxBytes);
+        sink.record("traffic.tx_bps", txBytes);
+        sink.record("traffic.rx_pps", rxPackets);
+        sink.record("traffic.tx_pps", txPackets);
+        sink.record("data_usage.total_mb", totalBytes / MB);
+        sink.publish("DATA_USAGE", String.format("Tráfego: recebendo %.2f MB/s (%.0f pacotes/s), enviando %.2f MB/s (%.0f pacotes/s), total %.2f MB%s",
+                rxBytes / MB, rxPackets, txBytes / MB, txPackets, totalBytes / MB, details));
+    }
+
+    private void collectInterfaces(long elapsedMs, MetricSink sink, StringBuilder details) {
+        int count = netDev.getInterfaceCount();
+        if (counters.length < count) {
+            counters = Arrays.copyOf(counters, count);
+            metricNames = Arrays.copyOf(metricNames, count);
+        }
+        for (int i = 0; i < count; i++) {
+            NetDevSampler.Interface iface = netDev.getInterface(i);
+            if (iface.isLoopback() || !iface.isPresent()) {
+                continue;
+            }
+            TrafficCounter counter = counters[i];
+            if (counter == null) {
+                counter = new TrafficCounter(SMOOTHING_MS);
+                counters[i] = counter;
+                String prefix = "traffic." + iface.getName();
+                metricNames[i] = new String[]{prefix + ".rx_bps", prefix + ".tx_bps", prefix + ".rx_pps",
+                        prefix + ".tx_pps", prefix + ".resets"};
+            }
+            counter.update(iface.getRxBytes(), iface.getTxBytes(), iface.getRxPackets(), iface.getTxPackets(),
+                    elapsedMs);
+            if (elapsedMs > 0) {
+                record(counter, metricNames[i], sink);
+                appendDetail(details, iface.getName(), interfaceKind(iface.getName()), counter);
+            }
+        }
+    }
+
+    private void collectTrafficStats(long elapsedMs, MetricSink sink, StringBuilder details) {
+        long mobileRxBytes = supported(TrafficStats.getMobileRxBytes());
+        long mobileTxBytes = supported(TrafficStats.getMobileTxBytes());
+        long mobileRxPackets = supported(TrafficStats.getMobileRxPackets());
+        long mobileTxPackets = supported(TrafficStats.getMobileTxPackets());
+        mobile.update(mobileRxBytes, mobileTxBytes, mobileRxPackets, mobileTxPackets, elapsedMs);
+        // O TrafficStats não separa o Wi-Fi: é o total menos a rede móvel
+        other.update(Math.max(0, supported(TrafficStats.getTotalRxBytes()) - mobileRxBytes),
+                Math.max(0, supported(TrafficStats.getTotalTxBytes()) - mobileTxBytes),
+                Math.max(0, supported(TrafficStats.getTotalRxPackets()) - mobileRxPackets),
+                Math.max(0, supported(TrafficStats.getTotalTxPackets()) - mobileTxPackets),
+                elapsedMs);
+        if (elapsedMs > 0) {
+            record(mobile, MOBILE_METRICS, sink);
+            record(other, OTHER_METRICS, sink);
+            appendDetail(details, "móvel", null, mobile);
+            appendDetail(details, "Wi-Fi e outras", null, other);
+        }
+    }
+
+    private static void record(TrafficCounter counter, String[] names, MetricSink sink) {
+        sink.record(names[0], counter.getRxBytesPerSec());
+        sink.record(names[1], counter.getTxBytesPerSec());
+        sink.record(names[2], counter.getRxPacketsPerSec());
+        sink.record(names[3], counter.getTxPacketsPerSec());
+        sink.record(names[4], counter.getResets());
+    }
+
+    private static void appendDetail(StringBuilder details, String name, String kind, TrafficCounter counter) {
+        // Interfaces paradas não entram no texto
+        if (counter.getRxBytesPerSec() < 1 && counter.getTxBytesPerSec() < 1) {
+            return;
+        }
+        details.append(details.length() == 0 ? " | " : "; ").append(name);
+        if (kind != null) {
+            details.append(" (").append(kind).append(')');
+        }
+        details.append(String.format(": ↓ %.2f ↑ %.2f MB/s", counter.getRxBytesPerSec() / MB,
+                counter.getTxBytesPerSec() / MB));
+    }
+
+    /**
+     * @return Tipo da interface pelo prefixo do nome usado pelos drivers Android.
+     */
+    static String interfaceKind(String name) {
+        if (name.startsWith("wlan") || name.startsWith("swlan")) {
+            return "Wi-Fi";
+        }
+        if (name.startsWith("rmnet") || name.startsWith("v4-rmnet") || name.startsWith("ccmni")
+                || name.startsWith("seth") || name.startsWith("pdp")) {
+            return "móvel";
+        }
+        if (name.startsWith("eth")) {
+            return "ethernet";
+        }
+        return "outra";
+    }
+
+    private static long supported(long value) {
+        // TrafficStats.UNSUPPORTED quando o aparelho não expõe o contador
+        return value == TrafficStats.UNSUPPORTED ? 0 : value;
+    }
+}
@@ -0,0 +1,332 @@
+package com.project.tabletobserverjava.monitor.collector;
+
+import android.app.usage.StorageStatsManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.os.Environment;
+import android.os.StatFs;
+import android.os.SystemClock;
+import android.os.storage.StorageManager;
+import android.os.storage.StorageVolume;
+import android.util.Log;
+
+import com.project.tabletobserverjava.data.local.StorageInfo;
+import com.project.tabletobserverjava.monitor.MetricCollector;
+import com.project.tabletobserverjava.monitor.MetricSink;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Coletor de todos os volumes de armazenamento: interno, cartão SD e armazenamento adotado.
+ *
+ * A lista de volumes só é relida quando chega um broadcast de montagem ou desmontagem, e
+ * volumes desmontados nem são consultados. Cada volume tem a sua cadência e o UUID usado no
+ * StorageStatsManager é resolvido uma única vez por montagem. Cada volume publica com o seu
+ * próprio tipo de evento, STORAGE_VOLUME_ seguido da chave do volume, já que o log guarda só
+ * o último evento de cada tipo.
+ */
+public class VolumeStorageCollector implements MetricCollector {
+
+    private static final String TAG = "VolumeStorageCollector";
+
+    /** Ativação do coletor; cada volume só é amostrado quando vence a sua própria cadência. */
+    private static final long TICK_INTERVAL_MS = 15 * 1000;
+    private static final long INTERNAL_INTERVAL_MS = 60 * 1000;
+    /** Cartões SD mudam pouco e podem ser lentos; são consultados com menos frequência. */
+    private static final long REMOVABLE_INTERVAL_MS = 5 * 60 * 1000;
+
+    private static final String PRIMARY_KEY = "primary";
+
+    private final Context context;
+    private final StorageManager storageManager;
+    private final StorageStatsManager storageStatsManager;
+
+    private final Map<String, Volume> volumes = new LinkedHashMap<>();
+    private volatile boolean volumesChanged = true;
+    private volatile List<StorageInfo> latest = Collections.emptyList();
+    private volatile Runnable onVolumesChanged;
+
+    private final BroadcastReceiver mediaReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            volumesChanged = true;
+            Runnable callback = onVolumesChanged;
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    };
+
+    public VolumeStorageCollector(Context context) {
+        this.context = context;
+        this.storageManager = (StorageManager) context.getSystemService(Context.STORAGE_SERVICE);
+        this.storageStatsManager = (StorageStatsManager) context.getSystemService(Context.STORAGE_STATS_SERVICE);
+    }
+
+    /**
+     * Passa a receber os broadcasts de montagem, desmontagem e remoção de volumes.
+     */
+    public void registerVolumeReceiver() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_MEDIA_MOUNTED);
+        filter.addAction(Intent.ACTION_MEDIA_UNMOUNTED);
+        filter.addAction(Intent.ACTION_MEDIA_REMOVED);
+        filter.addAction(Intent.ACTION_MEDIA_EJECT);
+        filter.addAction(Intent.ACTION_MEDIA_BAD_REMOVAL);
+        filter.addDataScheme("file");
+        context.registerReceiver(mediaReceiver, filter);
+    }
+
+    public void unregisterVolumeReceiver() {
+        context.unregisterReceiver(mediaReceiver);
+    }
+
+    /**
+     * Define a ação executada quando um volume é montado ou removido,
+     * normalmente antecipar a próxima execução deste coletor.
+     */
+    public void setOnVolumesChanged(Runnable onVolumesChanged) {
+        this.onVolumesChanged = onVolumesChanged;
+    }
+
+    /**
+     * @return Última amostra de cada volume montado.
+     */
+    public List<StorageInfo> getVolumes() {
+        return latest;
+    }
+
+    @Override
+    public String getName() {
+        return "storage_volumes";
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return TICK_INTERVAL_MS;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.MODERATE;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return 2000;
+    }
+
+    @Override
+    public void collect(MetricSink sink) {
+        if (volumesChanged) {
+            volumesChanged = false;
+            reloadVolumes(sink);
+        }
+
+        long now = SystemClock.elapsedRealtime();
+        boolean sampled = false;
+        for (Volume volume : volumes.values()) {
+            if (!volume.mounted || volume.nextDueMs > now) {
+                continue;
+            }
+            volume.nextDueMs = now + volume.intervalMs;
+            try {
+                volume.info = sample(volume);
+                sampled = true;
+                sink.record("storage.volume." + volume.key + ".total_bytes", volume.info.getTotalSpace());
+                sink.record("storage.volume." + volume.key + ".free_bytes", volume.info.getFreeSpace());
+                sink.publish(volume.eventType, String.format("%s: Total: %.2f GB, Livre: %.2f GB",
+                        volume.description,
+                        volume.info.getTotalSpace() / (1024.0 * 1024.0 * 1024.0),
+                        volume.info.getFreeSpace() / (1024.0 * 1024.0 * 1024.0)));
+            } catch (Exception e) {
+                Log.w(TAG, "Falha ao consultar o volume " + volume.description + ": " + e.getMessage());
+            }
+        }
+        if (sampled) {
+            updateLatest();
+        }
+    }
+
+    private void updateLatest() {
+        List<StorageInfo> snapshot = new ArrayList<>();
+        for (Volume volume : volumes.values()) {
+            if (volume.mounted && volume.info != null) {
+                snapshot.add(volume.info);
+            }
+        }
+        latest = Collections.unmodifiableList(snapshot);
+    }
+
+    /**
+     * Relê a lista de volumes. Volumes já conhecidos e ainda montados mantêm o UUID resolvido
+     * e a cadência; os novos ou remontados vencem imediatamente.
+     */
+    private void reloadVolumes(MetricSink sink) {
+        List<StorageVolume> storageVolumes = storageManager.getStorageVolumes();
+        Map<String, File> directories = resolveDirectories(storageVolumes);
+        Map<String, Volume> previouslyMounted = new HashMap<>();
+        for (Volume volume : volumes.values()) {
+            if (volume.mounted) {
+                previouslyMounted.put(volume.key, volume);
+            }
+        }
+
+        Map<String, Volume> reloaded = new LinkedHashMap<>();
+        for (StorageVolume storageVolume : storageVolumes) {
+            String key = keyOf(storageVolume);
+            String state = storageVolume.getState();
+            boolean mounted = Environment.MEDIA_MOUNTED.equals(state)
+                    || Environment.MEDIA_MOUNTED_READ_ONLY.equals(state);
+            File directory = directories.get(key);
+
+            Volume volume = volumes.get(key);
+            if (volume == null || !volume.mounted || !sameFile(volume.directory, directory)) {
+                volume = new Volume(key, storageVolume, storageVolume.getDescription(context), directory);
+                if (mounted) {
+                    Log.d(TAG, "Volume montado: " + volume.description + " (" + state + ")");
+                }
+            }
+            volume.mounted = mounted && directory != null;
+            reloaded.put(key, volume);
+        }
+
+        for (Volume previous : previouslyMounted.values()) {
+            Volume current = reloaded.get(previous.key);
+            if (current == null || !current.mounted) {
+                sink.publish(previous.eventType, previous.description + " desmontado.");
+            }
+        }
+        volumes.clear();
+        volumes.putAll(reloaded);
+        // Volumes desmontados saem de getVolumes() junto com o evento
+        updateLatest();
+    }
+
+    /**
+     * Associa cada volume montado a um diretório acessível para o StatFs.
+     */
+    private Map<String, File> resolveDirectories(List<StorageVolume> storageVolumes) {
+        Map<String, File> directories = new HashMap<>();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            for (StorageVolume storageVolume : storageVolumes) {
+                File directory = storageVolume.getDirectory();
+                if (directory != null) {
+                    directories.put(keyOf(storageVolume), directory);
+                }
+            }
+            return directories;
+        }
+        // Antes da API 30 o caminho do volume não é público; os diretórios do app em cada
+        // volume externo montado servem para o StatFs e identificam o volume
+        for (File directory : context.getExternalFilesDirs(null)) {
+            if (directory == null) {
+                continue;
+            }
+            StorageVolume storageVolume = storageManager.getStorageVolume(directory);
+            if (storageVolume != null) {
+                directories.put(keyOf(storageVolume), directory);
+            }
+        }
+        return directories;
+    }
+
+    private StorageInfo sample(Volume volume) throws IOException {
+        UUID statsUuid = resolveStatsUuid(volume);
+        long total;
+        long free;
+        if (statsUuid != null) {
+            try {
+                total = storageStatsManager.getTotalBytes(statsUuid);
+                free = storageStatsManager.getFreeBytes(statsUuid);
+                return new StorageInfo(volume.description, volume.key, volume.removable,
+                        total, free, System.currentTimeMillis());
+            } catch (IOException | IllegalArgumentException e) {
+                // Volume sem suporte no StorageStatsManager; usa StatFs daqui em diante
+                volume.statsUuid = null;
+            }
+        }
+        StatFs stat = new StatFs(volume.directory.getPath());
+        total = stat.getTotalBytes();
+        free = stat.getAvailableBytes();
+        return new StorageInfo(volume.description, volume.key, volume.removable,
+                total, free, System.currentTimeMillis());
+    }
+
+    /**
+     * Resolve, uma única vez por montagem, o UUID do volume no StorageStatsManager.
+     * Volumes removíveis são públicos e não têm esse UUID.
+     */
+    private UUID resolveStatsUuid(Volume volume) {
+        if (volume.statsUuidResolved) {
+            return volume.statsUuid;
+        }
+        volume.statsUuidResolved = true;
+        if (volume.primary) {
+            volume.statsUuid = StorageManager.UUID_DEFAULT;
+        } else if (!volume.removable) {
+            try {
+                volume.statsUuid = Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                        ? volume.storageVolume.getStorageUuid()
+                        : storageManager.getUuidForPath(volume.directory);
+            } catch (IOException e) {
+                volume.statsUuid = null;
+            }
+        }
+        return volume.statsUuid;
+    }
+
+    private static String keyOf(StorageVolume storageVolume) {
+        if (storageVolume.isPrimary()) {
+            return PRIMARY_KEY;
+        }
+        String uuid = storageVolume.getUuid();
+        return uuid != null ? uuid : String.valueOf(storageVolume.hashCode());
+    }
+
+    private static boolean sameFile(File a, File b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * Estado de um volume entre duas releituras da lista.
+     */
+    private static class Volume {
+        final String key;
+        final String eventType;
+        final StorageVolume storageVolume;
+        final String description;
+        final File directory;
+        final boolean primary;
+        final boolean removable;
+        final long intervalMs;
+        boolean mounted;
+        boolean statsUuidResolved;
+        UUID statsUuid;
+        long nextDueMs;
+        StorageInfo info;
+
+        Volume(String key, StorageVolume storageVolume, String description, File directory) {
+            this.key = key;
+            this.eventType = "STORAGE_VOLUME_" + key.toUpperCase(Locale.ROOT);
+            this.storageVolume = storageVolume;
+            this.description = description;
+            this.directory = directory;
+            this.primary = storageVolume.isPrimary();
+            this.removable = storageVolume.isRemovable();
+            this.intervalMs = removable ? REMOVABLE_INTERVAL_MS : INTERNAL_INTERVAL_MS;
+        }
+    }
+}
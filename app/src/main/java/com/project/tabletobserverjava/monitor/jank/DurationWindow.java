@@ -0,0 +1,108 @@
+package com.project.tabletobserverjava.monitor.jank;
+
+import java.util.Arrays;
+
+/**
+ * Janela de durações em buffers primitivos de tamanho fixo: contagem, maior valor, contagens
+ * acima de dois limites e um histograma com limites em potências de dois.
+ *
+ * Registrar uma duração não aloca memória, para poder rodar a cada quadro na thread principal.
+ * O leitor copia e zera a janela com {@link #drainTo(DurationWindow)}, também sem alocar.
+ */
+public class DurationWindow {
+
+    /** Limite superior de cada faixa do histograma, em milissegundos; a última é aberta. */
+    private static final long[] BUCKET_BOUNDS_MS = {4, 8, 16, 32, 64, 128, 256, 512, 1024, 2048, 4096};
+
+    private final long thresholdNanos;
+    private final long severeNanos;
+    private final long[] buckets = new long[BUCKET_BOUNDS_MS.length + 1];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+    private long overThreshold;
+    private long severe;
+
+    /**
+     * @param thresholdNanos Duração a partir da qual o evento conta como lento, como um quadro perdido.
+     * @param severeNanos    Duração a partir da qual o evento conta como grave, como um quadro congelado.
+     */
+    public DurationWindow(long thresholdNanos, long severeNanos) {
+        this.thresholdNanos = thresholdNanos;
+        this.severeNanos = severeNanos;
+    }
+
+    public synchronized void record(long nanos) {
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+        if (nanos >= thresholdNanos) {
+            overThreshold++;
+        }
+        if (nanos >= severeNanos) {
+            severe++;
+        }
+        long ms = nanos / 1_000_000L;
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MS.length && ms >= BUCKET_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket]++;
+    }
+
+    /**
+     * Copia a janela para {@code target} e recomeça a contagem.
+     */
+    public void drainTo(DurationWindow target) {
+        synchronized (this) {
+            synchronized (target) {
+                System.arraycopy(buckets, 0, target.buckets, 0, buckets.length);
+                target.count = count;
+                target.totalNanos = totalNanos;
+                target.maxNanos = maxNanos;
+                target.overThreshold = overThreshold;
+                target.severe = severe;
+            }
+            Arrays.fill(buckets, 0);
+            count = 0;
+            totalNanos = 0;
+            maxNanos = 0;
+            overThreshold = 0;
+            severe = 0;
+        }
+    }
+
+    public synchronized long getCount() { return count; }
+
+    public synchronized double getMaxMs() { return maxNanos / 1_000_000.0; }
+
+    public synchronized double getMeanMs() { return count > 0 ? totalNanos / 1_000_000.0 / count : 0; }
+
+    /** @return Eventos com duração a partir do limite de lentidão. */
+    public synchronized long getOverThresholdCount() { return overThreshold; }
+
+    /** @return Eventos com duração a partir do limite grave. */
+    public synchronized long getSevereCount() { return severe; }
+
+    /**
+     * Percentil aproximado pelo limite superior da faixa do histograma onde ele cai.
+     *
+     * @return Duração em milissegundos; na faixa aberta, o maior valor observado.
+     */
+    public synchronized double getPercentileMs(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(BUCKET_BOUNDS_MS[i], getMaxMs());
+            }
+        }
+        return getMaxMs();
+    }
+}
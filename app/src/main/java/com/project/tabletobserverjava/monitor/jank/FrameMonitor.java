@@ -0,0 +1,71 @@
+package com.project.tabletobserverjava.monitor.jank;
+
+import android.view.Choreographer;
+
+/**
+ * Mede a duração de cada quadro pelo intervalo entre callbacks do Choreographer.
+ *
+ * Um quadro que leva mais de 1,5 período de vsync é contado como jank e um acima de 700 ms
+ * como congelado. O callback se registra de novo a cada quadro, o que acorda a thread
+ * principal a cada vsync; por isso só roda enquanto a interface está visível.
+ * Deve ser iniciado e parado na thread principal.
+ */
+public class FrameMonitor implements Choreographer.FrameCallback {
+
+    private static final long FROZEN_FRAME_NANOS = 700_000_000L;
+    private static final double JANK_PERIODS = 1.5;
+    private static final float DEFAULT_REFRESH_RATE_HZ = 60f;
+
+    private volatile DurationWindow window = newWindow(DEFAULT_REFRESH_RATE_HZ);
+    private boolean running;
+    private long lastFrameNanos;
+
+    /**
+     * Passa a medir os quadros.
+     *
+     * @param refreshRateHz Taxa de atualização da tela, usada para definir o limite de jank.
+     */
+    public void start(float refreshRateHz) {
+        if (running) {
+            return;
+        }
+        if (refreshRateHz > 0) {
+            window = newWindow(refreshRateHz);
+        }
+        running = true;
+        lastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) {
+            return;
+        }
+        if (lastFrameNanos > 0) {
+            window.record(frameTimeNanos - lastFrameNanos);
+        }
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * Copia os quadros da janela atual para {@code target} e recomeça a contagem.
+     */
+    public void drainTo(DurationWindow target) {
+        window.drainTo(target);
+    }
+
+    private static DurationWindow newWindow(float refreshRateHz) {
+        long periodNanos = (long) (1_000_000_000L / refreshRateHz);
+        return new DurationWindow((long) (periodNanos * JANK_PERIODS), FROZEN_FRAME_NANOS);
+    }
+}
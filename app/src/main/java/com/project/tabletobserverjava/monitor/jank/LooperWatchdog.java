@@ -0,0 +1,186 @@
+package com.project.tabletobserverjava.monitor.jank;
+
+import android.os.Debug;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+
+import com.project.tabletobserverjava.monitor.OverheadBudget;
+
+/**
+ * Mede o atraso da fila de mensagens da thread principal com um tick de watchdog.
+ *
+ * Uma thread de fundo posta sempre o mesmo Runnable na thread principal e mede quanto ele
+ * espera até rodar. Se o tick anterior ainda não rodou quando o atraso passa do limite de
+ * travamento, a pilha da thread principal é capturada uma vez por travamento; só esse caso
+ * aloca memória. A thread do watchdog usa o relógio de uptime e não roda com o aparelho
+ * suspenso.
+ *
+ * Cada tick acorda duas threads, a do watchdog e a principal; por isso o tick é rápido só
+ * enquanto a interface está visível e bem mais lento fora dela. As ativações e a CPU das duas
+ * threads entram numa conta do OverheadBudget, e o alongamento decidido pelo orçamento
+ * multiplica o intervalo entre ticks.
+ */
+public class LooperWatchdog {
+
+    /** Intervalo entre ticks com a interface visível. */
+    private static final long VISIBLE_TICK_MS = 100;
+    /** Intervalo entre ticks sem interface visível: ainda pega travamentos longos. */
+    private static final long HIDDEN_TICK_MS = 1000;
+    /** Atraso a partir do qual a interface já parece lenta. */
+    private static final long LAG_NANOS = 100_000_000L;
+    /** Linhas da pilha guardadas de cada travamento. */
+    private static final int MAX_STACK_FRAMES = 12;
+
+    private final long stallNanos;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final DurationWindow window;
+    private final Runnable mainTick = this::onMainTick;
+    private final Runnable watchdogTick = this::onWatchdogTick;
+    private final OverheadBudget.Account account = new OverheadBudget.Account("looper_watchdog");
+
+    private HandlerThread thread;
+    private Handler watchdogHandler;
+
+    private volatile boolean visible;
+    private volatile boolean tickPending;
+    private volatile long postedAtNanos;
+    private boolean stackCapturedForPending;
+
+    // Último travamento com pilha capturada
+    private long stallSequence;
+    private long stallDetectedAtMs;
+    private String stallStack;
+
+    /**
+     * @param stallMs Atraso a partir do qual a pilha da thread principal é capturada.
+     */
+    public LooperWatchdog(long stallMs) {
+        this.stallNanos = stallMs * 1_000_000L;
+        this.window = new DurationWindow(LAG_NANOS, stallNanos);
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new HandlerThread("TabletObserver-Watchdog", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        watchdogHandler = new Handler(thread.getLooper());
+        watchdogHandler.post(watchdogTick);
+    }
+
+    public synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        watchdogHandler.removeCallbacks(watchdogTick);
+        mainHandler.removeCallbacks(mainTick);
+        thread.quitSafely();
+        thread = null;
+        watchdogHandler = null;
+        tickPending = false;
+    }
+
+    /**
+     * Ajusta o tick à visibilidade da interface. Ao ficar visível, o próximo tick é imediato.
+     */
+    public synchronized void setVisible(boolean visible) {
+        if (this.visible == visible) {
+            return;
+        }
+        this.visible = visible;
+        if (visible && watchdogHandler != null) {
+            watchdogHandler.removeCallbacks(watchdogTick);
+            watchdogHandler.post(watchdogTick);
+        }
+    }
+
+    /**
+     * @return Conta com as ativações e a CPU do watchdog, para o orçamento do observador.
+     */
+    public OverheadBudget.Account getAccount() {
+        return account;
+    }
+
+    private void onWatchdogTick() {
+        long cpuStart = Debug.threadCpuTimeNanos();
+        long now = System.nanoTime();
+        if (!tickPending) {
+            tickPending = true;
+            stackCapturedForPending = false;
+            postedAtNanos = now;
+            mainHandler.post(mainTick);
+        } else if (!stackCapturedForPending && now - postedAtNanos >= stallNanos) {
+            stackCapturedForPending = true;
+            captureStack();
+        }
+        synchronized (this) {
+            if (watchdogHandler != null) {
+                long tickMs = (visible ? VISIBLE_TICK_MS : HIDDEN_TICK_MS) * account.getStretch();
+                watchdogHandler.postDelayed(watchdogTick, tickMs);
+            }
+        }
+        recordRun(cpuStart, now);
+    }
+
+    private void onMainTick() {
+        long cpuStart = Debug.threadCpuTimeNanos();
+        long now = System.nanoTime();
+        window.record(now - postedAtNanos);
+        tickPending = false;
+        recordRun(cpuStart, now);
+    }
+
+    /**
+     * Registra uma ativação de uma das duas threads na conta do orçamento.
+     */
+    private void recordRun(long cpuStart, long startNanos) {
+        long cpuEnd = Debug.threadCpuTimeNanos();
+        long wallNanos = System.nanoTime() - startNanos;
+        // Sem medida de CPU da thread, o tempo de parede é um limite superior
+        long cpuNanos = cpuStart >= 0 && cpuEnd >= cpuStart ? cpuEnd - cpuStart : wallNanos;
+        account.onRun(cpuNanos, wallNanos / 1_000_000L, 0);
+    }
+
+    private void captureStack() {
+        StackTraceElement[] stack = Looper.getMainLooper().getThread().getStackTrace();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < stack.length && i < MAX_STACK_FRAMES; i++) {
+            if (i > 0) {
+                text.append('\n');
+            }
+            text.append("  at ").append(stack[i]);
+        }
+        synchronized (this) {
+            stallSequence++;
+            stallDetectedAtMs = System.currentTimeMillis();
+            stallStack = text.toString();
+        }
+    }
+
+    /**
+     * Copia os atrasos da janela atual para {@code target} e recomeça a contagem.
+     */
+    public void drainTo(DurationWindow target) {
+        window.drainTo(target);
+    }
+
+    /**
+     * @return Quantos travamentos tiveram a pilha capturada desde o início.
+     */
+    public synchronized long getStallSequence() {
+        return stallSequence;
+    }
+
+    /** @return Momento em que o último travamento passou do limite, em currentTimeMillis. */
+    public synchronized long getStallDetectedAtMs() {
+        return stallDetectedAtMs;
+    }
+
+    /** @return Pilha da thread principal no último travamento, ou null se não houve. */
+    public synchronized String getStallStack() {
+        return stallStack;
+    }
+}
@@ -0,0 +1,185 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import java.util.List;
+
+/**
+ * Estado de conectividade montado a partir dos callbacks da rede padrão, com o horário exato
+ * de cada transição.
+ *
+ * O aparelho está conectado quando há rede padrão e ela foi validada pelo sistema. Uma queda
+ * vai da perda da conexão até a próxima validação; quedas curtas contam também como
+ * oscilação. Quedas só são contadas depois da primeira conexão, para que iniciar sem rede
+ * não conte como queda.
+ */
+public class ConnectivityTracker {
+
+    /** Quedas mais curtas que isso contam como oscilação. */
+    public static final long FLAP_MAX_MS = 30_000;
+    private static final int HISTORY_SIZE = 32;
+
+    private boolean hasNetwork;
+    private boolean validated;
+    private String transport = "";
+    private String interfaceName = "";
+    private boolean connected;
+    private boolean everConnected;
+    private long changedAtMs = -1;
+
+    private long outageStartMs = -1;
+    private int outages;
+    private int flaps;
+    private long totalOutageMs;
+    private long longestOutageMs;
+    private long lastOutageMs = -1;
+
+    // Últimas transições, em anel
+    private final Transition[] history = new Transition[HISTORY_SIZE];
+    private int historyNext;
+    private int historySize;
+
+    /**
+     * Nova rede padrão. A validação chega depois, nas capacidades.
+     */
+    public synchronized Transition onAvailable(long nowMs) {
+        hasNetwork = true;
+        return transition(nowMs, "rede disponível");
+    }
+
+    public synchronized Transition onLost(long nowMs) {
+        hasNetwork = false;
+        validated = false;
+        return transition(nowMs, "rede perdida");
+    }
+
+    /**
+     * @return Transição registrada, ou null se nada relevante mudou; variações de banda
+     * estimada, por exemplo, chegam o tempo todo e não são transições.
+     */
+    public synchronized Transition onCapabilities(boolean validated, String transport, long nowMs) {
+        hasNetwork = true;
+        boolean validationChanged = validated != this.validated;
+        boolean transportChanged = !transport.equals(this.transport);
+        if (!validationChanged && !transportChanged) {
+            return null;
+        }
+        this.validated = validated;
+        this.transport = transport;
+        return transition(nowMs, validationChanged
+                ? (validated ? "rede validada (" + transport + ")" : "rede sem validação (" + transport + ")")
+                : "transporte: " + transport);
+    }
+
+    /**
+     * @return Transição registrada, ou null se a interface não mudou.
+     */
+    public synchronized Transition onLinkProperties(String interfaceName, long nowMs) {
+        String name = interfaceName != null ? interfaceName : "";
+        if (name.equals(this.interfaceName)) {
+            return null;
+        }
+        this.interfaceName = name;
+        return transition(nowMs, "interface: " + (name.isEmpty() ? "nenhuma" : name));
+    }
+
+    /**
+     * Concilia o estado com uma consulta direta ao ConnectivityManager.
+     *
+     * @return Transição registrada, ou null se a consulta confirmou o estado.
+     */
+    public synchronized Transition onPolled(boolean hasNetwork, boolean validated, long nowMs) {
+        if (hasNetwork == this.hasNetwork && validated == this.validated) {
+            return null;
+        }
+        this.hasNetwork = hasNetwork;
+        this.validated = hasNetwork && validated;
+        return transition(nowMs, "consulta: " + (this.validated ? "conectado" : "desconectado"));
+    }
+
+    private Transition transition(long nowMs, String description) {
+        boolean nowConnected = hasNetwork && validated;
+        if (nowConnected != connected) {
+            connected = nowConnected;
+            changedAtMs = nowMs;
+            if (!nowConnected && everConnected) {
+                outageStartMs = nowMs;
+                outages++;
+            } else if (nowConnected) {
+                everConnected = true;
+                if (outageStartMs >= 0) {
+                    lastOutageMs = nowMs - outageStartMs;
+                    totalOutageMs += lastOutageMs;
+                    longestOutageMs = Math.max(longestOutageMs, lastOutageMs);
+                    if (lastOutageMs < FLAP_MAX_MS) {
+                        flaps++;
+                    }
+                    outageStartMs = -1;
+                }
+            }
+        }
+        Transition transition = new Transition(nowMs, description, connected);
+        history[historyNext] = transition;
+        historyNext = (historyNext + 1) % history.length;
+        historySize = Math.min(historySize + 1, history.length);
+        return transition;
+    }
+
+    public synchronized boolean isConnected() { return connected; }
+
+    /** @return Horário da última mudança entre conectado e desconectado, ou -1. */
+    public synchronized long getChangedAtMs() { return changedAtMs; }
+
+    public synchronized String getTransport() { return transport; }
+
+    public synchronized int getOutageCount() { return outages; }
+
+    public synchronized int getFlapCount() { return flaps; }
+
+    /**
+     * @return Soma das quedas encerradas e da queda em andamento.
+     */
+    public synchronized long getTotalOutageMs(long nowMs) {
+        return totalOutageMs + (outageStartMs >= 0 ? nowMs - outageStartMs : 0);
+    }
+
+    public synchronized long getLongestOutageMs(long nowMs) {
+        return Math.max(longestOutageMs, outageStartMs >= 0 ? nowMs - outageStartMs : 0);
+    }
+
+    /** @return Duração da última queda encerrada, ou -1. */
+    public synchronized long getLastOutageMs() { return lastOutageMs; }
+
+    /** @return Início da queda em andamento, ou -1 se conectado. */
+    public synchronized long getOutageStartMs() { return outageStartMs; }
+
+    /**
+     * Copia as últimas transições, da mais antiga para a mais recente.
+     */
+    public synchronized void copyHistory(List<Transition> target, int max) {
+        int count = Math.min(max, historySize);
+        for (int i = historySize - count; i < historySize; i++) {
+            target.add(history[(historyNext - historySize + i + history.length) % history.length]);
+        }
+    }
+
+    /**
+     * Uma transição registrada.
+     */
+    public static class Transition {
+        private final long timestampMs;
+        private final String description;
+        private final boolean connected;
+
+        Transition(long timestampMs, String description, boolean connected) {
+            this.timestampMs = timestampMs;
+            this.description = description;
+            this.connected = connected;
+        }
+
+        public long getTimestampMs() { return timestampMs; }
+
+        public String getDescription() { return description; }
+
+        /** @return Estado depois da transição. */
+        public boolean isConnected() { return connected; }
+    }
+}
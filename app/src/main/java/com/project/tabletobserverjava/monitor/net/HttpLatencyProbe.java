@@ -0,0 +1,77 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+
+/**
+ * Sonda HTTP com reuso de conexão: mede, com System.nanoTime(), o tempo de uma requisição
+ * HEAD até o código da resposta.
+ *
+ * Qualquer código HTTP conta como sucesso, já que a resposta prova que o destino está
+ * alcançável; um gateway que responde 404 ou 401 mede a rede tão bem quanto um 200.
+ *
+ * O corpo é consumido e o stream fechado sem desconectar, e o HttpURLConnection devolve o
+ * socket ao pool de keep-alive: a partir da segunda sonda o tempo é só o da requisição.
+ * Destinos sem reuso usam o PhasedHttpProbe, que mede cada fase da conexão.
+ */
+public class HttpLatencyProbe {
+
+    /**
+     * Executa uma sonda. Bloqueia por até duas vezes o timeout do destino.
+     */
+    public ProbeResult probe(ProbeTarget target) {
+        return probe(new ProbeCall(target, 0));
+    }
+
+    /**
+     * Executa uma sonda que pode ser cancelada por outra thread.
+     */
+    public ProbeResult probe(ProbeCall call) {
+        ProbeTarget target = call.getTarget();
+        HttpURLConnection connection = null;
+        boolean keepConnection = false;
+        long start = System.nanoTime();
+        try {
+            connection = (HttpURLConnection) target.getUrl().openConnection();
+            // O cancelamento desconecta e descarta o socket, mesmo que viesse do pool
+            call.attach(connection::disconnect);
+            connection.setRequestMethod("HEAD");
+            connection.setConnectTimeout(target.getTimeoutMs());
+            connection.setReadTimeout(target.getTimeoutMs());
+            connection.setUseCaches(false);
+            connection.setInstanceFollowRedirects(false);
+            int responseCode = connection.getResponseCode();
+            long latency = System.nanoTime() - start;
+            keepConnection = release(connection, responseCode) && !call.isCancelled();
+            return ProbeResult.success(call, latency, responseCode, null);
+        } catch (IOException | RuntimeException e) {
+            return ProbeResult.failure(call, System.nanoTime() - start, e.getClass().getSimpleName(), null);
+        } finally {
+            if (connection != null && !keepConnection) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Consome e fecha a resposta para que a conexão volte ao pool.
+     *
+     * @return false se a resposta não pôde ser consumida e a conexão deve ser descartada.
+     */
+    private static boolean release(HttpURLConnection connection, int responseCode) {
+        try {
+            InputStream body = responseCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (body != null) {
+                // Respostas a HEAD não têm corpo
+                while (body.read() >= 0) {
+                    // descarta
+                }
+                body.close();
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
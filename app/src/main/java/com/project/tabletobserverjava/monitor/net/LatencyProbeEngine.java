@@ -0,0 +1,310 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Motor de sondas de latência com vários destinos, cada um com sua janela deslizante.
+ *
+ * Destinos com reuso de conexão são sondados pelo HttpLatencyProbe, que mede só a requisição;
+ * os demais pelo PhasedHttpProbe, que separa DNS, TCP, TLS e primeiro byte.
+ *
+ * As sondas rodam em paralelo num executor próprio, de tamanho fixo e fila limitada, com no
+ * máximo uma sonda em andamento por destino: se a anterior ainda não terminou, por exemplo
+ * presa na resolução de nome, o ciclo conta como perda em vez de abrir outra thread. Cada
+ * ciclo tem um prazo; sondas que passam dele são canceladas e contam como perda, e o
+ * resultado delas, se chegar depois, é descartado pelo número de sequência.
+ *
+ * Os destinos podem ser trocados a qualquer momento, por exemplo quando o gateway muda com a
+ * rede; a janela só é descartada se a URL ou o modo de conexão mudam, já que aí as amostras
+ * antigas medem outra coisa.
+ */
+public class LatencyProbeEngine {
+
+    private final int windowSize;
+    private final int maxConcurrentProbes;
+    private final HttpLatencyProbe pooledProbe;
+    private final PhasedHttpProbe phasedProbe;
+    // Destinos na ordem de cadastro
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    private final AtomicInteger skippedCount = new AtomicInteger();
+    private final AtomicInteger cancelledCount = new AtomicInteger();
+    private final AtomicInteger staleCount = new AtomicInteger();
+
+    /**
+     * @param windowSize          Quantidade de sondas mantidas por destino.
+     * @param maxConcurrentProbes Threads do executor de sondas, normalmente o número de destinos.
+     */
+    public LatencyProbeEngine(int windowSize, int maxConcurrentProbes) {
+        this(windowSize, maxConcurrentProbes, new PhasedHttpProbe());
+    }
+
+    /**
+     * @param phasedProbe Sonda dos destinos sem reuso de conexão.
+     */
+    LatencyProbeEngine(int windowSize, int maxConcurrentProbes, PhasedHttpProbe phasedProbe) {
+        this.windowSize = windowSize;
+        this.maxConcurrentProbes = maxConcurrentProbes;
+        this.pooledProbe = new HttpLatencyProbe();
+        this.phasedProbe = phasedProbe;
+    }
+
+    /**
+     * Cadastra um destino, ou substitui o de mesmo nome.
+     */
+    public synchronized void setTarget(ProbeTarget target) {
+        Entry entry = entries.get(target.getName());
+        if (entry != null && entry.target.sameProbe(target)) {
+            entry.target = target;
+            return;
+        }
+        if (entry != null) {
+            entry.cancelInFlight();
+        }
+        entries.put(target.getName(), new Entry(target, new LatencyWindow(windowSize)));
+    }
+
+    public synchronized void removeTarget(String name) {
+        Entry entry = entries.remove(name);
+        if (entry != null) {
+            entry.cancelInFlight();
+        }
+    }
+
+    public synchronized List<ProbeTarget> getTargets() {
+        List<ProbeTarget> targets = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            targets.add(entry.target);
+        }
+        return targets;
+    }
+
+    /**
+     * @return Estatísticas da janela do destino, ou null se o destino não está cadastrado.
+     */
+    public LatencyStats getStats(String name) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(name);
+        }
+        return entry != null ? entry.window.snapshot() : null;
+    }
+
+    /** @return Ciclos em que um destino não foi sondado porque a sonda anterior ainda rodava. */
+    public int getSkippedCount() { return skippedCount.get(); }
+
+    /** @return Sondas canceladas por passar do prazo ou pela parada do motor. */
+    public int getCancelledCount() { return cancelledCount.get(); }
+
+    /** @return Resultados descartados por chegar depois do prazo ou de um resultado mais novo. */
+    public int getStaleCount() { return staleCount.get(); }
+
+    /**
+     * Sonda todos os destinos em paralelo e espera até o prazo.
+     *
+     * @param deadlineMs Prazo do ciclo inteiro, em milissegundos.
+     * @return Um resultado por destino, na ordem de cadastro.
+     * @throws InterruptedException se a thread foi interrompida; as sondas do ciclo são canceladas.
+     */
+    public List<ProbeResult> probeAll(long deadlineMs) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        List<Entry> snapshot;
+        ThreadPoolExecutor pool;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries.values());
+            pool = executor();
+        }
+
+        ProbeCall[] calls = new ProbeCall[snapshot.size()];
+        List<Future<ProbeResult>> futures = new ArrayList<>(snapshot.size());
+        for (int i = 0; i < calls.length; i++) {
+            Entry entry = snapshot.get(i);
+            ProbeCall call = entry.begin();
+            calls[i] = call;
+            Future<ProbeResult> future = null;
+            if (call != null) {
+                try {
+                    future = pool.submit(() -> run(entry, call));
+                } catch (RejectedExecutionException e) {
+                    entry.finish(call);
+                }
+            }
+            futures.add(future);
+        }
+
+        List<ProbeResult> results = new ArrayList<>(calls.length);
+        try {
+            for (int i = 0; i < calls.length; i++) {
+                Entry entry = snapshot.get(i);
+                ProbeCall call = calls[i];
+                ProbeResult result;
+                if (call == null) {
+                    // Sem resposta desde o ciclo anterior: perda, sem número de sequência novo
+                    skippedCount.incrementAndGet();
+                    entry.window.recordFailure();
+                    result = ProbeResult.failure(new ProbeCall(entry.target, 0), 0,
+                            "sonda anterior em andamento", null);
+                } else {
+                    result = futures.get(i) == null
+                            ? ProbeResult.failure(call, 0, "fila de sondas cheia", null)
+                            : await(futures.get(i), call, start, deadline);
+                    if (!entry.apply(result)) {
+                        staleCount.incrementAndGet();
+                    }
+                }
+                result.setStats(entry.window.snapshot());
+                results.add(result);
+            }
+        } catch (InterruptedException e) {
+            for (int i = 0; i < calls.length; i++) {
+                Future<ProbeResult> future = futures.get(i);
+                if (future != null && !future.isDone() && !calls[i].isCancelled()) {
+                    calls[i].cancel();
+                    cancelledCount.incrementAndGet();
+                }
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    private ProbeResult await(Future<ProbeResult> future, ProbeCall call, long start, long deadline)
+            throws InterruptedException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // A thread continua presa até o recurso fechar; a entrada segue em andamento até lá
+            call.cancel();
+            cancelledCount.incrementAndGet();
+            return ProbeResult.failure(call, System.nanoTime() - start, "prazo esgotado", null);
+        } catch (ExecutionException e) {
+            return ProbeResult.failure(call, System.nanoTime() - start,
+                    e.getCause().getClass().getSimpleName(), null);
+        }
+    }
+
+    private ProbeResult run(Entry entry, ProbeCall call) {
+        try {
+            if (call.isCancelled()) {
+                return ProbeResult.failure(call, 0, "cancelada", null);
+            }
+            ProbeResult result = call.getTarget().isReuseConnection()
+                    ? pooledProbe.probe(call) : phasedProbe.probe(call);
+            if (call.isCancelled()) {
+                // O prazo já passou e a perda foi registrada: o resultado chega tarde e é descartado
+                staleCount.incrementAndGet();
+            }
+            return result;
+        } finally {
+            entry.finish(call);
+        }
+    }
+
+    private ThreadPoolExecutor executor() {
+        if (executor == null) {
+            AtomicInteger threadIndex = new AtomicInteger();
+            executor = new ThreadPoolExecutor(maxConcurrentProbes, maxConcurrentProbes, 30, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(maxConcurrentProbes), runnable -> {
+                Thread thread = new Thread(runnable, "TabletObserver-Probe-" + threadIndex.incrementAndGet());
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+            // Sem sondas, as threads terminam entre os ciclos longos
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    /**
+     * Cancela as sondas em andamento e encerra o executor. Um novo probeAll cria outro executor.
+     */
+    public void stop() {
+        ThreadPoolExecutor pool;
+        List<Entry> snapshot;
+        synchronized (this) {
+            pool = executor;
+            executor = null;
+            snapshot = new ArrayList<>(entries.values());
+        }
+        for (Entry entry : snapshot) {
+            if (entry.cancelInFlight()) {
+                cancelledCount.incrementAndGet();
+            }
+        }
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static class Entry {
+        private volatile ProbeTarget target;
+        private final LatencyWindow window;
+        private long sequence;
+        private long appliedSequence;
+        private ProbeCall inFlight;
+
+        Entry(ProbeTarget target, LatencyWindow window) {
+            this.target = target;
+            this.window = window;
+        }
+
+        /**
+         * @return Nova sonda do destino, ou null se a anterior ainda está em andamento.
+         */
+        synchronized ProbeCall begin() {
+            if (inFlight != null) {
+                return null;
+            }
+            inFlight = new ProbeCall(target, ++sequence);
+            return inFlight;
+        }
+
+        synchronized void finish(ProbeCall call) {
+            if (inFlight == call) {
+                inFlight = null;
+            }
+        }
+
+        /**
+         * Registra o resultado na janela, se ele é mais novo que o último registrado.
+         *
+         * @return false se o resultado é de uma sonda igual ou mais antiga que a última registrada.
+         */
+        synchronized boolean apply(ProbeResult result) {
+            if (result.getSequence() <= appliedSequence) {
+                return false;
+            }
+            appliedSequence = result.getSequence();
+            if (result.isSuccess()) {
+                window.recordSuccess(result.getLatencyNanos());
+            } else {
+                window.recordFailure();
+            }
+            return true;
+        }
+
+        boolean cancelInFlight() {
+            ProbeCall call;
+            synchronized (this) {
+                call = inFlight;
+            }
+            if (call == null || call.isCancelled()) {
+                return false;
+            }
+            call.cancel();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.tabletobserverjava.monitor.net;
+
+/**
+ * Estatísticas da janela de sondas de um destino. Latências em nanossegundos.
+ */
+public class LatencyStats {
+
+    private final int samples;
+    private final int failures;
+    private final long p50Nanos;
+    private final long p95Nanos;
+    private final long p99Nanos;
+    private final long jitterNanos;
+    private final long maxNanos;
+
+    LatencyStats(int samples, int failures, long p50Nanos, long p95Nanos, long p99Nanos,
+                 long jitterNanos, long maxNanos) {
+        this.samples = samples;
+        this.failures = failures;
+        this.p50Nanos = p50Nanos;
+        this.p95Nanos = p95Nanos;
+        this.p99Nanos = p99Nanos;
+        this.jitterNanos = jitterNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /** @return Sondas na janela, com ou sem sucesso. */
+    public int getSamples() { return samples; }
+
+    public int getFailures() { return failures; }
+
+    /** @return Fração das sondas da janela que falharam, entre 0 e 1. */
+    public double getLossRate() { return samples > 0 ? (double) failures / samples : 0; }
+
+    public double getP50Ms() { return p50Nanos / 1_000_000.0; }
+
+    public double getP95Ms() { return p95Nanos / 1_000_000.0; }
+
+    public double getP99Ms() { return p99Nanos / 1_000_000.0; }
+
+    /** @return Média da diferença absoluta entre sondas com sucesso consecutivas. */
+    public double getJitterMs() { return jitterNanos / 1_000_000.0; }
+
+    public double getMaxMs() { return maxNanos / 1_000_000.0; }
+}
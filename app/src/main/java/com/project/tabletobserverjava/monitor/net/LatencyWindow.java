@@ -0,0 +1,87 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import java.util.Arrays;
+
+/**
+ * Janela deslizante das últimas sondas de um destino, em buffers primitivos de tamanho fixo.
+ *
+ * Guarda a latência de cada sonda, em nanossegundos, ou a falha. Sobre a janela calcula os
+ * percentis p50, p95 e p99 das sondas com sucesso, o jitter, como a média da diferença absoluta
+ * entre sondas com sucesso consecutivas, e a taxa de perda.
+ */
+public class LatencyWindow {
+
+    private static final long FAILED = -1;
+
+    private final long[] samples;
+    private final long[] sorted;
+    private int next;
+    private int size;
+
+    /**
+     * @param capacity Quantidade de sondas mantidas na janela.
+     */
+    public LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+        this.sorted = new long[capacity];
+    }
+
+    public synchronized void recordSuccess(long latencyNanos) {
+        add(latencyNanos);
+    }
+
+    public synchronized void recordFailure() {
+        add(FAILED);
+    }
+
+    private void add(long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    public synchronized void clear() {
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * @return Estatísticas da janela atual.
+     */
+    public synchronized LatencyStats snapshot() {
+        int successes = 0;
+        long jitterSum = 0;
+        int jitterPairs = 0;
+        long previous = FAILED;
+        // Do mais antigo para o mais recente, para o jitter seguir a ordem das sondas
+        int start = size < samples.length ? 0 : next;
+        for (int i = 0; i < size; i++) {
+            long sample = samples[(start + i) % samples.length];
+            if (sample == FAILED) {
+                continue;
+            }
+            sorted[successes++] = sample;
+            if (previous != FAILED) {
+                jitterSum += Math.abs(sample - previous);
+                jitterPairs++;
+            }
+            previous = sample;
+        }
+        Arrays.sort(sorted, 0, successes);
+        return new LatencyStats(size, size - successes,
+                percentile(successes, 50), percentile(successes, 95), percentile(successes, 99),
+                jitterPairs > 0 ? jitterSum / jitterPairs : 0,
+                successes > 0 ? sorted[successes - 1] : 0);
+    }
+
+    /**
+     * Percentil pelo método do posto mais próximo sobre as primeiras {@code count} posições de sorted.
+     */
+    private long percentile(int count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count - 1, rank - 1))];
+    }
+}
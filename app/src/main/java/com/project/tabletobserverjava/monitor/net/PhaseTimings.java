@@ -0,0 +1,29 @@
+package com.project.tabletobserverjava.monitor.net;
+
+/**
+ * Tempo de cada fase de uma sonda sem reuso de conexão, em nanossegundos.
+ * Fases que não aconteceram, como o TLS em http ou as seguintes a uma falha, ficam em -1.
+ */
+public class PhaseTimings {
+
+    long dnsNanos = -1;
+    long connectNanos = -1;
+    long tlsNanos = -1;
+    long firstByteNanos = -1;
+
+    /** @return Resolução do nome; quase zero quando o endereço está no cache do InetAddress. */
+    public double getDnsMs() { return toMs(dnsNanos); }
+
+    /** @return Conexão TCP, aproximadamente um RTT até o destino. */
+    public double getConnectMs() { return toMs(connectNanos); }
+
+    /** @return Handshake TLS, ou -1 em http. */
+    public double getTlsMs() { return toMs(tlsNanos); }
+
+    /** @return Do envio da requisição ao primeiro byte da resposta. */
+    public double getFirstByteMs() { return toMs(firstByteNanos); }
+
+    private static double toMs(long nanos) {
+        return nanos < 0 ? -1 : nanos / 1_000_000.0;
+    }
+}
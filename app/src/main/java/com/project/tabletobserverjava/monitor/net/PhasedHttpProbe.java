@@ -0,0 +1,165 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Sonda HTTP em fases: resolve o nome com InetAddress, conecta um Socket, faz o handshake
+ * TLS com SSLSocket.startHandshake quando a URL é https e envia um HEAD, medindo até o
+ * primeiro byte da resposta. Cada fase é cronometrada com System.nanoTime(), e a latência
+ * total é a soma delas.
+ *
+ * Destinos só de conexão param depois do TCP. Neles uma conexão recusada também conta como
+ * resposta: o RST só vem de um destino alcançável, depois de um RTT.
+ *
+ * A resolução do nome não tem timeout próprio no InetAddress nem pode ser cancelada; enquanto
+ * ela não termina, o motor não inicia outra sonda para o mesmo destino.
+ */
+public class PhasedHttpProbe {
+
+    private static final int STATUS_LINE_MAX = 64;
+
+    private final SSLSocketFactory sslSocketFactory;
+
+    public PhasedHttpProbe() {
+        this((SSLSocketFactory) SSLSocketFactory.getDefault());
+    }
+
+    /**
+     * @param sslSocketFactory Fábrica dos sockets TLS; os testes passam uma que confia no
+     *                         certificado do servidor local.
+     */
+    public PhasedHttpProbe(SSLSocketFactory sslSocketFactory) {
+        this.sslSocketFactory = sslSocketFactory;
+    }
+
+    /**
+     * Executa uma sonda, sempre com uma conexão nova. Qualquer código HTTP conta como sucesso.
+     */
+    public ProbeResult probe(ProbeTarget target) {
+        return probe(new ProbeCall(target, 0));
+    }
+
+    /**
+     * Executa uma sonda que pode ser cancelada por outra thread.
+     */
+    public ProbeResult probe(ProbeCall call) {
+        ProbeTarget target = call.getTarget();
+        URL url = target.getUrl();
+        boolean tls = "https".equalsIgnoreCase(url.getProtocol());
+        int port = url.getPort() >= 0 ? url.getPort() : url.getDefaultPort();
+        PhaseTimings phases = new PhaseTimings();
+        String phase = "dns";
+        long start = System.nanoTime();
+        Socket socket = null;
+        try {
+            InetAddress address = InetAddress.getByName(url.getHost());
+            long resolved = System.nanoTime();
+            phases.dnsNanos = resolved - start;
+
+            phase = "tcp";
+            socket = new Socket();
+            call.attach(socket);
+            socket.setSoTimeout(target.getTimeoutMs());
+            try {
+                socket.connect(new InetSocketAddress(address, port), target.getTimeoutMs());
+            } catch (ConnectException e) {
+                if (!target.isConnectOnly() || call.isCancelled()) {
+                    throw e;
+                }
+            }
+            long connected = System.nanoTime();
+            phases.connectNanos = connected - resolved;
+            if (target.isConnectOnly()) {
+                return ProbeResult.success(call, connected - start, 0, phases);
+            }
+
+            long requestStart = connected;
+            if (tls) {
+                phase = "tls";
+                SSLSocket sslSocket = (SSLSocket) sslSocketFactory.createSocket(socket, url.getHost(), port, true);
+                socket = sslSocket;
+                call.attach(sslSocket);
+                SSLParameters parameters = sslSocket.getSSLParameters();
+                parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                sslSocket.setSSLParameters(parameters);
+                sslSocket.startHandshake();
+                requestStart = System.nanoTime();
+                phases.tlsNanos = requestStart - connected;
+            }
+
+            phase = "http";
+            int responseCode = request(socket, url, port);
+            long end = System.nanoTime();
+            phases.firstByteNanos = end - requestStart;
+            return ProbeResult.success(call, end - start, responseCode, phases);
+        } catch (IOException | RuntimeException e) {
+            return ProbeResult.failure(call, System.nanoTime() - start,
+                    phase + ": " + e.getClass().getSimpleName(), phases);
+        } finally {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // a sonda já terminou
+                }
+            }
+        }
+    }
+
+    /**
+     * Envia o HEAD e lê a linha de status.
+     *
+     * @return Código HTTP da resposta.
+     */
+    private static int request(Socket socket, URL url, int port) throws IOException {
+        String path = url.getFile().isEmpty() ? "/" : url.getFile();
+        String host = port == url.getDefaultPort() ? url.getHost() : url.getHost() + ":" + port;
+        OutputStream out = socket.getOutputStream();
+        out.write(("HEAD " + path + " HTTP/1.1\r\nHost: " + host
+                + "\r\nConnection: close\r\nUser-Agent: TabletObserver\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+
+        // O primeiro read bloqueia até o primeiro byte da resposta
+        InputStream in = socket.getInputStream();
+        byte[] line = new byte[STATUS_LINE_MAX];
+        int length = 0;
+        int b;
+        while (length < line.length && (b = in.read()) >= 0 && b != '\n') {
+            line[length++] = (byte) b;
+        }
+        return parseStatus(line, length);
+    }
+
+    /**
+     * @return Código de uma linha como "HTTP/1.1 200 OK".
+     */
+    static int parseStatus(byte[] line, int length) throws IOException {
+        int space = 0;
+        while (space < length && line[space] != ' ') {
+            space++;
+        }
+        if (length < 5 || line[0] != 'H' || space + 4 > length) {
+            throw new IOException("Resposta HTTP inválida");
+        }
+        int code = 0;
+        for (int i = space + 1; i <= space + 3; i++) {
+            if (line[i] < '0' || line[i] > '9') {
+                throw new IOException("Resposta HTTP inválida");
+            }
+            code = code * 10 + (line[i] - '0');
+        }
+        return code;
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Uma execução de sonda: o destino, o número de sequência e o recurso de rede aberto por ela.
+ *
+ * Interromper a thread não desbloqueia um connect ou um read de socket; por isso o
+ * cancelamento fecha o recurso registrado pela sonda, o que faz a operação bloqueada
+ * falhar na hora. A resolução de nome não tem recurso para fechar e segue até o fim.
+ */
+public class ProbeCall {
+
+    private final ProbeTarget target;
+    private final long sequence;
+    private Closeable resource;
+    private boolean cancelled;
+
+    public ProbeCall(ProbeTarget target, long sequence) {
+        this.target = target;
+        this.sequence = sequence;
+    }
+
+    public ProbeTarget getTarget() { return target; }
+
+    /** @return Número de sequência da sonda no seu destino, crescente a cada execução. */
+    public long getSequence() { return sequence; }
+
+    /**
+     * Registra o recurso que o cancelamento deve fechar, substituindo o anterior.
+     *
+     * @throws InterruptedIOException se a sonda já foi cancelada; o recurso é fechado.
+     */
+    synchronized void attach(Closeable resource) throws IOException {
+        if (cancelled) {
+            resource.close();
+            throw new InterruptedIOException("Sonda cancelada");
+        }
+        this.resource = resource;
+    }
+
+    /**
+     * Cancela a sonda e fecha o recurso aberto por ela, se houver.
+     */
+    public void cancel() {
+        Closeable toClose;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toClose = resource;
+            resource = null;
+        }
+        if (toClose != null) {
+            try {
+                toClose.close();
+            } catch (IOException ignored) {
+                // a sonda falha de qualquer jeito
+            }
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+}
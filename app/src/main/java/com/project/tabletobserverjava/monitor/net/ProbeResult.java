@@ -0,0 +1,64 @@
+package com.project.tabletobserverjava.monitor.net;
+
+/**
+ * Resultado de uma sonda de um destino, junto com as estatísticas da janela depois dela.
+ */
+public class ProbeResult {
+
+    private final ProbeTarget target;
+    private final long sequence;
+    private final boolean success;
+    private final long latencyNanos;
+    private final int responseCode;
+    private final String error;
+    private final PhaseTimings phases;
+    private LatencyStats stats;
+
+    private ProbeResult(ProbeCall call, boolean success, long latencyNanos, int responseCode, String error,
+                        PhaseTimings phases) {
+        this.target = call.getTarget();
+        this.sequence = call.getSequence();
+        this.success = success;
+        this.latencyNanos = latencyNanos;
+        this.responseCode = responseCode;
+        this.error = error;
+        this.phases = phases;
+    }
+
+    static ProbeResult success(ProbeCall call, long latencyNanos, int responseCode, PhaseTimings phases) {
+        return new ProbeResult(call, true, latencyNanos, responseCode, null, phases);
+    }
+
+    static ProbeResult failure(ProbeCall call, long elapsedNanos, String error, PhaseTimings phases) {
+        return new ProbeResult(call, false, elapsedNanos, -1, error, phases);
+    }
+
+    void setStats(LatencyStats stats) {
+        this.stats = stats;
+    }
+
+    public ProbeTarget getTarget() { return target; }
+
+    /** @return Número de sequência da sonda no seu destino. */
+    public long getSequence() { return sequence; }
+
+    /** @return true se o destino respondeu, com qualquer código HTTP. */
+    public boolean isSuccess() { return success; }
+
+    long getLatencyNanos() { return latencyNanos; }
+
+    /** @return Latência da sonda, ou o tempo até a falha. */
+    public double getLatencyMs() { return latencyNanos / 1_000_000.0; }
+
+    /** @return Código HTTP da resposta, 0 em sondas só de conexão, ou -1 se a sonda falhou. */
+    public int getResponseCode() { return responseCode; }
+
+    /** @return Descrição da falha, ou null. */
+    public String getError() { return error; }
+
+    /** @return Tempo de cada fase, ou null em sondas com reuso de conexão, que não passam por elas. */
+    public PhaseTimings getPhases() { return phases; }
+
+    /** @return Estatísticas da janela do destino, já incluindo esta sonda. */
+    public LatencyStats getStats() { return stats; }
+}
@@ -0,0 +1,59 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import java.net.URL;
+
+/**
+ * Destino de uma sonda de latência: o backend próprio, o gateway da rede local ou um host
+ * público. O nome identifica a janela de amostras e as métricas do destino.
+ */
+public class ProbeTarget {
+
+    private final String name;
+    private final URL url;
+    private final boolean reuseConnection;
+    private final boolean connectOnly;
+    private final int timeoutMs;
+
+    /**
+     * @param name            Nome curto, usado nas métricas (ex.: "gateway").
+     * @param url             URL consultada com uma requisição HEAD.
+     * @param reuseConnection true para manter a conexão aberta entre sondas e medir só a
+     *                        requisição; false para abrir uma conexão por sonda e medir
+     *                        cada fase dela.
+     * @param timeoutMs       Tempo máximo de conexão e de leitura, cada um.
+     */
+    public ProbeTarget(String name, URL url, boolean reuseConnection, int timeoutMs) {
+        this(name, url, reuseConnection, false, timeoutMs);
+    }
+
+    /**
+     * @param connectOnly true para medir só a conexão TCP, sem requisição, contando uma conexão
+     *                    recusada como resposta; serve para destinos sem servidor web, como o
+     *                    gateway. Só vale sem reuso de conexão.
+     */
+    public ProbeTarget(String name, URL url, boolean reuseConnection, boolean connectOnly, int timeoutMs) {
+        this.name = name;
+        this.url = url;
+        this.reuseConnection = reuseConnection;
+        this.connectOnly = connectOnly;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public String getName() { return name; }
+
+    public URL getUrl() { return url; }
+
+    public boolean isReuseConnection() { return reuseConnection; }
+
+    public boolean isConnectOnly() { return connectOnly; }
+
+    public int getTimeoutMs() { return timeoutMs; }
+
+    /**
+     * @return true se os dois destinos medem a mesma coisa, e a janela de um vale para o outro.
+     */
+    boolean sameProbe(ProbeTarget other) {
+        return other != null && url.toString().equals(other.url.toString())
+                && reuseConnection == other.reuseConnection && connectOnly == other.connectOnly;
+    }
+}
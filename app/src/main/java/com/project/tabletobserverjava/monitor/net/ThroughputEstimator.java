@@ -0,0 +1,146 @@
+package com.project.tabletobserverjava.monitor.net;
+
+/**
+ * Estimativa da vazão de uma transferência em andamento, sem alocação por amostra.
+ *
+ * Os bytes do aquecimento, enquanto o TCP ainda sai do slow start, ficam fora da estimativa;
+ * depois dele, a vazão estável é a média desde o fim do aquecimento. Ela é amostrada em
+ * intervalos fixos, e a transferência pode parar assim que as últimas amostras variam menos
+ * que a tolerância. Um período sem nenhum byte maior que o limite conta como travamento.
+ */
+public class ThroughputEstimator {
+
+    private final long warmupNanos;
+    private final long sampleNanos;
+    private final long stallNanos;
+    private final double tolerance;
+    private final double[] recent;
+
+    private long startNanos;
+    private long bytes;
+    private long lastProgressNanos;
+    private boolean stalled;
+    private int stalls;
+
+    private boolean warmedUp;
+    private long warmupEndNanos;
+    private long warmupBytes;
+    private long nextSampleNanos;
+    private int sampleCount;
+    private long convergedNanos = -1;
+
+    /**
+     * @param warmupMs      Início da transferência descartado da estimativa.
+     * @param sampleMs      Intervalo entre as amostras da vazão estável.
+     * @param stallMs       Tempo sem progresso que conta como travamento.
+     * @param tolerance     Variação relativa máxima entre as últimas amostras, como 0.05.
+     * @param stableSamples Amostras consecutivas dentro da tolerância para convergir.
+     */
+    public ThroughputEstimator(long warmupMs, long sampleMs, long stallMs, double tolerance, int stableSamples) {
+        this.warmupNanos = warmupMs * 1_000_000L;
+        this.sampleNanos = sampleMs * 1_000_000L;
+        this.stallNanos = stallMs * 1_000_000L;
+        this.tolerance = tolerance;
+        this.recent = new double[stableSamples];
+    }
+
+    /**
+     * Reinicia a estimativa para uma nova transferência.
+     */
+    public void start(long nowNanos) {
+        startNanos = nowNanos;
+        lastProgressNanos = nowNanos;
+        bytes = 0;
+        stalled = false;
+        stalls = 0;
+        warmedUp = false;
+        warmupBytes = 0;
+        sampleCount = 0;
+        convergedNanos = -1;
+    }
+
+    public void onBytes(long count, long nowNanos) {
+        if (count <= 0) {
+            return;
+        }
+        bytes += count;
+        lastProgressNanos = nowNanos;
+        stalled = false;
+    }
+
+    /**
+     * Atualiza travamentos e amostras. Chamar após cada operação de E/S e a cada espera.
+     *
+     * @return true quando a estimativa convergiu e a transferência pode parar.
+     */
+    public boolean check(long nowNanos) {
+        if (!stalled && nowNanos - lastProgressNanos >= stallNanos) {
+            stalled = true;
+            stalls++;
+        }
+        if (!warmedUp) {
+            if (nowNanos - startNanos < warmupNanos) {
+                return false;
+            }
+            warmedUp = true;
+            warmupEndNanos = nowNanos;
+            warmupBytes = bytes;
+            nextSampleNanos = nowNanos + sampleNanos;
+            return false;
+        }
+        if (convergedNanos >= 0) {
+            return true;
+        }
+        if (nowNanos < nextSampleNanos) {
+            return false;
+        }
+        nextSampleNanos = nowNanos + sampleNanos;
+        recent[sampleCount % recent.length] = steadyMbps(nowNanos);
+        sampleCount++;
+        if (sampleCount >= recent.length && withinTolerance()) {
+            convergedNanos = nowNanos;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean withinTolerance() {
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        double sum = 0;
+        for (double sample : recent) {
+            min = Math.min(min, sample);
+            max = Math.max(max, sample);
+            sum += sample;
+        }
+        double mean = sum / recent.length;
+        return mean > 0 && max - min <= tolerance * mean;
+    }
+
+    private double steadyMbps(long nowNanos) {
+        return mbps(bytes - warmupBytes, nowNanos - warmupEndNanos);
+    }
+
+    private static double mbps(long count, long nanos) {
+        return nanos > 0 ? count * 8.0 * 1000.0 / nanos : 0;
+    }
+
+    /**
+     * @return Vazão estável em Mbps, ou a média da transferência toda se ela não passou do aquecimento.
+     */
+    public double getMbps(long nowNanos) {
+        long end = convergedNanos >= 0 ? convergedNanos : nowNanos;
+        return warmedUp && end > warmupEndNanos ? steadyMbps(end) : mbps(bytes, end - startNanos);
+    }
+
+    public long getBytes() { return bytes; }
+
+    public int getStalls() { return stalls; }
+
+    public boolean isConverged() { return convergedNanos >= 0; }
+
+    /** @return Tempo do início até a convergência, ou -1 se não convergiu. */
+    public long getConvergedAfterMs() {
+        return convergedNanos >= 0 ? (convergedNanos - startNanos) / 1_000_000L : -1;
+    }
+}
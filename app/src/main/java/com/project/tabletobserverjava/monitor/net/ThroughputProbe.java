@@ -0,0 +1,283 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sonda de vazão: baixa e envia dados de um endpoint HTTP por um SocketChannel não bloqueante,
+ * sempre pelo mesmo buffer direto, e para assim que o ThroughputEstimator converge, o limite
+ * de bytes é atingido ou o prazo termina.
+ *
+ * O download é um GET cujo corpo é lido e descartado; o upload é um POST com corpo chunked, o
+ * que permite encerrar o envio em qualquer fronteira de chunk sem declarar o tamanho antes.
+ * O endpoint precisa aceitar os dois e responder 2xx. Só http: a medição passa direto pelo
+ * canal, sem TLS.
+ *
+ * Cada medição recebe um ProbeCall e registra nele o canal aberto, para que o cancelamento o
+ * feche e desbloqueie a medição na hora; o endpoint é o URL do destino do ProbeCall.
+ */
+public class ThroughputProbe {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    /** Espera máxima do Selector entre duas verificações de prazo e de travamento. */
+    private static final long STEP_MS = 50;
+    /** Tempo além do prazo para terminar o corpo do upload e receber a resposta. */
+    private static final long RESPONSE_GRACE_MS = 2000;
+    private static final int STATUS_LINE_MAX = 64;
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ThroughputEstimator estimator;
+    // Reaproveitados entre as medições
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final byte[] statusLine = new byte[STATUS_LINE_MAX];
+
+    public ThroughputProbe(ThroughputEstimator estimator) {
+        this.estimator = estimator;
+    }
+
+    /**
+     * Baixa até maxBytes do endpoint.
+     */
+    public synchronized ThroughputResult download(ProbeCall call, long maxBytes, long maxDurationMs) {
+        long start = System.nanoTime();
+        long deadline = start + maxDurationMs * 1_000_000L;
+        URL url = call.getTarget().getUrl();
+        estimator.start(start);
+        try (SocketChannel channel = SocketChannel.open(); Selector selector = Selector.open()) {
+            call.attach(channel);
+            connect(channel, selector, url, deadline);
+            writeAscii(channel, selector, request("GET", url, ""), deadline);
+            int status = readDownload(channel, selector, maxBytes, deadline);
+            return result("download", status, start);
+        } catch (IOException | RuntimeException e) {
+            return failure("download", e.getClass().getSimpleName(), start);
+        }
+    }
+
+    /**
+     * Envia até maxBytes ao endpoint.
+     */
+    public synchronized ThroughputResult upload(ProbeCall call, long maxBytes, long maxDurationMs) {
+        long start = System.nanoTime();
+        long deadline = start + maxDurationMs * 1_000_000L;
+        URL url = call.getTarget().getUrl();
+        estimator.start(start);
+        try (SocketChannel channel = SocketChannel.open(); Selector selector = Selector.open()) {
+            call.attach(channel);
+            connect(channel, selector, url, deadline);
+            writeAscii(channel, selector, request("POST", url,
+                    "Content-Type: application/octet-stream\r\nTransfer-Encoding: chunked\r\n"), deadline);
+            int frameLength = fillChunk();
+            estimator.start(System.nanoTime());
+            boolean done = false;
+            while (!done && System.nanoTime() < deadline) {
+                buffer.clear().limit(frameLength);
+                // O chunk é sempre escrito inteiro, para que o corpo possa terminar em seguida
+                while (buffer.hasRemaining()) {
+                    int written = channel.write(buffer);
+                    long now = System.nanoTime();
+                    if (written == 0) {
+                        if (now >= deadline) {
+                            throw new IOException("Prazo esgotado");
+                        }
+                        select(selector, channel, SelectionKey.OP_WRITE);
+                        now = System.nanoTime();
+                    }
+                    estimator.onBytes(written, now);
+                    done |= estimator.check(now);
+                }
+                done |= estimator.getBytes() >= maxBytes;
+            }
+            // O envio já terminou: a espera pela resposta não conta na vazão
+            long responseDeadline = System.nanoTime() + RESPONSE_GRACE_MS * 1_000_000L;
+            writeAscii(channel, selector, LAST_CHUNK, responseDeadline);
+            int status = readStatus(channel, selector, responseDeadline);
+            return result("upload", status, start);
+        } catch (IOException | RuntimeException e) {
+            return failure("upload", e.getClass().getSimpleName(), start);
+        }
+    }
+
+    private ThroughputResult result(String direction, int status, long start) {
+        if (status < 200 || status > 299) {
+            return failure(direction, "HTTP " + status, start);
+        }
+        long now = System.nanoTime();
+        return new ThroughputResult(direction, true, null, estimator.getMbps(now), estimator.getBytes(),
+                estimator.getStalls(), estimator.getConvergedAfterMs(), (now - start) / 1_000_000L);
+    }
+
+    private ThroughputResult failure(String direction, String error, long start) {
+        long now = System.nanoTime();
+        return new ThroughputResult(direction, false, error, estimator.getMbps(now), estimator.getBytes(),
+                estimator.getStalls(), -1, (now - start) / 1_000_000L);
+    }
+
+    private static byte[] request(String method, URL url, String extraHeaders) {
+        String path = url.getFile().isEmpty() ? "/" : url.getFile();
+        int port = url.getPort() >= 0 ? url.getPort() : url.getDefaultPort();
+        String host = port == url.getDefaultPort() ? url.getHost() : url.getHost() + ":" + port;
+        return (method + " " + path + " HTTP/1.1\r\nHost: " + host + "\r\nConnection: close\r\n"
+                + "User-Agent: TabletObserver\r\nCache-Control: no-cache\r\n" + extraHeaders + "\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void connect(SocketChannel channel, Selector selector, URL url, long deadline)
+            throws IOException {
+        if (!"http".equalsIgnoreCase(url.getProtocol())) {
+            throw new IOException("Só http é suportado");
+        }
+        int port = url.getPort() >= 0 ? url.getPort() : url.getDefaultPort();
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_CONNECT);
+        if (channel.connect(new InetSocketAddress(url.getHost(), port))) {
+            return;
+        }
+        while (!channel.finishConnect()) {
+            if (System.nanoTime() >= deadline) {
+                throw new IOException("Prazo esgotado na conexão");
+            }
+            selector.select(STEP_MS);
+            selector.selectedKeys().clear();
+        }
+    }
+
+    private static void select(Selector selector, SocketChannel channel, int ops) throws IOException {
+        channel.keyFor(selector).interestOps(ops);
+        selector.select(STEP_MS);
+        selector.selectedKeys().clear();
+    }
+
+    private void writeAscii(SocketChannel channel, Selector selector, byte[] bytes, long deadline)
+            throws IOException {
+        buffer.clear();
+        buffer.put(bytes).flip();
+        while (buffer.hasRemaining()) {
+            if (channel.write(buffer) == 0) {
+                if (System.nanoTime() >= deadline) {
+                    throw new IOException("Prazo esgotado no envio");
+                }
+                select(selector, channel, SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    /**
+     * Preenche o buffer com um chunk completo: tamanho em hexadecimal, dados e CRLF.
+     *
+     * @return Tamanho do chunk no buffer.
+     */
+    private int fillChunk() {
+        // Tamanho com 4 dígitos hexadecimais e CRLF, mais o CRLF depois dos dados
+        int payload = BUFFER_BYTES - 8;
+        buffer.clear();
+        buffer.put((Integer.toHexString(payload) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < payload; i++) {
+            buffer.put((byte) 0);
+        }
+        buffer.put((byte) '\r').put((byte) '\n');
+        return buffer.position();
+    }
+
+    /**
+     * Lê a resposta do GET, separando o cabeçalho do corpo, até o estimador convergir.
+     *
+     * @return Código HTTP da resposta.
+     */
+    private int readDownload(SocketChannel channel, Selector selector, long maxBytes, long deadline)
+            throws IOException {
+        channel.keyFor(selector).interestOps(SelectionKey.OP_READ);
+        int statusLength = 0;
+        boolean statusDone = false;
+        int matched = 0;
+        int status = -1;
+        while (System.nanoTime() < deadline) {
+            buffer.clear();
+            int read = channel.read(buffer);
+            long now = System.nanoTime();
+            if (read < 0) {
+                break;
+            }
+            if (read == 0) {
+                selector.select(STEP_MS);
+                selector.selectedKeys().clear();
+                if (status >= 0 && estimator.check(System.nanoTime())) {
+                    break;
+                }
+                continue;
+            }
+            int body = read;
+            if (status < 0) {
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer.get(i);
+                    if (!statusDone) {
+                        if (b == '\n') {
+                            statusDone = true;
+                        } else if (statusLength < statusLine.length) {
+                            statusLine[statusLength++] = b;
+                        }
+                    }
+                    matched = b == HEADER_END[matched] ? matched + 1 : (b == '\r' ? 1 : 0);
+                    if (matched == HEADER_END.length) {
+                        status = PhasedHttpProbe.parseStatus(statusLine, statusLength);
+                        if (status < 200 || status > 299) {
+                            return status;
+                        }
+                        // A medição começa no primeiro byte do corpo
+                        estimator.start(now);
+                        body = read - i - 1;
+                        break;
+                    }
+                }
+                if (status < 0) {
+                    continue;
+                }
+            }
+            estimator.onBytes(body, now);
+            if (estimator.check(now) || estimator.getBytes() >= maxBytes) {
+                break;
+            }
+        }
+        if (status < 0) {
+            throw new IOException("Resposta HTTP incompleta");
+        }
+        return status;
+    }
+
+    /**
+     * Lê só a linha de status da resposta.
+     */
+    private int readStatus(SocketChannel channel, Selector selector, long deadline) throws IOException {
+        channel.keyFor(selector).interestOps(SelectionKey.OP_READ);
+        int length = 0;
+        while (System.nanoTime() < deadline) {
+            buffer.clear();
+            int read = channel.read(buffer);
+            if (read < 0) {
+                break;
+            }
+            if (read == 0) {
+                selector.select(STEP_MS);
+                selector.selectedKeys().clear();
+                continue;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    return PhasedHttpProbe.parseStatus(statusLine, length);
+                }
+                if (length < statusLine.length) {
+                    statusLine[length++] = b;
+                }
+            }
+        }
+        throw new IOException("Resposta HTTP incompleta");
+    }
+}
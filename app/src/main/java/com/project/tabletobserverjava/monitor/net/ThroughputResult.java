@@ -0,0 +1,52 @@
+package com.project.tabletobserverjava.monitor.net;
+
+/**
+ * Resultado de uma medição de vazão em um sentido.
+ */
+public class ThroughputResult {
+
+    private final String direction;
+    private final boolean success;
+    private final String error;
+    private final double mbps;
+    private final long bytes;
+    private final int stalls;
+    private final long convergedAfterMs;
+    private final long durationMs;
+
+    ThroughputResult(String direction, boolean success, String error, double mbps, long bytes, int stalls,
+                     long convergedAfterMs, long durationMs) {
+        this.direction = direction;
+        this.success = success;
+        this.error = error;
+        this.mbps = mbps;
+        this.bytes = bytes;
+        this.stalls = stalls;
+        this.convergedAfterMs = convergedAfterMs;
+        this.durationMs = durationMs;
+    }
+
+    /** @return "download" ou "upload". */
+    public String getDirection() { return direction; }
+
+    public boolean isSuccess() { return success; }
+
+    /** @return Descrição da falha, ou null. */
+    public String getError() { return error; }
+
+    /** @return Vazão estável, depois do aquecimento, em megabits por segundo. */
+    public double getMbps() { return mbps; }
+
+    /** @return Bytes transferidos, incluindo o aquecimento. */
+    public long getBytes() { return bytes; }
+
+    /** @return Períodos sem progresso durante a transferência. */
+    public int getStalls() { return stalls; }
+
+    public boolean isConverged() { return convergedAfterMs >= 0; }
+
+    /** @return Tempo até a estimativa convergir, ou -1 se a transferência parou antes. */
+    public long getConvergedAfterMs() { return convergedAfterMs; }
+
+    public long getDurationMs() { return durationMs; }
+}
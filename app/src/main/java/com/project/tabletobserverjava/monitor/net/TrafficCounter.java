@@ -0,0 +1,85 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import com.project.tabletobserverjava.monitor.Ewma;
+
+/**
+ * Taxas e totais de tráfego de uma interface, ou de um grupo de interfaces, a partir dos
+ * contadores acumulados do kernel.
+ *
+ * As taxas por segundo são suavizadas por EWMA. Os totais somam só as diferenças entre
+ * amostras, então continuam crescendo quando o kernel zera os contadores, por exemplo ao
+ * recriar a interface: um contador que volta atrás é tratado como recomeçado do zero.
+ */
+public class TrafficCounter {
+
+    private final Ewma rxBytesPerSec;
+    private final Ewma txBytesPerSec;
+    private final Ewma rxPacketsPerSec;
+    private final Ewma txPacketsPerSec;
+
+    private boolean hasPrevious;
+    private long rxBytes;
+    private long txBytes;
+    private long rxPackets;
+    private long txPackets;
+
+    private long totalRxBytes;
+    private long totalTxBytes;
+    private int resets;
+
+    /**
+     * @param timeConstantMs Constante de tempo da suavização das taxas.
+     */
+    public TrafficCounter(long timeConstantMs) {
+        rxBytesPerSec = new Ewma(timeConstantMs);
+        txBytesPerSec = new Ewma(timeConstantMs);
+        rxPacketsPerSec = new Ewma(timeConstantMs);
+        txPacketsPerSec = new Ewma(timeConstantMs);
+    }
+
+    /**
+     * @param elapsedMs Tempo desde a amostra anterior; ignorado na primeira.
+     */
+    public void update(long rxBytes, long txBytes, long rxPackets, long txPackets, long elapsedMs) {
+        if (hasPrevious && elapsedMs > 0) {
+            boolean reset = rxBytes < this.rxBytes || txBytes < this.txBytes
+                    || rxPackets < this.rxPackets || txPackets < this.txPackets;
+            if (reset) {
+                resets++;
+            }
+            long deltaRxBytes = reset ? rxBytes : rxBytes - this.rxBytes;
+            long deltaTxBytes = reset ? txBytes : txBytes - this.txBytes;
+            long deltaRxPackets = reset ? rxPackets : rxPackets - this.rxPackets;
+            long deltaTxPackets = reset ? txPackets : txPackets - this.txPackets;
+            totalRxBytes += deltaRxBytes;
+            totalTxBytes += deltaTxBytes;
+            double seconds = elapsedMs / 1000.0;
+            rxBytesPerSec.update(deltaRxBytes / seconds, elapsedMs);
+            txBytesPerSec.update(deltaTxBytes / seconds, elapsedMs);
+            rxPacketsPerSec.update(deltaRxPackets / seconds, elapsedMs);
+            txPacketsPerSec.update(deltaTxPackets / seconds, elapsedMs);
+        }
+        this.rxBytes = rxBytes;
+        this.txBytes = txBytes;
+        this.rxPackets = rxPackets;
+        this.txPackets = txPackets;
+        hasPrevious = true;
+    }
+
+    /** @return Bytes recebidos por segundo, suavizado. */
+    public double getRxBytesPerSec() { return rxBytesPerSec.getValue(); }
+
+    public double getTxBytesPerSec() { return txBytesPerSec.getValue(); }
+
+    public double getRxPacketsPerSec() { return rxPacketsPerSec.getValue(); }
+
+    public double getTxPacketsPerSec() { return txPacketsPerSec.getValue(); }
+
+    /** @return Bytes recebidos desde a primeira amostra, somando através dos resets. */
+    public long getTotalRxBytes() { return totalRxBytes; }
+
+    public long getTotalTxBytes() { return totalTxBytes; }
+
+    /** @return Vezes em que os contadores voltaram atrás. */
+    public int getResets() { return resets; }
+}
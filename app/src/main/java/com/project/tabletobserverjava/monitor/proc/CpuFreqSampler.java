@@ -0,0 +1,152 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Amostrador das frequências de cada núcleo em /sys/devices/system/cpu/cpuN/cpufreq.
+ *
+ * A frequência atual varia com a carga e não indica limitação por si só. A limitação térmica
+ * aparece no teto da política (scaling_max_freq) abaixo do máximo do hardware
+ * (cpuinfo_max_freq), que é lido uma única vez. Cada amostra relê os dois arquivos variáveis
+ * nos buffers já alocados.
+ */
+public class CpuFreqSampler {
+
+    private final Core[] cores;
+
+    public CpuFreqSampler() {
+        this(new File("/sys/devices/system/cpu"));
+    }
+
+    /**
+     * @param root Diretório com as pastas cpuN.
+     */
+    public CpuFreqSampler(File root) {
+        File[] directories = root.listFiles((dir, name) -> name.matches("cpu[0-9]+"));
+        if (directories == null) {
+            directories = new File[0];
+        }
+        cores = new Core[directories.length];
+        for (int i = 0; i < directories.length; i++) {
+            cores[i] = new Core(directories[i]);
+        }
+        Arrays.sort(cores, (a, b) -> Integer.compare(a.index, b.index));
+    }
+
+    /**
+     * Lê a frequência atual e o teto de cada núcleo.
+     *
+     * @return Quantidade de núcleos lidos.
+     */
+    public int sample() {
+        int read = 0;
+        for (Core core : cores) {
+            if (core.sample()) {
+                read++;
+            }
+        }
+        return read;
+    }
+
+    public int getCoreCount() {
+        return cores.length;
+    }
+
+    public Core getCore(int position) {
+        return cores[position];
+    }
+
+    /**
+     * @return Menor teto entre os núcleos lidos na última amostra, em porcentagem do máximo
+     * do hardware, ou 100 se nenhum núcleo foi lido.
+     */
+    public double getMinCapPercent() {
+        double min = 100;
+        for (Core core : cores) {
+            if (core.present) {
+                min = Math.min(min, core.getCapPercent());
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Frequências de um núcleo.
+     */
+    public static class Core {
+        private final int index;
+        private final ProcFileReader currentReader;
+        private final ProcFileReader capReader;
+        private final long hardwareMaxKhz;
+        // Desligado se nunca foi lido; núcleos offline voltam a ser lidos quando voltam
+        private boolean everRead;
+        private boolean disabled;
+        private boolean present;
+        private long currentKhz;
+        private long capKhz;
+
+        Core(File directory) {
+            this.index = Integer.parseInt(directory.getName().substring(3));
+            File cpufreq = new File(directory, "cpufreq");
+            this.currentReader = new ProcFileReader(new File(cpufreq, "scaling_cur_freq"), 32);
+            this.capReader = new ProcFileReader(new File(cpufreq, "scaling_max_freq"), 32);
+            this.hardwareMaxKhz = readOnce(new File(cpufreq, "cpuinfo_max_freq"));
+        }
+
+        boolean sample() {
+            present = false;
+            if (disabled) {
+                return false;
+            }
+            try {
+                currentReader.read();
+                capReader.read();
+            } catch (IOException | SecurityException e) {
+                // Núcleo offline: o arquivo some e precisa ser reaberto quando ele voltar
+                closeQuietly(currentReader);
+                closeQuietly(capReader);
+                disabled = !everRead;
+                return false;
+            }
+            currentKhz = currentReader.nextLong();
+            capKhz = capReader.nextLong();
+            present = currentKhz > 0;
+            everRead = true;
+            return present;
+        }
+
+        public int getIndex() { return index; }
+
+        /** @return true se o núcleo foi lido na última amostra. */
+        public boolean isPresent() { return present; }
+
+        public double getCurrentMhz() { return currentKhz / 1000.0; }
+
+        /** @return Teto atual da política em porcentagem do máximo do hardware. */
+        public double getCapPercent() {
+            if (hardwareMaxKhz <= 0 || capKhz <= 0) {
+                return 100;
+            }
+            return Math.min(100.0, 100.0 * capKhz / hardwareMaxKhz);
+        }
+
+        private static long readOnce(File file) {
+            try (ProcFileReader reader = new ProcFileReader(file, 32)) {
+                reader.read();
+                return reader.nextLong();
+            } catch (IOException | SecurityException e) {
+                return -1;
+            }
+        }
+
+        private static void closeQuietly(ProcFileReader reader) {
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+                // Nada a fazer
+            }
+        }
+    }
+}
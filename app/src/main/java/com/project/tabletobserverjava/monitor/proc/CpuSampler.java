@@ -0,0 +1,235 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Amostrador de CPU: uso total e por núcleo de /proc/stat, carga média de /proc/loadavg e
+ * tempo de CPU do próprio processo de /proc/self/stat.
+ *
+ * As porcentagens são calculadas pela diferença entre duas amostras e nenhuma amostra aloca
+ * memória depois que todos os núcleos foram vistos. A partir do Android 8 o /proc/stat não
+ * pode ser lido por apps comuns; a fonte que falhar é desligada e as demais continuam.
+ */
+public class CpuSampler {
+
+    private final ProcFileReader statReader;
+    private final ProcFileReader loadReader;
+    private final ProcFileReader selfReader;
+    private final long clockTicksPerSec;
+    private final int processorCount;
+
+    private boolean statAvailable = true;
+    private boolean loadAvailable = true;
+    private boolean selfAvailable = true;
+    private long lastSampleNanos = -1;
+
+    // Índice 0 é o total; o núcleo N fica no índice N + 1
+    private long[] previousTotal = new long[9];
+    private long[] previousIdle = new long[9];
+    private long[] previousIowait = new long[9];
+    private double[] busyPercent = new double[9];
+    private double[] iowaitPercent = new double[9];
+    private boolean[] present = new boolean[9];
+    private boolean[] hasPrevious = new boolean[9];
+    private int coreSlots = 1;
+
+    private final double[] loadAverage = new double[3];
+    private long previousSelfTicks = -1;
+    private double selfPercentOfDevice;
+    private double selfPercentOfCore;
+
+    public CpuSampler(long clockTicksPerSec) {
+        this(new File("/proc/stat"), new File("/proc/loadavg"), new File("/proc/self/stat"),
+                clockTicksPerSec, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param clockTicksPerSec Valor de _SC_CLK_TCK, unidade dos tempos em /proc.
+     * @param processorCount   Núcleos usados para converter o tempo do processo em fração do aparelho.
+     */
+    public CpuSampler(File stat, File loadavg, File selfStat, long clockTicksPerSec, int processorCount) {
+        this.statReader = new ProcFileReader(stat, 4096);
+        this.loadReader = new ProcFileReader(loadavg, 128);
+        this.selfReader = new ProcFileReader(selfStat, 1024);
+        this.clockTicksPerSec = clockTicksPerSec;
+        this.processorCount = Math.max(1, processorCount);
+    }
+
+    /**
+     * Lê as três fontes e atualiza as porcentagens desde a amostra anterior.
+     *
+     * @param nowNanos Momento da amostra, em System.nanoTime().
+     * @return true se as porcentagens são válidas, ou seja, se já havia uma amostra anterior.
+     */
+    public boolean sample(long nowNanos) {
+        double elapsedSec = lastSampleNanos < 0 ? 0 : (nowNanos - lastSampleNanos) / 1_000_000_000.0;
+        lastSampleNanos = nowNanos;
+
+        if (statAvailable) {
+            try {
+                sampleStat();
+            } catch (IOException | SecurityException e) {
+                statAvailable = false;
+            }
+        }
+        if (loadAvailable) {
+            try {
+                loadReader.read();
+                loadAverage[0] = loadReader.nextDouble();
+                loadAverage[1] = loadReader.nextDouble();
+                loadAverage[2] = loadReader.nextDouble();
+            } catch (IOException | SecurityException e) {
+                loadAvailable = false;
+            }
+        }
+        if (selfAvailable) {
+            try {
+                sampleSelf(elapsedSec);
+            } catch (IOException | SecurityException e) {
+                selfAvailable = false;
+            }
+        }
+        return elapsedSec > 0;
+    }
+
+    private void sampleStat() throws IOException {
+        statReader.read();
+        for (int i = 0; i < coreSlots; i++) {
+            present[i] = false;
+        }
+        while (statReader.hasMore()) {
+            int slot = cpuSlot();
+            if (slot < 0) {
+                // As linhas de CPU vêm primeiro; o resto do arquivo não interessa
+                break;
+            }
+            statReader.skipToken();
+            // user nice system idle iowait irq softirq steal; guest já está somado em user
+            long user = statReader.nextLong();
+            long nice = statReader.nextLong();
+            long system = statReader.nextLong();
+            long idle = statReader.nextLong();
+            long iowait = Math.max(0, statReader.nextLong());
+            long irq = Math.max(0, statReader.nextLong());
+            long softirq = Math.max(0, statReader.nextLong());
+            long steal = Math.max(0, statReader.nextLong());
+            long total = user + nice + system + idle + iowait + irq + softirq + steal;
+            update(slot, total, idle, iowait);
+            statReader.nextLine();
+        }
+    }
+
+    /**
+     * @return Índice do token "cpu" ou "cpuN" no cursor, ou -1 se a linha não é de CPU.
+     */
+    private int cpuSlot() {
+        int length = statReader.peekTokenLength();
+        if (length < 3 || statReader.tokenByte(0) != 'c' || statReader.tokenByte(1) != 'p'
+                || statReader.tokenByte(2) != 'u') {
+            return -1;
+        }
+        if (length == 3) {
+            return 0;
+        }
+        int core = 0;
+        for (int i = 3; i < length; i++) {
+            byte b = statReader.tokenByte(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            core = core * 10 + (b - '0');
+        }
+        int slot = core + 1;
+        ensureSlot(slot);
+        return slot;
+    }
+
+    private void update(int slot, long total, long idle, long iowait) {
+        present[slot] = true;
+        long deltaTotal = total - previousTotal[slot];
+        long deltaIdle = idle - previousIdle[slot];
+        long deltaIowait = iowait - previousIowait[slot];
+        // Núcleos que voltam de offline recomeçam a contagem
+        if (hasPrevious[slot] && deltaTotal > 0 && deltaIdle >= 0 && deltaIowait >= 0) {
+            busyPercent[slot] = Math.max(0, 100.0 * (deltaTotal - deltaIdle - deltaIowait) / deltaTotal);
+            iowaitPercent[slot] = 100.0 * deltaIowait / deltaTotal;
+        } else {
+            busyPercent[slot] = 0;
+            iowaitPercent[slot] = 0;
+        }
+        previousTotal[slot] = total;
+        previousIdle[slot] = idle;
+        previousIowait[slot] = iowait;
+        hasPrevious[slot] = true;
+    }
+
+    private void sampleSelf(double elapsedSec) throws IOException {
+        selfReader.read();
+        // O nome do processo pode ter espaços e parênteses; os campos começam após o último ')'
+        if (!selfReader.skipPastLast((byte) ')')) {
+            return;
+        }
+        selfReader.skipToken(); // estado
+        for (int field = 4; field <= 13; field++) {
+            selfReader.nextLong();
+        }
+        long ticks = selfReader.nextLong() + selfReader.nextLong(); // utime + stime
+        if (previousSelfTicks >= 0 && elapsedSec > 0 && ticks >= previousSelfTicks) {
+            double cpuSec = (ticks - previousSelfTicks) / (double) clockTicksPerSec;
+            selfPercentOfCore = 100.0 * cpuSec / elapsedSec;
+            selfPercentOfDevice = selfPercentOfCore / processorCount;
+        }
+        previousSelfTicks = ticks;
+    }
+
+    private void ensureSlot(int slot) {
+        if (slot < coreSlots) {
+            return;
+        }
+        if (slot >= previousTotal.length) {
+            int size = Math.max(slot + 1, previousTotal.length * 2);
+            previousTotal = Arrays.copyOf(previousTotal, size);
+            previousIdle = Arrays.copyOf(previousIdle, size);
+            previousIowait = Arrays.copyOf(previousIowait, size);
+            busyPercent = Arrays.copyOf(busyPercent, size);
+            iowaitPercent = Arrays.copyOf(iowaitPercent, size);
+            present = Arrays.copyOf(present, size);
+            hasPrevious = Arrays.copyOf(hasPrevious, size);
+        }
+        coreSlots = slot + 1;
+    }
+
+    /** @return false se o /proc/stat não pôde ser lido e os valores do aparelho não existem. */
+    public boolean isSystemAvailable() { return statAvailable; }
+
+    public boolean isLoadAverageAvailable() { return loadAvailable; }
+
+    public boolean isSelfAvailable() { return selfAvailable; }
+
+    /** @return Uso total do aparelho, sem contar iowait, em porcentagem. */
+    public double getBusyPercent() { return busyPercent[0]; }
+
+    /** @return Tempo ocioso à espera de I/O, em porcentagem. */
+    public double getIowaitPercent() { return iowaitPercent[0]; }
+
+    /** @return Maior índice de núcleo já visto mais um. */
+    public int getCoreCount() { return coreSlots - 1; }
+
+    /** @return true se o núcleo estava online na última amostra. */
+    public boolean isCoreOnline(int core) { return present[core + 1]; }
+
+    public double getCoreBusyPercent(int core) { return busyPercent[core + 1]; }
+
+    public double getCoreIowaitPercent(int core) { return iowaitPercent[core + 1]; }
+
+    /** @return Carga média de 1, 5 ou 15 minutos, para index 0, 1 ou 2. */
+    public double getLoadAverage(int index) { return loadAverage[index]; }
+
+    /** @return CPU usada pelo próprio processo, em porcentagem do aparelho inteiro. */
+    public double getSelfPercentOfDevice() { return selfPercentOfDevice; }
+
+    /** @return CPU usada pelo próprio processo, em porcentagem de um núcleo. */
+    public double getSelfPercentOfCore() { return selfPercentOfCore; }
+}
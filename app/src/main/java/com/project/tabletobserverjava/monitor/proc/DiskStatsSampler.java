@@ -0,0 +1,224 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Amostrador de /proc/diskstats: bytes lidos e escritos por segundo, IOPS e fração do tempo
+ * com I/O em andamento, por dispositivo.
+ *
+ * Depois que todos os dispositivos foram vistos uma vez, cada amostra não aloca memória:
+ * os nomes são comparados byte a byte com os já conhecidos e os contadores ficam em campos
+ * primitivos reaproveitados.
+ */
+public class DiskStatsSampler {
+
+    /** O /proc/diskstats sempre conta setores de 512 bytes, qualquer que seja o dispositivo. */
+    static final int SECTOR_BYTES = 512;
+
+    /**
+     * Decide, uma única vez por dispositivo, se ele entra nas taxas publicadas.
+     */
+    public interface DeviceFilter {
+        boolean accept(String name);
+    }
+
+    /**
+     * Filtro padrão: descarta loop, ram e partições, para não contar o mesmo I/O duas vezes.
+     */
+    public static final DeviceFilter WHOLE_DISKS = name ->
+            !name.startsWith("loop") && !name.startsWith("ram")
+                    && !new File("/sys/class/block/" + name + "/partition").exists();
+
+    private final ProcFileReader reader;
+    private final DeviceFilter filter;
+    private Device[] devices = new Device[8];
+    private int deviceCount;
+    private long lastSampleNanos = -1;
+
+    public DiskStatsSampler() {
+        this(new File("/proc/diskstats"), WHOLE_DISKS);
+    }
+
+    /**
+     * @param file   Arquivo no formato do /proc/diskstats.
+     * @param filter Dispositivos considerados.
+     */
+    public DiskStatsSampler(File file, DeviceFilter filter) {
+        this.reader = new ProcFileReader(file, 4096);
+        this.filter = filter;
+    }
+
+    /**
+     * Lê o arquivo e atualiza as taxas de cada dispositivo desde a amostra anterior.
+     *
+     * @param nowNanos Momento da amostra, em System.nanoTime().
+     * @return true se as taxas são válidas, ou seja, se já havia uma amostra anterior.
+     */
+    public boolean sample(long nowNanos) throws IOException {
+        reader.read();
+        double elapsedSec = lastSampleNanos < 0 ? 0 : (nowNanos - lastSampleNanos) / 1_000_000_000.0;
+        lastSampleNanos = nowNanos;
+
+        for (int i = 0; i < deviceCount; i++) {
+            devices[i].present = false;
+        }
+        while (reader.hasMore()) {
+            // major minor nome leituras leituras_agrupadas setores_lidos ms_lendo
+            // escritas escritas_agrupadas setores_escritos ms_escrevendo em_andamento ms_com_io ...
+            reader.nextLong();
+            reader.nextLong();
+            Device device = findOrAdd();
+            reader.skipToken();
+            long reads = reader.nextLong();
+            reader.nextLong();
+            long sectorsRead = reader.nextLong();
+            long msReading = reader.nextLong();
+            long writes = reader.nextLong();
+            reader.nextLong();
+            long sectorsWritten = reader.nextLong();
+            long msWriting = reader.nextLong();
+            reader.nextLong();
+            long msIo = reader.nextLong();
+            if (msIo >= 0) {
+                device.update(reads, sectorsRead, msReading, writes, sectorsWritten, msWriting, msIo, elapsedSec);
+            }
+            reader.nextLine();
+        }
+        return elapsedSec > 0;
+    }
+
+    public int getDeviceCount() {
+        return deviceCount;
+    }
+
+    /**
+     * @return Dispositivo na posição {@code index}, na ordem em que apareceu pela primeira vez.
+     */
+    public Device getDevice(int index) {
+        return devices[index];
+    }
+
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Encontra o dispositivo cujo nome está no cursor, sem consumir o nome.
+     */
+    private Device findOrAdd() {
+        int nameLength = reader.peekTokenLength();
+        for (int i = 0; i < deviceCount; i++) {
+            byte[] name = devices[i].nameBytes;
+            if (name.length != nameLength) {
+                continue;
+            }
+            int j = 0;
+            while (j < nameLength && name[j] == reader.tokenByte(j)) {
+                j++;
+            }
+            if (j == nameLength) {
+                return devices[i];
+            }
+        }
+        // Primeira vez que o dispositivo aparece: única alocação
+        String name = reader.tokenString();
+        if (deviceCount == devices.length) {
+            Device[] larger = new Device[devices.length * 2];
+            System.arraycopy(devices, 0, larger, 0, deviceCount);
+            devices = larger;
+        }
+        Device device = new Device(name, filter.accept(name));
+        devices[deviceCount++] = device;
+        return device;
+    }
+
+    /**
+     * Contadores e taxas de um dispositivo de bloco.
+     */
+    public static class Device {
+        private final String name;
+        private final byte[] nameBytes;
+        private final boolean accepted;
+        private boolean present;
+        private boolean hasPrevious;
+
+        private long reads;
+        private long sectorsRead;
+        private long msReading;
+        private long writes;
+        private long sectorsWritten;
+        private long msWriting;
+        private long msIo;
+
+        private double readBytesPerSec;
+        private double writeBytesPerSec;
+        private double readIops;
+        private double writeIops;
+        private double busyPercent;
+        private double readLatencyMs;
+        private double writeLatencyMs;
+
+        Device(String name, boolean accepted) {
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+            this.accepted = accepted;
+        }
+
+        void update(long reads, long sectorsRead, long msReading, long writes, long sectorsWritten,
+                    long msWriting, long msIo, double elapsedSec) {
+            present = true;
+            long deltaReads = reads - this.reads;
+            long deltaWrites = writes - this.writes;
+            // Contadores que voltam atrás indicam dispositivo recriado; a taxa recomeça do zero
+            boolean valid = hasPrevious && elapsedSec > 0 && deltaReads >= 0 && deltaWrites >= 0
+                    && msIo >= this.msIo;
+            if (valid) {
+                readBytesPerSec = (sectorsRead - this.sectorsRead) * (double) SECTOR_BYTES / elapsedSec;
+                writeBytesPerSec = (sectorsWritten - this.sectorsWritten) * (double) SECTOR_BYTES / elapsedSec;
+                readIops = deltaReads / elapsedSec;
+                writeIops = deltaWrites / elapsedSec;
+                busyPercent = Math.min(100.0, (msIo - this.msIo) / (elapsedSec * 10.0));
+                readLatencyMs = deltaReads > 0 ? (double) (msReading - this.msReading) / deltaReads : 0;
+                writeLatencyMs = deltaWrites > 0 ? (double) (msWriting - this.msWriting) / deltaWrites : 0;
+            } else {
+                readBytesPerSec = writeBytesPerSec = readIops = writeIops = busyPercent = 0;
+                readLatencyMs = writeLatencyMs = 0;
+            }
+            this.reads = reads;
+            this.sectorsRead = sectorsRead;
+            this.msReading = msReading;
+            this.writes = writes;
+            this.sectorsWritten = sectorsWritten;
+            this.msWriting = msWriting;
+            this.msIo = msIo;
+            hasPrevious = true;
+        }
+
+        public String getName() { return name; }
+
+        /** @return true se o dispositivo passou pelo filtro. */
+        public boolean isAccepted() { return accepted; }
+
+        /** @return true se o dispositivo apareceu na última amostra. */
+        public boolean isPresent() { return present; }
+
+        public double getReadBytesPerSec() { return readBytesPerSec; }
+
+        public double getWriteBytesPerSec() { return writeBytesPerSec; }
+
+        public double getReadIops() { return readIops; }
+
+        public double getWriteIops() { return writeIops; }
+
+        /** @return Porcentagem do intervalo com pelo menos uma operação em andamento. */
+        public double getBusyPercent() { return busyPercent; }
+
+        /** @return Tempo médio de cada leitura concluída no intervalo. */
+        public double getReadLatencyMs() { return readLatencyMs; }
+
+        /** @return Tempo médio de cada escrita concluída no intervalo. */
+        public double getWriteLatencyMs() { return writeLatencyMs; }
+    }
+}
@@ -0,0 +1,114 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Amostrador de /proc/meminfo sem alocação por amostra.
+ *
+ * A ordem das linhas do /proc/meminfo não muda enquanto o kernel roda, então a primeira
+ * leitura aprende em qual linha está cada campo. Nas seguintes, as linhas sem interesse são
+ * puladas sem comparar a chave, e as de interesse só conferem a chave esperada.
+ */
+public class MemInfoSampler {
+
+    public static final int MEM_TOTAL = 0;
+    public static final int MEM_FREE = 1;
+    public static final int MEM_AVAILABLE = 2;
+    public static final int BUFFERS = 3;
+    public static final int CACHED = 4;
+    public static final int SWAP_CACHED = 5;
+    public static final int ACTIVE = 6;
+    public static final int INACTIVE = 7;
+    public static final int SWAP_TOTAL = 8;
+    public static final int SWAP_FREE = 9;
+    public static final int DIRTY = 10;
+    public static final int MAPPED = 11;
+    public static final int SHMEM = 12;
+    public static final int SLAB_RECLAIMABLE = 13;
+
+    private static final byte[][] KEYS = keys("MemTotal:", "MemFree:", "MemAvailable:", "Buffers:", "Cached:",
+            "SwapCached:", "Active:", "Inactive:", "SwapTotal:", "SwapFree:", "Dirty:", "Mapped:", "Shmem:",
+            "SReclaimable:");
+
+    private static final int UNKNOWN_LINE = -2;
+    private static final int IGNORED_LINE = -1;
+
+    private final ProcFileReader reader;
+    private final long[] valuesKb = new long[KEYS.length];
+    // Campo de cada linha aprendido nas leituras anteriores
+    private int[] fieldForLine = new int[64];
+
+    public MemInfoSampler() {
+        this(new File("/proc/meminfo"));
+    }
+
+    public MemInfoSampler(File file) {
+        this.reader = new ProcFileReader(file, 4096);
+        Arrays.fill(fieldForLine, UNKNOWN_LINE);
+    }
+
+    /**
+     * Lê o arquivo e atualiza os campos. Campos ausentes neste kernel ficam em -1.
+     */
+    public void sample() throws IOException {
+        reader.read();
+        Arrays.fill(valuesKb, -1);
+        int line = 0;
+        while (reader.hasMore()) {
+            if (line == fieldForLine.length) {
+                int previousLength = fieldForLine.length;
+                fieldForLine = Arrays.copyOf(fieldForLine, previousLength * 2);
+                Arrays.fill(fieldForLine, previousLength, fieldForLine.length, UNKNOWN_LINE);
+            }
+            int field = fieldForLine[line];
+            if (field >= 0 && !reader.consumeToken(KEYS[field])) {
+                // A linha não tem mais a chave esperada: aprende de novo
+                field = UNKNOWN_LINE;
+            }
+            if (field == UNKNOWN_LINE) {
+                field = findField();
+                fieldForLine[line] = field;
+            }
+            if (field >= 0) {
+                valuesKb[field] = reader.nextLong();
+            }
+            reader.nextLine();
+            line++;
+        }
+    }
+
+    /**
+     * Procura e consome a chave da linha atual entre as conhecidas.
+     */
+    private int findField() {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (reader.consumeToken(KEYS[i])) {
+                return i;
+            }
+        }
+        return IGNORED_LINE;
+    }
+
+    /**
+     * @param field Uma das constantes desta classe, como {@link #MEM_AVAILABLE}.
+     * @return Valor em kB, ou -1 se o campo não existe neste kernel.
+     */
+    public long getKb(int field) {
+        return valuesKb[field];
+    }
+
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static byte[][] keys(String... names) {
+        byte[][] keys = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            keys[i] = names[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,152 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Amostrador de /proc/net/dev: bytes e pacotes recebidos e enviados por interface de rede,
+ * acumulados pelo kernel desde que a interface foi criada.
+ *
+ * Como no DiskStatsSampler, depois que todas as interfaces foram vistas uma vez cada amostra
+ * não aloca memória. O nome vai até o ':', que em contadores grandes fica colado no número,
+ * como em "wlan0:123456789".
+ */
+public class NetDevSampler {
+
+    private static final int HEADER_LINES = 2;
+
+    private final ProcFileReader reader;
+    private Interface[] interfaces = new Interface[8];
+    private int interfaceCount;
+
+    public NetDevSampler() {
+        this(new File("/proc/net/dev"));
+    }
+
+    public NetDevSampler(File file) {
+        this.reader = new ProcFileReader(file, 2048);
+    }
+
+    /**
+     * Lê o arquivo e atualiza os contadores. Interfaces que sumiram ficam marcadas como ausentes.
+     */
+    public void sample() throws IOException {
+        reader.read();
+        for (int i = 0; i < HEADER_LINES; i++) {
+            reader.nextLine();
+        }
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaces[i].present = false;
+        }
+        while (reader.hasMore()) {
+            Interface iface = findOrAdd();
+            if (iface != null && reader.skipPast((byte) ':')) {
+                // Recebidos: bytes pacotes erros descartes fifo frame comprimidos multicast
+                long rxBytes = reader.nextLong();
+                long rxPackets = reader.nextLong();
+                for (int i = 0; i < 6; i++) {
+                    reader.nextLong();
+                }
+                // Enviados: bytes pacotes ...
+                long txBytes = reader.nextLong();
+                long txPackets = reader.nextLong();
+                if (txPackets >= 0) {
+                    iface.present = true;
+                    iface.rxBytes = rxBytes;
+                    iface.rxPackets = rxPackets;
+                    iface.txBytes = txBytes;
+                    iface.txPackets = txPackets;
+                }
+            }
+            reader.nextLine();
+        }
+    }
+
+    public int getInterfaceCount() {
+        return interfaceCount;
+    }
+
+    /**
+     * @return Interface na posição {@code index}, na ordem em que apareceu pela primeira vez.
+     */
+    public Interface getInterface(int index) {
+        return interfaces[index];
+    }
+
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Encontra a interface cujo nome está no cursor, sem consumir o nome.
+     *
+     * @return null se a linha não tem o formato "nome:".
+     */
+    private Interface findOrAdd() {
+        int tokenLength = reader.peekTokenLength();
+        int nameLength = 0;
+        while (nameLength < tokenLength && reader.tokenByte(nameLength) != ':') {
+            nameLength++;
+        }
+        if (nameLength == 0 || nameLength == tokenLength) {
+            return null;
+        }
+        for (int i = 0; i < interfaceCount; i++) {
+            byte[] name = interfaces[i].nameBytes;
+            if (name.length != nameLength) {
+                continue;
+            }
+            int j = 0;
+            while (j < nameLength && name[j] == reader.tokenByte(j)) {
+                j++;
+            }
+            if (j == nameLength) {
+                return interfaces[i];
+            }
+        }
+        // Primeira vez que a interface aparece: única alocação
+        String name = reader.tokenString().substring(0, nameLength);
+        if (interfaceCount == interfaces.length) {
+            Interface[] larger = new Interface[interfaces.length * 2];
+            System.arraycopy(interfaces, 0, larger, 0, interfaceCount);
+            interfaces = larger;
+        }
+        Interface iface = new Interface(name);
+        interfaces[interfaceCount++] = iface;
+        return iface;
+    }
+
+    /**
+     * Contadores acumulados de uma interface de rede.
+     */
+    public static class Interface {
+        private final String name;
+        private final byte[] nameBytes;
+        private boolean present;
+        private long rxBytes;
+        private long rxPackets;
+        private long txBytes;
+        private long txPackets;
+
+        Interface(String name) {
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        public String getName() { return name; }
+
+        /** @return false se a interface não apareceu na última amostra. */
+        public boolean isPresent() { return present; }
+
+        public boolean isLoopback() { return "lo".equals(name); }
+
+        public long getRxBytes() { return rxBytes; }
+
+        public long getRxPackets() { return rxPackets; }
+
+        public long getTxBytes() { return txBytes; }
+
+        public long getTxPackets() { return txPackets; }
+    }
+}
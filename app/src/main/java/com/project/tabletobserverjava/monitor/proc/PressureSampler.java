@@ -0,0 +1,115 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Amostrador de um arquivo de pressure stall information (PSI), como /proc/pressure/memory.
+ *
+ * Cada arquivo tem uma linha "some", tempo em que pelo menos uma tarefa esperou pelo recurso,
+ * e normalmente uma "full", tempo em que todas esperaram. Além das médias do kernel, o total
+ * acumulado permite calcular a porcentagem exata de espera no intervalo entre duas amostras.
+ * Kernels sem PSI, ou em que o arquivo não pode ser lido, deixam o amostrador indisponível.
+ */
+public class PressureSampler {
+
+    private static final byte[] SOME = "some".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FULL = "full".getBytes(StandardCharsets.US_ASCII);
+
+    private final ProcFileReader reader;
+    private boolean available = true;
+    private long lastSampleNanos = -1;
+
+    private final Line some = new Line();
+    private final Line full = new Line();
+
+    public PressureSampler(File file) {
+        this.reader = new ProcFileReader(file, 256);
+    }
+
+    /**
+     * @param resource "memory", "cpu" ou "io".
+     */
+    public static PressureSampler forResource(String resource) {
+        return new PressureSampler(new File("/proc/pressure/" + resource));
+    }
+
+    /**
+     * Lê o arquivo, se disponível, e atualiza as médias e as porcentagens do intervalo.
+     *
+     * @param nowNanos Momento da amostra, em System.nanoTime().
+     * @return false se o PSI não está disponível.
+     */
+    public boolean sample(long nowNanos) {
+        if (!available) {
+            return false;
+        }
+        try {
+            reader.read();
+        } catch (IOException | SecurityException e) {
+            available = false;
+            return false;
+        }
+        double elapsedUs = lastSampleNanos < 0 ? 0 : (nowNanos - lastSampleNanos) / 1000.0;
+        lastSampleNanos = nowNanos;
+        while (reader.hasMore()) {
+            if (reader.consumeToken(SOME)) {
+                some.parse(reader, elapsedUs);
+            } else if (reader.consumeToken(FULL)) {
+                full.parse(reader, elapsedUs);
+            }
+            reader.nextLine();
+        }
+        return true;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /** @return Linha "some": pelo menos uma tarefa esperando pelo recurso. */
+    public Line getSome() {
+        return some;
+    }
+
+    /** @return Linha "full": todas as tarefas esperando; zerada se o arquivo não a tem. */
+    public Line getFull() {
+        return full;
+    }
+
+    /**
+     * Valores de uma linha do PSI.
+     */
+    public static class Line {
+        private double avg10;
+        private double avg60;
+        private double avg300;
+        private long totalUs = -1;
+        private double intervalPercent;
+
+        void parse(ProcFileReader reader, double elapsedUs) {
+            // avg10=0.00 avg60=0.00 avg300=0.00 total=0
+            avg10 = reader.skipPast((byte) '=') ? reader.nextDouble() : 0;
+            avg60 = reader.skipPast((byte) '=') ? reader.nextDouble() : 0;
+            avg300 = reader.skipPast((byte) '=') ? reader.nextDouble() : 0;
+            long total = reader.skipPast((byte) '=') ? reader.nextLong() : -1;
+            intervalPercent = totalUs >= 0 && total >= totalUs && elapsedUs > 0
+                    ? Math.min(100.0, 100.0 * (total - totalUs) / elapsedUs) : 0;
+            totalUs = total;
+        }
+
+        /** @return Porcentagem média de espera nos últimos 10 segundos, calculada pelo kernel. */
+        public double getAvg10() { return avg10; }
+
+        public double getAvg60() { return avg60; }
+
+        public double getAvg300() { return avg300; }
+
+        /** @return Tempo total de espera desde o boot, em microssegundos. */
+        public long getTotalUs() { return totalUs; }
+
+        /** @return Porcentagem de espera desde a amostra anterior. */
+        public double getIntervalPercent() { return intervalPercent; }
+    }
+}
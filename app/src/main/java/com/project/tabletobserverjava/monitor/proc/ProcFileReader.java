@@ -0,0 +1,259 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Leitor de arquivos do /proc sem alocação por leitura.
+ *
+ * O arquivo fica aberto e cada leitura volta ao início e preenche o mesmo buffer; o kernel
+ * gera o conteúdo de novo a cada leitura. Os números são lidos direto dos bytes, sem String.
+ * O buffer só cresce se o arquivo não couber nele, o que acontece apenas nas primeiras leituras.
+ */
+public class ProcFileReader implements Closeable {
+
+    private final File file;
+    private RandomAccessFile input;
+    private byte[] buffer;
+    private int length;
+    private int position;
+
+    /**
+     * @param file            Arquivo a ler, por exemplo /proc/diskstats.
+     * @param initialCapacity Tamanho inicial do buffer, em bytes.
+     */
+    public ProcFileReader(File file, int initialCapacity) {
+        this.file = file;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Lê o conteúdo atual do arquivo e posiciona o cursor no início.
+     *
+     * @return Quantidade de bytes lidos.
+     */
+    public int read() throws IOException {
+        if (input == null) {
+            input = new RandomAccessFile(file, "r");
+        }
+        input.seek(0);
+        length = 0;
+        int count;
+        while ((count = input.read(buffer, length, buffer.length - length)) > 0) {
+            length += count;
+            if (length == buffer.length) {
+                byte[] larger = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, larger, 0, length);
+                buffer = larger;
+            }
+        }
+        position = 0;
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (input != null) {
+            input.close();
+            input = null;
+        }
+    }
+
+    /**
+     * @return true se o cursor ainda não chegou ao fim do conteúdo.
+     */
+    public boolean hasMore() {
+        return position < length;
+    }
+
+    /**
+     * @return true se o cursor está no fim da linha atual, ignorando espaços.
+     */
+    public boolean atEndOfLine() {
+        skipSpaces();
+        return position >= length || buffer[position] == '\n';
+    }
+
+    /**
+     * Avança o cursor para o início da próxima linha.
+     *
+     * @return false se não há próxima linha.
+     */
+    public boolean nextLine() {
+        while (position < length && buffer[position] != '\n') {
+            position++;
+        }
+        if (position < length) {
+            position++;
+        }
+        return position < length;
+    }
+
+    /**
+     * Lê o próximo número inteiro da linha atual, ignorando espaços e um ':' antes dele.
+     *
+     * @return O número, ou -1 se a linha acabou.
+     */
+    public long nextLong() {
+        skipSpaces();
+        if (position < length && buffer[position] == ':') {
+            position++;
+            skipSpaces();
+        }
+        boolean negative = false;
+        if (position < length && buffer[position] == '-') {
+            negative = true;
+            position++;
+        }
+        if (position >= length || !isDigit(buffer[position])) {
+            return -1;
+        }
+        long value = 0;
+        while (position < length && isDigit(buffer[position])) {
+            value = value * 10 + (buffer[position++] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Lê o próximo número com parte fracionária, como em /proc/loadavg.
+     *
+     * @return O número, ou -1 se a linha acabou.
+     */
+    public double nextDouble() {
+        skipSpaces();
+        if (position >= length || !isDigit(buffer[position])) {
+            return -1;
+        }
+        long integer = 0;
+        while (position < length && isDigit(buffer[position])) {
+            integer = integer * 10 + (buffer[position++] - '0');
+        }
+        double value = integer;
+        if (position < length && buffer[position] == '.') {
+            position++;
+            double scale = 0.1;
+            while (position < length && isDigit(buffer[position])) {
+                value += (buffer[position++] - '0') * scale;
+                scale /= 10;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Avança o cursor para logo depois da próxima ocorrência de {@code b} na linha atual,
+     * como o '=' de "avg10=0.52" em /proc/pressure.
+     *
+     * @return false se o byte não aparece no resto da linha; o cursor não muda.
+     */
+    public boolean skipPast(byte b) {
+        for (int i = position; i < length && buffer[i] != '\n'; i++) {
+            if (buffer[i] == b) {
+                position = i + 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Avança o cursor para logo depois da última ocorrência de {@code b} na linha atual,
+     * como o ')' que fecha o nome do processo em /proc/self/stat.
+     *
+     * @return false se o byte não aparece na linha; o cursor não muda.
+     */
+    public boolean skipPastLast(byte b) {
+        int last = -1;
+        for (int i = position; i < length && buffer[i] != '\n'; i++) {
+            if (buffer[i] == b) {
+                last = i;
+            }
+        }
+        if (last < 0) {
+            return false;
+        }
+        position = last + 1;
+        return true;
+    }
+
+    /**
+     * Pula o próximo token da linha atual.
+     */
+    public void skipToken() {
+        skipSpaces();
+        while (position < length && !isSpace(buffer[position]) && buffer[position] != '\n') {
+            position++;
+        }
+    }
+
+    /**
+     * Consome o próximo token se ele for igual a {@code token}.
+     *
+     * @return true se o token foi encontrado e consumido.
+     */
+    public boolean consumeToken(byte[] token) {
+        skipSpaces();
+        int end = tokenEnd();
+        if (end - position != token.length) {
+            return false;
+        }
+        for (int i = 0; i < token.length; i++) {
+            if (buffer[position + i] != token[i]) {
+                return false;
+            }
+        }
+        position = end;
+        return true;
+    }
+
+    /**
+     * Posiciona o cursor no início do próximo token e devolve o seu tamanho, sem consumi-lo.
+     * Use {@link #tokenByte(int)} para comparar e {@link #skipToken()} para avançar.
+     */
+    public int peekTokenLength() {
+        skipSpaces();
+        return tokenEnd() - position;
+    }
+
+    /**
+     * @return Byte na posição {@code index} do token no cursor.
+     */
+    public byte tokenByte(int index) {
+        return buffer[position + index];
+    }
+
+    /**
+     * Copia o token no cursor para uma String. Aloca; use só na primeira vez que um nome aparece.
+     */
+    public String tokenString() {
+        skipSpaces();
+        int end = tokenEnd();
+        return new String(buffer, position, end - position, StandardCharsets.US_ASCII);
+    }
+
+    private int tokenEnd() {
+        int end = position;
+        while (end < length && !isSpace(buffer[end]) && buffer[end] != '\n') {
+            end++;
+        }
+        return end;
+    }
+
+    private void skipSpaces() {
+        while (position < length && isSpace(buffer[position])) {
+            position++;
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
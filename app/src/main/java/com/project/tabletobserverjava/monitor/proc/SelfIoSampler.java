@@ -0,0 +1,95 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Amostrador de /proc/self/io: taxas de I/O do próprio processo, sem alocação por amostra.
+ *
+ * rchar e wchar contam tudo o que passou por read() e write(), inclusive o que foi atendido
+ * pelo cache; read_bytes e write_bytes contam só o que chegou ao dispositivo.
+ */
+public class SelfIoSampler {
+
+    private static final byte[] RCHAR = "rchar:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WCHAR = "wchar:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SYSCR = "syscr:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SYSCW = "syscw:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] READ_BYTES = "read_bytes:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WRITE_BYTES = "write_bytes:".getBytes(StandardCharsets.US_ASCII);
+
+    private final ProcFileReader reader;
+    private long lastSampleNanos = -1;
+
+    // Contadores da amostra anterior, na ordem rchar, wchar, syscr, syscw, read_bytes, write_bytes
+    private final long[] previous = new long[6];
+    private final long[] current = new long[6];
+    // Taxas por segundo, na mesma ordem
+    private final double[] rates = new double[6];
+
+    public SelfIoSampler() {
+        this(new File("/proc/self/io"));
+    }
+
+    public SelfIoSampler(File file) {
+        this.reader = new ProcFileReader(file, 512);
+    }
+
+    /**
+     * Lê o arquivo e atualiza as taxas desde a amostra anterior.
+     *
+     * @param nowNanos Momento da amostra, em System.nanoTime().
+     * @return true se as taxas são válidas, ou seja, se já havia uma amostra anterior.
+     */
+    public boolean sample(long nowNanos) throws IOException {
+        reader.read();
+        while (reader.hasMore()) {
+            int index = fieldIndex();
+            if (index >= 0) {
+                current[index] = reader.nextLong();
+            }
+            reader.nextLine();
+        }
+
+        boolean valid = lastSampleNanos >= 0 && nowNanos > lastSampleNanos;
+        double elapsedSec = (nowNanos - lastSampleNanos) / 1_000_000_000.0;
+        for (int i = 0; i < current.length; i++) {
+            long delta = current[i] - previous[i];
+            rates[i] = valid && delta >= 0 ? delta / elapsedSec : 0;
+            previous[i] = current[i];
+        }
+        lastSampleNanos = nowNanos;
+        return valid;
+    }
+
+    private int fieldIndex() {
+        if (reader.consumeToken(RCHAR)) return 0;
+        if (reader.consumeToken(WCHAR)) return 1;
+        if (reader.consumeToken(SYSCR)) return 2;
+        if (reader.consumeToken(SYSCW)) return 3;
+        if (reader.consumeToken(READ_BYTES)) return 4;
+        if (reader.consumeToken(WRITE_BYTES)) return 5;
+        return -1;
+    }
+
+    /** @return Bytes por segundo pedidos em read(), inclusive os atendidos pelo cache. */
+    public double getReadCharsPerSec() { return rates[0]; }
+
+    /** @return Bytes por segundo passados para write(). */
+    public double getWriteCharsPerSec() { return rates[1]; }
+
+    public double getReadSyscallsPerSec() { return rates[2]; }
+
+    public double getWriteSyscallsPerSec() { return rates[3]; }
+
+    /** @return Bytes por segundo lidos do dispositivo. */
+    public double getReadBytesPerSec() { return rates[4]; }
+
+    /** @return Bytes por segundo enviados ao dispositivo. */
+    public double getWriteBytesPerSec() { return rates[5]; }
+
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,126 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Amostrador das temperaturas de /sys/class/thermal/thermal_zone*.
+ *
+ * As zonas são descobertas uma vez; depois cada amostra só relê o arquivo "temp" de cada zona
+ * no buffer do seu ProcFileReader, sem alocar. Em muitos aparelhos parte das zonas, ou todas,
+ * não pode ser lida por apps; a zona que falhar é desligada e as demais continuam.
+ */
+public class ThermalZoneSampler {
+
+    private static final String ZONE_PREFIX = "thermal_zone";
+
+    /** Abaixo disso o valor já está em graus; a maioria dos kernels usa miligraus. */
+    private static final long MAX_PLAIN_CELSIUS = 200;
+
+    private final Zone[] zones;
+
+    public ThermalZoneSampler() {
+        this(new File("/sys/class/thermal"));
+    }
+
+    /**
+     * @param root Diretório com as pastas thermal_zoneN.
+     */
+    public ThermalZoneSampler(File root) {
+        File[] directories = root.listFiles((dir, name) -> name.startsWith(ZONE_PREFIX));
+        if (directories == null) {
+            directories = new File[0];
+        }
+        zones = new Zone[directories.length];
+        for (int i = 0; i < directories.length; i++) {
+            zones[i] = new Zone(directories[i]);
+        }
+        Arrays.sort(zones, (a, b) -> Integer.compare(a.index, b.index));
+    }
+
+    /**
+     * Lê a temperatura de cada zona ainda disponível.
+     *
+     * @return Quantidade de zonas lidas.
+     */
+    public int sample() {
+        int read = 0;
+        for (Zone zone : zones) {
+            if (zone.sample()) {
+                read++;
+            }
+        }
+        return read;
+    }
+
+    public int getZoneCount() {
+        return zones.length;
+    }
+
+    public Zone getZone(int position) {
+        return zones[position];
+    }
+
+    /**
+     * Uma zona térmica: um sensor com um tipo, como "cpu-0-0" ou "battery".
+     */
+    public static class Zone {
+        private final int index;
+        private final String type;
+        private final ProcFileReader reader;
+        private boolean available = true;
+        private double celsius = Double.NaN;
+
+        Zone(File directory) {
+            this.index = parseIndex(directory.getName());
+            this.type = readType(new File(directory, "type"));
+            this.reader = new ProcFileReader(new File(directory, "temp"), 32);
+        }
+
+        boolean sample() {
+            if (!available) {
+                return false;
+            }
+            try {
+                reader.read();
+            } catch (IOException | SecurityException e) {
+                available = false;
+                celsius = Double.NaN;
+                return false;
+            }
+            long value = reader.nextLong();
+            celsius = Math.abs(value) < MAX_PLAIN_CELSIUS ? value : value / 1000.0;
+            return true;
+        }
+
+        /** @return Número N de thermal_zoneN. */
+        public int getIndex() { return index; }
+
+        /** @return Tipo do sensor, ou "zoneN" se o tipo não pôde ser lido. */
+        public String getType() { return type; }
+
+        /** @return false se a zona não pôde ser lida e foi desligada. */
+        public boolean isAvailable() { return available; }
+
+        /** @return Temperatura da última amostra, ou NaN se a zona não foi lida. */
+        public double getCelsius() { return celsius; }
+
+        private static int parseIndex(String name) {
+            try {
+                return Integer.parseInt(name.substring(ZONE_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                return Integer.MAX_VALUE;
+            }
+        }
+
+        private String readType(File file) {
+            try (ProcFileReader typeReader = new ProcFileReader(file, 64)) {
+                typeReader.read();
+                return typeReader.hasMore() ? typeReader.tokenString() : "zone" + index;
+            } catch (IOException | SecurityException e) {
+                return "zone" + index;
+            }
+        }
+    }
+}
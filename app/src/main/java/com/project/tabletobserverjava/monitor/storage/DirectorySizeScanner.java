@@ -0,0 +1,265 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calcula o tamanho de árvores de diretórios sem recursão na pilha.
+ *
+ * Cada diretório é uma tarefa de um ForkJoinPool: a tarefa lista apenas o próprio diretório
+ * e dispara uma nova tarefa por subdiretório, de modo que subárvores diferentes são lidas em
+ * paralelo e a profundidade da árvore não afeta a pilha.
+ *
+ * A listagem de cada diretório (bytes e quantidade dos arquivos diretos e nomes dos
+ * subdiretórios) fica em cache, indexada pelo mtime do diretório. Como o mtime só muda
+ * quando entradas são criadas, removidas ou renomeadas, um diretório inalterado custa uma
+ * única consulta de atributos em vez de uma por arquivo. Arquivos que crescem sem alterar o
+ * diretório só são percebidos quando a listagem passa de maxListingAgeMs.
+ */
+public class DirectorySizeScanner {
+
+    /**
+     * Diretórios alterados até este tempo antes da listagem podem ter mudado no mesmo
+     * tique do mtime; essas listagens não são reaproveitadas.
+     */
+    static final long RACY_WINDOW_MS = 2000;
+
+    private final ForkJoinPool pool;
+    private final long maxListingAgeMs;
+    private final Map<Path, Listing> cache = new ConcurrentHashMap<>();
+    private long generation;
+
+    /**
+     * @param parallelism     Threads usadas na varredura.
+     * @param maxListingAgeMs Idade máxima de uma listagem reaproveitada, em milissegundos.
+     */
+    public DirectorySizeScanner(int parallelism, long maxListingAgeMs) {
+        this.maxListingAgeMs = maxListingAgeMs;
+        this.pool = new ForkJoinPool(Math.max(1, parallelism), forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("TabletObserver-DirScan-" + thread.getPoolIndex());
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Calcula o tamanho de um diretório e de todos os seus subdiretórios.
+     * Links simbólicos não são seguidos. Um diretório inexistente resulta em tamanho zero.
+     */
+    public synchronized Result scan(Path root) {
+        long start = System.nanoTime();
+        ScanState state = new ScanState(++generation, System.currentTimeMillis());
+        if (Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) {
+            pool.invoke(new DirectoryTask(null, root, -1, state));
+        }
+        // Descarta as listagens de diretórios que deixaram de existir nesta árvore
+        cache.entrySet().removeIf(entry ->
+                entry.getValue().generation != state.generation && entry.getKey().startsWith(root));
+        return new Result(state, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Descarta todas as listagens em cache; a próxima varredura relê todos os diretórios.
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * @return Quantidade de diretórios com listagem em cache.
+     */
+    public int getCachedDirectoryCount() {
+        return cache.size();
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private boolean isReusable(Listing listing, long mtime, long now) {
+        return listing.mtime == mtime
+                && mtime < listing.listedAtMs - RACY_WINDOW_MS
+                && now - listing.listedAtMs <= maxListingAgeMs;
+    }
+
+    /**
+     * Lê as entradas diretas de um diretório, com uma consulta de atributos por entrada.
+     */
+    private static Listing list(Path dir, long mtime, long now) throws IOException {
+        List<String> childNames = new ArrayList<>();
+        List<Long> childMtimes = new ArrayList<>();
+        long[] files = new long[2];
+        Files.walkFileTree(dir, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isDirectory()) {
+                    childNames.add(file.getFileName().toString());
+                    childMtimes.add(attrs.lastModifiedTime().toMillis());
+                } else if (attrs.isRegularFile()) {
+                    files[0] += attrs.size();
+                    files[1]++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                if (file.equals(dir)) {
+                    throw exc;
+                }
+                // Entrada removida ou sem permissão durante a listagem
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        long[] mtimes = new long[childMtimes.size()];
+        for (int i = 0; i < mtimes.length; i++) {
+            mtimes[i] = childMtimes.get(i);
+        }
+        return new Listing(mtime, now, files[0], files[1], childNames.toArray(new String[0]), mtimes);
+    }
+
+    /**
+     * Tarefa de um diretório: soma os arquivos diretos e dispara uma tarefa por subdiretório.
+     */
+    // ForkJoinTask é Serializable, mas as tarefas só existem durante uma varredura e nunca são serializadas
+    @SuppressWarnings("serial")
+    private final class DirectoryTask extends CountedCompleter<Void> {
+        private final Path dir;
+        private final long knownMtime;
+        private final ScanState state;
+
+        DirectoryTask(CountedCompleter<?> parent, Path dir, long knownMtime, ScanState state) {
+            super(parent);
+            this.dir = dir;
+            this.knownMtime = knownMtime;
+            this.state = state;
+        }
+
+        @Override
+        public void compute() {
+            try {
+                long mtime = knownMtime >= 0 ? knownMtime
+                        : Files.getLastModifiedTime(dir, LinkOption.NOFOLLOW_LINKS).toMillis();
+                Listing listing = cache.get(dir);
+                boolean reused = listing != null && isReusable(listing, mtime, state.startedAtMs);
+                if (reused) {
+                    state.reusedDirectories.increment();
+                } else {
+                    listing = list(dir, mtime, state.startedAtMs);
+                    cache.put(dir, listing);
+                    state.listedDirectories.increment();
+                }
+                listing.generation = state.generation;
+                state.totalBytes.add(listing.fileBytes);
+                state.fileCount.add(listing.fileCount);
+                state.directoryCount.increment();
+
+                for (int i = 0; i < listing.childNames.length; i++) {
+                    // O mtime dos filhos só é atual quando este diretório acabou de ser listado
+                    long childMtime = reused ? -1 : listing.childMtimes[i];
+                    addToPendingCount(1);
+                    new DirectoryTask(this, dir.resolve(listing.childNames[i]), childMtime, state).fork();
+                }
+            } catch (IOException | SecurityException e) {
+                cache.remove(dir);
+                state.errorCount.increment();
+            }
+            tryComplete();
+        }
+    }
+
+    /**
+     * Listagem em cache de um único diretório.
+     */
+    private static final class Listing {
+        final long mtime;
+        final long listedAtMs;
+        final long fileBytes;
+        final long fileCount;
+        final String[] childNames;
+        final long[] childMtimes;
+        volatile long generation;
+
+        Listing(long mtime, long listedAtMs, long fileBytes, long fileCount, String[] childNames, long[] childMtimes) {
+            this.mtime = mtime;
+            this.listedAtMs = listedAtMs;
+            this.fileBytes = fileBytes;
+            this.fileCount = fileCount;
+            this.childNames = childNames;
+            this.childMtimes = childMtimes;
+        }
+    }
+
+    private static final class ScanState {
+        final long generation;
+        final long startedAtMs;
+        final LongAdder totalBytes = new LongAdder();
+        final LongAdder fileCount = new LongAdder();
+        final LongAdder directoryCount = new LongAdder();
+        final LongAdder listedDirectories = new LongAdder();
+        final LongAdder reusedDirectories = new LongAdder();
+        final LongAdder errorCount = new LongAdder();
+
+        ScanState(long generation, long startedAtMs) {
+            this.generation = generation;
+            this.startedAtMs = startedAtMs;
+        }
+    }
+
+    /**
+     * Resultado de uma varredura.
+     */
+    public static class Result {
+        private final long totalBytes;
+        private final long fileCount;
+        private final long directoryCount;
+        private final long listedDirectories;
+        private final long reusedDirectories;
+        private final long errorCount;
+        private final long elapsedMs;
+
+        Result(ScanState state, long elapsedMs) {
+            this.totalBytes = state.totalBytes.sum();
+            this.fileCount = state.fileCount.sum();
+            this.directoryCount = state.directoryCount.sum();
+            this.listedDirectories = state.listedDirectories.sum();
+            this.reusedDirectories = state.reusedDirectories.sum();
+            this.errorCount = state.errorCount.sum();
+            this.elapsedMs = elapsedMs;
+        }
+
+        public long getTotalBytes() { return totalBytes; }
+
+        public long getFileCount() { return fileCount; }
+
+        public long getDirectoryCount() { return directoryCount; }
+
+        /** @return Diretórios lidos do disco nesta varredura. */
+        public long getListedDirectories() { return listedDirectories; }
+
+        /** @return Diretórios cuja listagem em cache foi reaproveitada. */
+        public long getReusedDirectories() { return reusedDirectories; }
+
+        /** @return Diretórios que não puderam ser lidos. */
+        public long getErrorCount() { return errorCount; }
+
+        public long getElapsedMs() { return elapsedMs; }
+    }
+}
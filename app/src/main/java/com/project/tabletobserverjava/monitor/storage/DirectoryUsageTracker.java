@@ -0,0 +1,473 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import android.os.Build;
+import android.os.FileObserver;
+import android.os.SystemClock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Uso de uma árvore de diretórios mantido incrementalmente com FileObserver.
+ *
+ * Depois de uma varredura completa, cada diretório da árvore ganha um FileObserver e os
+ * eventos apenas anotam o nome alterado. Na leitura seguinte, só os nomes anotados são
+ * consultados e as diferenças de tamanho sobem pelos subtotais até a raiz, de modo que o
+ * custo da leitura é proporcional às mudanças, não aos arquivos.
+ *
+ * O FileObserver não entrega o estouro da fila do inotify, por isso a árvore é ressincronizada
+ * a cada resyncIntervalMs, quando a fila de mudanças pendentes transborda ou quando um evento
+ * não corresponde à árvore. Se a árvore passar de maxNodes arquivos e diretórios, os
+ * observadores são desligados e cada leitura volta a usar o DirectorySizeScanner; a cada
+ * resyncIntervalMs o acompanhamento incremental é tentado de novo, caso a árvore tenha encolhido.
+ */
+public class DirectoryUsageTracker {
+
+    private static final int EVENT_MASK = FileObserver.CREATE | FileObserver.DELETE | FileObserver.MODIFY
+            | FileObserver.CLOSE_WRITE | FileObserver.MOVED_FROM | FileObserver.MOVED_TO
+            | FileObserver.DELETE_SELF | FileObserver.MOVE_SELF;
+
+    /** Máximo de nomes alterados aguardando a próxima leitura antes de forçar a ressincronização. */
+    private static final int MAX_PENDING_CHANGES = 4096;
+
+    private final File root;
+    private final int maxNodes;
+    private final long resyncIntervalMs;
+    private final DirectorySizeScanner fallbackScanner;
+    private final LongSupplier clock;
+    private final Watcher watcher;
+
+    // Estado da árvore, protegido por this
+    private DirNode rootNode;
+    private int nodeCount;
+    private boolean polling;
+    private long lastResyncMs;
+    private int resyncCount;
+    private String lastError;
+
+    // Mudanças anotadas pelos observadores, protegidas por pending; a thread dos
+    // FileObserver é compartilhada pelo processo e nunca espera por uma leitura
+    private final Set<Change> pending = new LinkedHashSet<>();
+    private boolean pendingOverflow;
+
+    /**
+     * @param root             Diretório acompanhado.
+     * @param maxNodes         Máximo de arquivos e diretórios mantidos em memória.
+     * @param resyncIntervalMs Intervalo entre ressincronizações completas, em milissegundos.
+     * @param fallbackScanner  Varredura usada quando a árvore excede maxNodes.
+     */
+    public DirectoryUsageTracker(File root, int maxNodes, long resyncIntervalMs, DirectorySizeScanner fallbackScanner) {
+        this(root, maxNodes, resyncIntervalMs, fallbackScanner, SystemClock::elapsedRealtime,
+                DirectoryUsageTracker::observe);
+    }
+
+    /**
+     * @param clock   Relógio monotônico em milissegundos.
+     * @param watcher Observador de cada diretório da árvore.
+     */
+    DirectoryUsageTracker(File root, int maxNodes, long resyncIntervalMs, DirectorySizeScanner fallbackScanner,
+                          LongSupplier clock, Watcher watcher) {
+        this.root = root;
+        this.maxNodes = maxNodes;
+        this.resyncIntervalMs = resyncIntervalMs;
+        this.fallbackScanner = fallbackScanner;
+        this.clock = clock;
+        this.watcher = watcher;
+    }
+
+    /**
+     * @return Bytes dos arquivos sob a raiz. A primeira chamada faz a varredura completa.
+     */
+    public synchronized long getTotalBytes() {
+        boolean due = clock.getAsLong() - lastResyncMs >= resyncIntervalMs;
+        if (polling) {
+            if (!due) {
+                return fallbackScanner.scan(root.toPath()).getTotalBytes();
+            }
+            // A árvore pode ter voltado a caber no limite
+            polling = false;
+        }
+        boolean resync = rootNode == null || due;
+        List<Change> changes;
+        synchronized (pending) {
+            resync |= pendingOverflow;
+            changes = new ArrayList<>(pending);
+            pending.clear();
+            pendingOverflow = false;
+        }
+        if (!resync) {
+            for (Change change : changes) {
+                if (!apply(change)) {
+                    resync = true;
+                    break;
+                }
+            }
+        }
+        if (resync) {
+            resync();
+        }
+        if (polling) {
+            return fallbackScanner.scan(root.toPath()).getTotalBytes();
+        }
+        return rootNode != null ? rootNode.subtotal : 0;
+    }
+
+    /**
+     * Desliga todos os observadores e descarta a árvore.
+     */
+    public synchronized void stop() {
+        detach(rootNode);
+        rootNode = null;
+        nodeCount = 0;
+        synchronized (pending) {
+            pending.clear();
+            pendingOverflow = false;
+        }
+    }
+
+    /**
+     * @return Arquivos e diretórios mantidos em memória.
+     */
+    public synchronized int getTrackedNodeCount() {
+        return nodeCount;
+    }
+
+    public synchronized int getResyncCount() {
+        return resyncCount;
+    }
+
+    /**
+     * @return Mensagem da última varredura que falhou, ou null; a mensagem é consumida.
+     */
+    public synchronized String takeLastError() {
+        String error = lastError;
+        lastError = null;
+        return error;
+    }
+
+    /**
+     * @return true se a árvore excedeu maxNodes e as leituras usam a varredura completa.
+     */
+    public synchronized boolean isPolling() {
+        return polling;
+    }
+
+    /**
+     * Descarta a árvore e refaz a varredura completa com novos observadores.
+     */
+    private void resync() {
+        detach(rootNode);
+        rootNode = null;
+        nodeCount = 0;
+        lastResyncMs = clock.getAsLong();
+        resyncCount++;
+
+        // Eventos anteriores à nova varredura já estão refletidos nela
+        synchronized (pending) {
+            pending.clear();
+            pendingOverflow = false;
+        }
+        if (!Files.isDirectory(root.toPath(), LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        DirNode node = new DirNode(root.getName(), null);
+        nodeCount = 1;
+        try {
+            if (!load(node, root.toPath())) {
+                detach(node);
+                switchToPolling();
+                return;
+            }
+        } catch (IOException e) {
+            lastError = e.getMessage();
+            detach(node);
+            nodeCount = 0;
+            return;
+        }
+        rootNode = node;
+    }
+
+    /**
+     * Lê a subárvore de um diretório em node, anexando um observador a cada diretório.
+     *
+     * @return false se o limite de nós foi atingido.
+     */
+    private boolean load(DirNode node, Path dir) throws IOException {
+        Map<Path, DirNode> nodes = new HashMap<>();
+        nodes.put(dir, node);
+        boolean[] withinLimit = {true};
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attrs) {
+                DirNode current = nodes.get(path);
+                if (current == null) {
+                    DirNode parent = nodes.get(path.getParent());
+                    current = new DirNode(path.getFileName().toString(), parent);
+                    parent.children.put(current.name, current);
+                    nodes.put(path, current);
+                    if (++nodeCount > maxNodes) {
+                        withinLimit[0] = false;
+                        return FileVisitResult.TERMINATE;
+                    }
+                }
+                current.attach(path.toFile());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    DirNode parent = nodes.get(path.getParent());
+                    parent.files.put(path.getFileName().toString(), attrs.size());
+                    parent.addToSubtotal(attrs.size());
+                    if (++nodeCount > maxNodes) {
+                        withinLimit[0] = false;
+                        return FileVisitResult.TERMINATE;
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path path, IOException exc) {
+                // Entrada removida durante a varredura; o evento correspondente já foi anotado
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return withinLimit[0];
+    }
+
+    /**
+     * Aplica uma mudança anotada consultando o estado atual do nome no disco.
+     *
+     * @return false se a mudança não corresponde à árvore e é preciso ressincronizar.
+     */
+    private boolean apply(Change change) {
+        DirNode dir = change.dir;
+        if (dir.removed) {
+            // Diretório já desligado por outra mudança ou por uma ressincronização
+            return true;
+        }
+        if (change.name == null) {
+            // Remoção ou movimentação do próprio diretório: o evento do pai trata os subdiretórios,
+            // mas a raiz não tem pai
+            return dir.parent != null || Files.isDirectory(root.toPath(), LinkOption.NOFOLLOW_LINKS);
+        }
+        Path path = dir.path().resolve(change.name);
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            attrs = null;
+        }
+
+        Long previousSize = dir.files.remove(change.name);
+        if (previousSize != null) {
+            dir.addToSubtotal(-previousSize);
+            nodeCount--;
+        }
+        // Um subdiretório só gera eventos no pai ao ser criado, removido ou movido,
+        // então o nó anterior nunca é reaproveitado
+        DirNode previousDir = dir.children.remove(change.name);
+        if (previousDir != null) {
+            removeSubtree(previousDir);
+        }
+
+        if (attrs == null) {
+            return true;
+        }
+        if (attrs.isRegularFile()) {
+            dir.files.put(change.name, attrs.size());
+            dir.addToSubtotal(attrs.size());
+            return ++nodeCount <= maxNodes || switchToPolling();
+        }
+        if (attrs.isDirectory()) {
+            // Diretório novo ou movido para cá: lê só a subárvore dele
+            DirNode child = new DirNode(change.name, dir);
+            dir.children.put(change.name, child);
+            try {
+                return ++nodeCount <= maxNodes && load(child, path) || switchToPolling();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removeSubtree(DirNode node) {
+        node.parent.addToSubtotal(-node.subtotal);
+        ArrayDeque<DirNode> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            DirNode current = stack.pop();
+            current.detach();
+            nodeCount -= 1 + current.files.size();
+            for (DirNode child : current.children.values()) {
+                stack.push(child);
+            }
+        }
+    }
+
+    private boolean switchToPolling() {
+        polling = true;
+        detach(rootNode);
+        rootNode = null;
+        nodeCount = 0;
+        return true;
+    }
+
+    private void detach(DirNode node) {
+        if (node == null) {
+            return;
+        }
+        ArrayDeque<DirNode> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            DirNode current = stack.pop();
+            current.detach();
+            for (DirNode child : current.children.values()) {
+                stack.push(child);
+            }
+        }
+    }
+
+    private void onChange(DirNode dir, String name) {
+        synchronized (pending) {
+            if (pendingOverflow) {
+                return;
+            }
+            if (pending.size() >= MAX_PENDING_CHANGES) {
+                pending.clear();
+                pendingOverflow = true;
+                return;
+            }
+            pending.add(new Change(dir, name));
+        }
+    }
+
+    /**
+     * Observa um diretório com FileObserver.
+     */
+    private static Runnable observe(File dir, Consumer<String> listener) {
+        FileObserver observer = newFileObserver(dir, listener);
+        observer.startWatching();
+        return observer::stopWatching;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static FileObserver newFileObserver(File dir, Consumer<String> listener) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            return new FileObserver(dir, EVENT_MASK) {
+                @Override
+                public void onEvent(int event, String path) {
+                    dispatch(event, path, listener);
+                }
+            };
+        }
+        // O construtor com File só existe a partir do Android 10
+        return new FileObserver(dir.getPath(), EVENT_MASK) {
+            @Override
+            public void onEvent(int event, String path) {
+                dispatch(event, path, listener);
+            }
+        };
+    }
+
+    private static void dispatch(int event, String path, Consumer<String> listener) {
+        boolean self = (event & (FileObserver.DELETE_SELF | FileObserver.MOVE_SELF)) != 0;
+        listener.accept(self ? null : path);
+    }
+
+    /**
+     * Observador de um diretório: o FileObserver no aparelho, substituído nos testes.
+     */
+    interface Watcher {
+        /**
+         * @param listener Recebe o nome alterado, ou null quando o próprio diretório foi removido ou movido.
+         * @return Ação que desliga o observador.
+         */
+        Runnable watch(File dir, Consumer<String> listener);
+    }
+
+    /**
+     * Nome alterado dentro de um diretório acompanhado; nome nulo indica o próprio diretório.
+     */
+    private static final class Change {
+        final DirNode dir;
+        final String name;
+
+        Change(DirNode dir, String name) {
+            this.dir = dir;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Change)) {
+                return false;
+            }
+            Change other = (Change) o;
+            return dir == other.dir && (name == null ? other.name == null : name.equals(other.name));
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(dir) * 31 + (name != null ? name.hashCode() : 0);
+        }
+    }
+
+    /**
+     * Diretório da árvore com o tamanho de cada arquivo direto e o subtotal da subárvore.
+     */
+    private final class DirNode {
+        final String name;
+        final DirNode parent;
+        final Map<String, Long> files = new HashMap<>();
+        final Map<String, DirNode> children = new HashMap<>();
+        long subtotal;
+        boolean removed;
+        private Runnable stopWatching;
+
+        DirNode(String name, DirNode parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        Path path() {
+            return parent == null ? root.toPath() : parent.path().resolve(name);
+        }
+
+        void addToSubtotal(long delta) {
+            for (DirNode node = this; node != null; node = node.parent) {
+                node.subtotal += delta;
+            }
+        }
+
+        void attach(File dir) {
+            stopWatching = watcher.watch(dir, name -> onChange(this, name));
+        }
+
+        void detach() {
+            removed = true;
+            if (stopWatching != null) {
+                stopWatching.run();
+                stopWatching = null;
+            }
+        }
+    }
+}
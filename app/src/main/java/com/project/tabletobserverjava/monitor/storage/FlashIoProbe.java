@@ -0,0 +1,280 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sonda de desempenho da memória flash: vazão de escrita e leitura sequenciais e latência
+ * de escritas pequenas aleatórias seguidas de fsync.
+ *
+ * Usa um arquivo temporário de tamanho fixo no armazenamento privado do app, escrito e lido
+ * com FileChannel e ByteBuffers diretos, e removido ao fim de cada execução. Os buffers só
+ * existem durante a execução, para não manter memória nativa ocupada entre sondas. Cada execução
+ * consome um orçamento de bytes escritos por janela de tempo, para limitar o desgaste da flash,
+ * e é pulada quando o volume está acima do limite de uso.
+ */
+public class FlashIoProbe {
+
+    /**
+     * Remove as páginas do arquivo do cache do kernel antes da leitura, para que a vazão de
+     * leitura venha da flash e não da memória. Sem ele, a leitura é um limite superior.
+     */
+    public interface PageCacheEvictor {
+        void evict(FileDescriptor fd) throws Exception;
+    }
+
+    /**
+     * Parâmetros de uma sonda.
+     */
+    public static class Config {
+        /** Tamanho do arquivo temporário, escrito e lido sequencialmente. */
+        public long sequentialBytes = 16L * 1024 * 1024;
+        /** Tamanho de cada bloco da escrita e da leitura sequenciais. */
+        public int sequentialBlockBytes = 256 * 1024;
+        /** Tamanho de cada escrita aleatória seguida de fsync. */
+        public int randomBlockBytes = 4 * 1024;
+        /** Quantidade de escritas aleatórias com fsync. */
+        public int randomWrites = 64;
+        /** Bytes que podem ser escritos dentro de budgetWindowMs. */
+        public long budgetBytes = 64L * 1024 * 1024;
+        public long budgetWindowMs = TimeUnit.DAYS.toMillis(1);
+        /** Tempo máximo de uma execução; ao esgotar, a sonda para e devolve o resultado parcial. */
+        public long maxDurationMs = 5000;
+        /** Uso do volume, em porcentagem, a partir do qual a sonda não roda. */
+        public int maxUsagePercentage = 90;
+
+        long bytesPerRun() {
+            return sequentialBytes + (long) randomWrites * randomBlockBytes;
+        }
+
+        /**
+         * Ajusta budgetBytes para uma execução completa a cada runIntervalMs dentro da janela.
+         * Chamar depois de definir os tamanhos e a janela.
+         *
+         * @return Esta configuração.
+         */
+        public Config budgetForInterval(long runIntervalMs) {
+            budgetBytes = budgetWindowMs / runIntervalMs * bytesPerRun();
+            return this;
+        }
+    }
+
+    private static final String SCRATCH_FILE = "flash_io_probe.tmp";
+
+    private final File directory;
+    private final Config config;
+    private final PageCacheEvictor evictor;
+    private ByteBuffer sequentialBuffer;
+    private ByteBuffer randomBuffer;
+    private final Random random = new Random();
+
+    private long windowStartMs = -1;
+    private long windowBytes;
+
+    /**
+     * @param directory Diretório privado onde o arquivo temporário é criado.
+     * @param config    Parâmetros da sonda.
+     * @param evictor   Remoção das páginas do cache antes da leitura, ou null.
+     */
+    public FlashIoProbe(File directory, Config config, PageCacheEvictor evictor) {
+        this.directory = directory;
+        this.config = config;
+        this.evictor = evictor;
+    }
+
+    /**
+     * Executa a sonda, se o orçamento e o uso do volume permitirem.
+     *
+     * @param nowMs Momento atual em um relógio monotônico, em milissegundos.
+     */
+    public synchronized Result run(long nowMs) throws IOException {
+        long total = directory.getTotalSpace();
+        if (total > 0 && (total - directory.getUsableSpace()) * 100 / total >= config.maxUsagePercentage) {
+            return Result.skipped("uso do armazenamento acima de " + config.maxUsagePercentage + "%");
+        }
+        if (windowStartMs < 0 || nowMs - windowStartMs >= config.budgetWindowMs) {
+            windowStartMs = nowMs;
+            windowBytes = 0;
+        }
+        if (windowBytes + config.bytesPerRun() > config.budgetBytes) {
+            return Result.skipped("orçamento de escrita esgotado");
+        }
+
+        File scratch = new File(directory, SCRATCH_FILE);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.maxDurationMs);
+        Result result = new Result();
+        sequentialBuffer = filledDirectBuffer(config.sequentialBlockBytes);
+        randomBuffer = filledDirectBuffer(config.randomBlockBytes);
+        try (RandomAccessFile file = new RandomAccessFile(scratch, "rw");
+             FileChannel channel = file.getChannel()) {
+            long written = writeSequential(channel, deadline, result);
+            windowBytes += written;
+            if (written > 0 && System.nanoTime() < deadline) {
+                if (evictor != null) {
+                    try {
+                        evictor.evict(file.getFD());
+                        result.readFromFlash = true;
+                    } catch (Exception e) {
+                        // Sem remoção do cache a leitura continua válida como limite superior
+                    }
+                }
+                readSequential(channel, written, deadline, result);
+            }
+            if (written >= config.randomBlockBytes && System.nanoTime() < deadline) {
+                windowBytes += writeRandom(channel, written, deadline, result);
+            }
+        } finally {
+            sequentialBuffer = null;
+            randomBuffer = null;
+            //noinspection ResultOfMethodCallIgnored
+            scratch.delete();
+        }
+        result.completed = System.nanoTime() < deadline;
+        return result;
+    }
+
+    /**
+     * @return Bytes que ainda podem ser escritos na janela atual do orçamento.
+     */
+    public synchronized long getRemainingBudgetBytes() {
+        return Math.max(0, config.budgetBytes - windowBytes);
+    }
+
+    private long writeSequential(FileChannel channel, long deadline, Result result) throws IOException {
+        long position = 0;
+        long start = System.nanoTime();
+        while (position < config.sequentialBytes && System.nanoTime() < deadline) {
+            sequentialBuffer.clear();
+            sequentialBuffer.limit((int) Math.min(sequentialBuffer.capacity(), config.sequentialBytes - position));
+            while (sequentialBuffer.hasRemaining()) {
+                position += channel.write(sequentialBuffer, position);
+            }
+        }
+        // A escrita só termina quando os dados chegam à flash
+        channel.force(false);
+        result.writeMbPerSec = mbPerSec(position, System.nanoTime() - start);
+        result.bytesWritten += position;
+        return position;
+    }
+
+    private void readSequential(FileChannel channel, long length, long deadline, Result result) throws IOException {
+        long position = 0;
+        long start = System.nanoTime();
+        while (position < length && System.nanoTime() < deadline) {
+            sequentialBuffer.clear();
+            int read = channel.read(sequentialBuffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+        result.readMbPerSec = mbPerSec(position, System.nanoTime() - start);
+        result.bytesRead = position;
+    }
+
+    private long writeRandom(FileChannel channel, long length, long deadline, Result result) throws IOException {
+        int block = config.randomBlockBytes;
+        long blocks = length / block;
+        long[] latencies = new long[config.randomWrites];
+        int count = 0;
+        while (count < latencies.length && System.nanoTime() < deadline) {
+            long position = (long) (random.nextDouble() * blocks) * block;
+            randomBuffer.clear();
+            long start = System.nanoTime();
+            while (randomBuffer.hasRemaining()) {
+                channel.write(randomBuffer, position + randomBuffer.position());
+            }
+            channel.force(false);
+            latencies[count++] = System.nanoTime() - start;
+        }
+        if (count > 0) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            result.fsyncP50Ms = percentile(sorted, 50) / 1_000_000.0;
+            result.fsyncP99Ms = percentile(sorted, 99) / 1_000_000.0;
+            result.fsyncSamples = count;
+        }
+        long written = (long) count * block;
+        result.bytesWritten += written;
+        return written;
+    }
+
+    /**
+     * Percentil pelo método do posto mais próximo sobre valores já ordenados.
+     */
+    static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static double mbPerSec(long bytes, long nanos) {
+        return nanos <= 0 ? 0 : (bytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Buffer direto com conteúdo aleatório, para que a compressão do sistema de arquivos
+     * não reduza a quantidade de bytes que chega à flash.
+     */
+    private static ByteBuffer filledDirectBuffer(int size) {
+        byte[] content = new byte[size];
+        new Random().nextBytes(content);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        buffer.put(content);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Resultado de uma execução da sonda.
+     */
+    public static class Result {
+        private String skipReason;
+        private boolean completed;
+        private boolean readFromFlash;
+        private double writeMbPerSec;
+        private double readMbPerSec;
+        private double fsyncP50Ms;
+        private double fsyncP99Ms;
+        private int fsyncSamples;
+        private long bytesWritten;
+        private long bytesRead;
+
+        static Result skipped(String reason) {
+            Result result = new Result();
+            result.skipReason = reason;
+            return result;
+        }
+
+        public boolean isSkipped() { return skipReason != null; }
+
+        /** @return Motivo de a sonda não ter rodado, ou null. */
+        public String getSkipReason() { return skipReason; }
+
+        /** @return false se o prazo acabou antes de todas as etapas. */
+        public boolean isCompleted() { return completed; }
+
+        /** @return true se o cache foi removido antes da leitura. */
+        public boolean isReadFromFlash() { return readFromFlash; }
+
+        public double getWriteMbPerSec() { return writeMbPerSec; }
+
+        public double getReadMbPerSec() { return readMbPerSec; }
+
+        public double getFsyncP50Ms() { return fsyncP50Ms; }
+
+        public double getFsyncP99Ms() { return fsyncP99Ms; }
+
+        public int getFsyncSamples() { return fsyncSamples; }
+
+        public long getBytesWritten() { return bytesWritten; }
+
+        public long getBytesRead() { return bytesRead; }
+    }
+}
@@ -0,0 +1,386 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import android.app.usage.StorageStats;
+import android.app.usage.StorageStatsManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.ChangedPackages;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.net.Uri;
+import android.os.Environment;
+import android.os.SystemClock;
+import android.os.UserHandle;
+import android.os.storage.StorageManager;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cache incremental de StorageStats por pacote.
+ *
+ * Após uma varredura inicial completa, só consulta novamente os pacotes alterados,
+ * descobertos por PackageManager.getChangedPackages(sequenceNumber) e pelos broadcasts
+ * de instalação, remoção e atualização. O cache de cada app muda sem alteração do pacote,
+ * por isso cada pacote também é reconsultado uma vez a cada CACHE_REFRESH_PERIOD_MS, com as
+ * reconsultas escalonadas ao longo do período. A cota de cada refresh é proporcional ao tempo
+ * desde o anterior, então o ciclo completo cabe no período qualquer que seja a cadência.
+ * Os totais são mantidos incrementalmente, sem somar a lista inteira a cada ciclo.
+ */
+public class PackageStorageCache {
+
+    private static final String TAG = "PackageStorageCache";
+
+    /** Período para reconsultar cada pacote e atualizar seus bytes de cache. */
+    private static final long CACHE_REFRESH_PERIOD_MS = 30 * 60 * 1000;
+
+
+    /** Prazo da varredura inicial completa. */
+    private static final long FULL_SCAN_DEADLINE_MS = 15_000;
+
+    /** Threads da varredura inicial; poucas para não competir com a interface. */
+    private static final int SCAN_THREADS = 4;
+
+    private final Context context;
+    private final StorageStatsManager storageStatsManager;
+    private final PackageManager packageManager;
+    private final UserHandle user;
+
+    private final ParallelPackageScanner<PackageStats> scanner = new ParallelPackageScanner<>(SCAN_THREADS);
+    private final Map<String, PackageStats> packages = new HashMap<>();
+    private final Set<String> dirtyPackages = new HashSet<>();
+    // Pacotes que a varredura inicial não obteve e que ainda não foram consultados
+    private final Set<String> missedByScan = new HashSet<>();
+    private int scannedPackageCount;
+    private UUID storageUuid;
+    private int sequenceNumber;
+    private boolean initialized;
+    private long lastCacheRefreshMs;
+
+    // Totais mantidos incrementalmente
+    private long totalAppBytes;
+    private long totalDataBytes;
+    private long totalCacheBytes;
+
+    private int lastBinderCalls;
+    private Listener listener;
+
+    private final BroadcastReceiver packageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            Uri data = intent.getData();
+            if (data != null) {
+                markDirty(data.getSchemeSpecificPart());
+            }
+        }
+    };
+
+    public PackageStorageCache(Context context) {
+        this.context = context;
+        this.storageStatsManager = (StorageStatsManager) context.getSystemService(Context.STORAGE_STATS_SERVICE);
+        this.packageManager = context.getPackageManager();
+        this.user = UserHandle.getUserHandleForUid(android.os.Process.myUid());
+    }
+
+    /**
+     * Passa a receber os broadcasts de pacotes instalados, removidos e atualizados.
+     */
+    public void registerPackageReceiver() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addDataScheme("package");
+        context.registerReceiver(packageReceiver, filter);
+    }
+
+    public void unregisterPackageReceiver() {
+        context.unregisterReceiver(packageReceiver);
+    }
+
+    /**
+     * Define quem recebe cada mudança de pacote aplicada ao cache.
+     */
+    public synchronized void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Marca um pacote para ser consultado novamente no próximo ciclo.
+     * Pode ser chamado de qualquer thread.
+     */
+    public void markDirty(String packageName) {
+        synchronized (dirtyPackages) {
+            dirtyPackages.add(packageName);
+        }
+    }
+
+    /**
+     * Atualiza o cache. No primeiro ciclo faz a varredura completa; nos seguintes,
+     * consulta apenas os pacotes alterados e uma pequena fatia de reconsultas de cache.
+     */
+    public synchronized void refresh() throws Exception {
+        lastBinderCalls = 0;
+        if (!initialized) {
+            fullScan();
+            initialized = true;
+            return;
+        }
+        refreshChanges();
+    }
+
+    /**
+     * Consulta os pacotes alterados e as reconsultas de cache vencidas, sem a varredura inicial.
+     * Não faz nada antes da primeira chamada a refresh().
+     */
+    public synchronized void refreshIfInitialized() {
+        lastBinderCalls = 0;
+        if (initialized) {
+            refreshChanges();
+        }
+    }
+
+    private void refreshChanges() {
+        Set<String> toQuery = drainDirty();
+        ChangedPackages changed = packageManager.getChangedPackages(sequenceNumber);
+        lastBinderCalls++;
+        if (changed != null) {
+            sequenceNumber = changed.getSequenceNumber();
+            toQuery.addAll(changed.getPackageNames());
+        }
+        for (String packageName : toQuery) {
+            requery(packageName);
+        }
+        refreshDueCaches(toQuery);
+    }
+
+    /**
+     * Descarta as estatísticas de todos os pacotes. O próximo refresh() refaz a varredura completa.
+     *
+     * @return Quantidade de pacotes descartados.
+     */
+    public synchronized int clear() {
+        int count = packages.size();
+        packages.clear();
+        totalAppBytes = 0;
+        totalDataBytes = 0;
+        totalCacheBytes = 0;
+        missedByScan.clear();
+        scannedPackageCount = 0;
+        initialized = false;
+        return count;
+    }
+
+    private void fullScan() throws Exception {
+        storageUuid = ((StorageManager) context.getSystemService(Context.STORAGE_SERVICE))
+                .getUuidForPath(Environment.getDataDirectory());
+
+        // Registra a sequência antes da varredura para não perder mudanças feitas durante ela
+        ChangedPackages changed = packageManager.getChangedPackages(0);
+        lastBinderCalls++;
+        sequenceNumber = changed != null ? changed.getSequenceNumber() : 0;
+        drainDirty();
+
+        List<PackageInfo> installed = packageManager.getInstalledPackages(0);
+        lastBinderCalls++;
+        List<String> packageNames = new ArrayList<>(installed.size());
+        for (PackageInfo packageInfo : installed) {
+            packageNames.add(packageInfo.packageName);
+        }
+
+        // Varredura inicial em paralelo e com prazo; o que faltar é consultado nos próximos ciclos
+        ParallelPackageScanner.ScanResult<PackageStats> scan =
+                scanner.scan(packageNames, this::queryPackage, FULL_SCAN_DEADLINE_MS);
+        lastBinderCalls += scan.getAttemptedPackages();
+        missedByScan.clear();
+        scannedPackageCount = packageNames.size();
+
+        long now = SystemClock.elapsedRealtime();
+        lastCacheRefreshMs = now;
+        int count = packageNames.size();
+        for (int i = 0; i < count; i++) {
+            String packageName = packageNames.get(i);
+            PackageStats stats = scan.getResults().get(packageName);
+            if (stats != null) {
+                // Espalha as reconsultas de cache ao longo do período, em vez de todas juntas
+                stats.nextCacheRefreshMs = now + CACHE_REFRESH_PERIOD_MS * (i + 1) / count;
+                apply(packageName, stats);
+            } else if (!(scan.getFailures().get(packageName) instanceof PackageManager.NameNotFoundException)) {
+                missedByScan.add(packageName);
+                markDirty(packageName);
+            }
+        }
+        Log.d(TAG, String.format("Varredura inicial: %d de %d pacotes em %d ms",
+                scan.getResults().size(), count, scan.getElapsedMs()));
+    }
+
+    /**
+     * Consulta as estatísticas de um pacote. Seguro para chamadas em paralelo.
+     */
+    private PackageStats queryPackage(String packageName) throws Exception {
+        StorageStats stats = storageStatsManager.queryStatsForPackage(storageUuid, packageName, user);
+        PackageStats current = new PackageStats(packageName,
+                stats.getAppBytes(), stats.getDataBytes(), stats.getCacheBytes(), SystemClock.elapsedRealtime());
+        current.nextCacheRefreshMs = SystemClock.elapsedRealtime() + CACHE_REFRESH_PERIOD_MS;
+        return current;
+    }
+
+    /**
+     * Substitui as estatísticas de um pacote, ajustando os totais pela diferença.
+     * Um valor nulo remove o pacote.
+     */
+    private void apply(String packageName, PackageStats current) {
+        PackageStats previous = packages.get(packageName);
+        missedByScan.remove(packageName);
+        subtract(previous);
+        if (current != null) {
+            add(current);
+            packages.put(packageName, current);
+        } else {
+            packages.remove(packageName);
+        }
+        if (listener != null && (previous != null || current != null)) {
+            listener.onPackageChanged(packageName, previous, current);
+        }
+    }
+
+    /**
+     * Consulta um pacote e ajusta os totais pela diferença em relação ao valor anterior.
+     */
+    private void requery(String packageName) {
+        lastBinderCalls++;
+        try {
+            apply(packageName, queryPackage(packageName));
+        } catch (PackageManager.NameNotFoundException e) {
+            // Pacote removido
+            apply(packageName, null);
+        } catch (Exception e) {
+            Log.w(TAG, "Falha ao consultar " + packageName + ": " + e.getMessage());
+        }
+    }
+
+    private void refreshDueCaches(Set<String> alreadyQueried) {
+        long now = SystemClock.elapsedRealtime();
+        int quota = cacheRefreshQuota(packages.size(), now - lastCacheRefreshMs);
+        lastCacheRefreshMs = now;
+        List<String> due = new ArrayList<>();
+        for (PackageStats stats : packages.values()) {
+            if (stats.nextCacheRefreshMs <= now && !alreadyQueried.contains(stats.packageName)) {
+                due.add(stats.packageName);
+                if (due.size() >= quota) {
+                    break;
+                }
+            }
+        }
+        for (String packageName : due) {
+            requery(packageName);
+        }
+    }
+
+    /**
+     * Limita as reconsultas de cache de um refresh à fatia do período que passou desde o
+     * anterior, para espalhar as chamadas de binder sem atrasar o ciclo completo.
+     *
+     * @param elapsedMs Tempo desde o refresh anterior.
+     * @return Máximo de reconsultas, pelo menos 1.
+     */
+    static int cacheRefreshQuota(int packageCount, long elapsedMs) {
+        long elapsed = Math.min(Math.max(elapsedMs, 0), CACHE_REFRESH_PERIOD_MS);
+        long quota = (packageCount * elapsed + CACHE_REFRESH_PERIOD_MS - 1) / CACHE_REFRESH_PERIOD_MS;
+        return (int) Math.max(1, quota);
+    }
+
+    private Set<String> drainDirty() {
+        synchronized (dirtyPackages) {
+            Set<String> drained = new HashSet<>(dirtyPackages);
+            dirtyPackages.clear();
+            return drained;
+        }
+    }
+
+    private void add(PackageStats stats) {
+        totalAppBytes += stats.appBytes;
+        totalDataBytes += stats.dataBytes;
+        totalCacheBytes += stats.cacheBytes;
+    }
+
+    private void subtract(PackageStats stats) {
+        if (stats == null) {
+            return;
+        }
+        totalAppBytes -= stats.appBytes;
+        totalDataBytes -= stats.dataBytes;
+        totalCacheBytes -= stats.cacheBytes;
+    }
+
+    public synchronized long getTotalAppBytes() { return totalAppBytes; }
+
+    public synchronized long getTotalDataBytes() { return totalDataBytes; }
+
+    public synchronized long getTotalCacheBytes() { return totalCacheBytes; }
+
+    public synchronized int getPackageCount() { return packages.size(); }
+
+    /**
+     * @return Fração dos pacotes da varredura inicial com estatísticas, entre 0 e 1. Os que
+     *         faltaram por prazo ou falha são consultados nos ciclos seguintes.
+     */
+    public synchronized double getLastScanCompleteness() {
+        if (scannedPackageCount == 0) {
+            return 1.0;
+        }
+        return 1.0 - (double) missedByScan.size() / scannedPackageCount;
+    }
+
+    /**
+     * @return Chamadas de binder feitas no último refresh().
+     */
+    public synchronized int getLastBinderCalls() { return lastBinderCalls; }
+
+    /**
+     * Recebe as mudanças aplicadas ao cache, na thread que executa o refresh().
+     */
+    public interface Listener {
+        /**
+         * @param previous Estatísticas anteriores, ou null se o pacote é novo no cache.
+         * @param current  Estatísticas atuais, ou null se o pacote foi removido.
+         */
+        void onPackageChanged(String packageName, PackageStats previous, PackageStats current);
+    }
+
+    /**
+     * Estatísticas de armazenamento de um pacote.
+     */
+    public static class PackageStats {
+        public final String packageName;
+        public final long appBytes;
+        public final long dataBytes;
+        public final long cacheBytes;
+        /** Momento da consulta, em SystemClock.elapsedRealtime(). */
+        public final long sampledAtMs;
+        long nextCacheRefreshMs;
+
+        public PackageStats(String packageName, long appBytes, long dataBytes, long cacheBytes, long sampledAtMs) {
+            this.packageName = packageName;
+            this.appBytes = appBytes;
+            this.dataBytes = dataBytes;
+            this.cacheBytes = cacheBytes;
+            this.sampledAtMs = sampledAtMs;
+        }
+
+        /**
+         * @return Bytes do app e dos dados. StorageStats.getDataBytes() já inclui o cache.
+         */
+        public long getTotalBytes() {
+            return appBytes + dataBytes;
+        }
+    }
+}
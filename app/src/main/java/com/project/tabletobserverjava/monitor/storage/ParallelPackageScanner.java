@@ -0,0 +1,134 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Varredura paralela e com prazo de uma lista de pacotes.
+ *
+ * Os pacotes são distribuídos entre um pool pequeno e limitado de threads de baixa prioridade.
+ * Cada falha fica isolada no seu pacote; ao fim do prazo as threads deixam de pegar novos
+ * pacotes e o resultado parcial é devolvido com a taxa de completude.
+ *
+ * @param <T> Tipo do resultado de cada pacote.
+ */
+public class ParallelPackageScanner<T> {
+
+    /**
+     * Consulta de um único pacote, chamada em paralelo pelas threads do scanner.
+     */
+    public interface PackageQuery<T> {
+        T query(String packageName) throws Exception;
+    }
+
+    private final int threadCount;
+
+    /**
+     * @param threadCount Número máximo de threads usadas em uma varredura.
+     */
+    public ParallelPackageScanner(int threadCount) {
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /**
+     * Consulta todos os pacotes até o prazo terminar.
+     *
+     * @param packageNames Pacotes a consultar.
+     * @param query        Consulta aplicada a cada pacote.
+     * @param deadlineMs   Prazo total da varredura, em milissegundos.
+     * @return Resultado parcial ou completo da varredura.
+     */
+    public ScanResult<T> scan(List<String> packageNames, PackageQuery<T> query, long deadlineMs)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        int total = packageNames.size();
+        int workers = Math.min(threadCount, Math.max(1, total));
+
+        Map<String, T> results = new ConcurrentHashMap<>();
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        AtomicInteger nextIndex = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(workers);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "TabletObserver-PackageScan-" + threadIndex.incrementAndGet());
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        try {
+            for (int w = 0; w < workers; w++) {
+                pool.execute(() -> {
+                    try {
+                        int index;
+                        while (System.nanoTime() < deadline && (index = nextIndex.getAndIncrement()) < total) {
+                            String packageName = packageNames.get(index);
+                            try {
+                                T result = query.query(packageName);
+                                if (result != null) {
+                                    results.put(packageName, result);
+                                }
+                            } catch (Exception e) {
+                                failures.put(packageName, e);
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            long remaining = deadline - System.nanoTime();
+            done.await(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } finally {
+            // Consultas em andamento terminam sozinhas; nenhuma nova é iniciada
+            pool.shutdown();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new ScanResult<>(new HashMap<>(results), new HashMap<>(failures), total, elapsedMs);
+    }
+
+    /**
+     * Resultado de uma varredura, possivelmente parcial.
+     */
+    public static class ScanResult<T> {
+        private final Map<String, T> results;
+        private final Map<String, Exception> failures;
+        private final int totalPackages;
+        private final long elapsedMs;
+
+        ScanResult(Map<String, T> results, Map<String, Exception> failures, int totalPackages, long elapsedMs) {
+            this.results = Collections.unmodifiableMap(results);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.totalPackages = totalPackages;
+            this.elapsedMs = elapsedMs;
+        }
+
+        /** @return Resultados dos pacotes consultados com sucesso. */
+        public Map<String, T> getResults() { return results; }
+
+        /** @return Falha de cada pacote que não pôde ser consultado. */
+        public Map<String, Exception> getFailures() { return failures; }
+
+        public int getTotalPackages() { return totalPackages; }
+
+        /** @return Pacotes efetivamente consultados, com sucesso ou falha. */
+        public int getAttemptedPackages() { return results.size() + failures.size(); }
+
+        /** @return Fração dos pacotes com resultado, entre 0 e 1. */
+        public double getCompleteness() {
+            return totalPackages == 0 ? 1.0 : (double) results.size() / totalPackages;
+        }
+
+        public boolean isComplete() { return results.size() + failures.size() == totalPackages; }
+
+        public long getElapsedMs() { return elapsedMs; }
+    }
+}
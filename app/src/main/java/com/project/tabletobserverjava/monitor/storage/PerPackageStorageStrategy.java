@@ -0,0 +1,45 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import android.os.Environment;
+import android.os.StatFs;
+
+import com.project.tabletobserverjava.monitor.MetricCollector.CostClass;
+
+/**
+ * Estratégia detalhada: soma apps, dados e cache por pacote a partir do PackageStorageCache.
+ */
+public class PerPackageStorageStrategy implements StorageStrategy {
+
+    private final PackageStorageCache packageCache;
+
+    public PerPackageStorageStrategy(PackageStorageCache packageCache) {
+        this.packageCache = packageCache;
+    }
+
+    public PackageStorageCache getPackageCache() {
+        return packageCache;
+    }
+
+    @Override
+    public String getName() {
+        return "per_package";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.EXPENSIVE;
+    }
+
+    @Override
+    public Detail getDetail() {
+        return Detail.PER_PACKAGE;
+    }
+
+    @Override
+    public StorageSample sample() throws Exception {
+        packageCache.refresh();
+        StatFs stat = new StatFs(Environment.getDataDirectory().getPath());
+        return new StorageSample(getName(), stat.getTotalBytes(), stat.getAvailableBytes(),
+                packageCache.getTotalAppBytes(), packageCache.getTotalDataBytes(), packageCache.getTotalCacheBytes());
+    }
+}
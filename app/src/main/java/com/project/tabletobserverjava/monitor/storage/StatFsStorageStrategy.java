@@ -0,0 +1,35 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import android.os.Environment;
+import android.os.StatFs;
+
+import com.project.tabletobserverjava.monitor.MetricCollector.CostClass;
+
+/**
+ * Estratégia de reserva: total e livre do diretório de dados via StatFs.
+ * Não exige permissão de acesso ao uso, mas não separa apps, dados e cache.
+ */
+public class StatFsStorageStrategy implements StorageStrategy {
+
+    @Override
+    public String getName() {
+        return "statfs";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public Detail getDetail() {
+        return Detail.AGGREGATE;
+    }
+
+    @Override
+    public StorageSample sample() {
+        StatFs stat = new StatFs(Environment.getDataDirectory().getPath());
+        return new StorageSample(getName(), stat.getTotalBytes(), stat.getAvailableBytes(),
+                StorageSample.UNKNOWN, StorageSample.UNKNOWN, StorageSample.UNKNOWN);
+    }
+}
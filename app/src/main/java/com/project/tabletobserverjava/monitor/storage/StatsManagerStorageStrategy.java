@@ -0,0 +1,48 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import android.app.usage.StorageStats;
+import android.app.usage.StorageStatsManager;
+import android.content.Context;
+import android.os.UserHandle;
+import android.os.storage.StorageManager;
+
+import com.project.tabletobserverjava.monitor.MetricCollector.CostClass;
+
+/**
+ * Estratégia agregada: total e livre do volume via StorageStatsManager e
+ * bytes de apps, dados e cache do usuário via queryStatsForUser, sem percorrer pacotes.
+ */
+public class StatsManagerStorageStrategy implements StorageStrategy {
+
+    private final StorageStatsManager storageStatsManager;
+    private final UserHandle user;
+
+    public StatsManagerStorageStrategy(Context context) {
+        this.storageStatsManager = (StorageStatsManager) context.getSystemService(Context.STORAGE_STATS_SERVICE);
+        this.user = UserHandle.getUserHandleForUid(android.os.Process.myUid());
+    }
+
+    @Override
+    public String getName() {
+        return "stats_manager";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public Detail getDetail() {
+        return Detail.AGGREGATE;
+    }
+
+    @Override
+    public StorageSample sample() throws Exception {
+        long total = storageStatsManager.getTotalBytes(StorageManager.UUID_DEFAULT);
+        long free = storageStatsManager.getFreeBytes(StorageManager.UUID_DEFAULT);
+        StorageStats userStats = storageStatsManager.queryStatsForUser(StorageManager.UUID_DEFAULT, user);
+        return new StorageSample(getName(), total, free,
+                userStats.getAppBytes(), userStats.getDataBytes(), userStats.getCacheBytes());
+    }
+}
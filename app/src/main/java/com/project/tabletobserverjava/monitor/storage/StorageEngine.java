@@ -0,0 +1,59 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor único de armazenamento. Mantém as estratégias ordenadas por custo e usa a
+ * mais barata que funcionar para o nível de detalhe pedido, registrando qual
+ * estratégia produziu cada amostra e quanto tempo levou.
+ */
+public class StorageEngine {
+
+    private static final String TAG = "StorageEngine";
+
+    private final List<StorageStrategy> strategies = new ArrayList<>();
+
+    /**
+     * Adiciona uma estratégia, mantendo a lista ordenada por custo.
+     * Estratégias de mesmo custo são tentadas na ordem em que foram adicionadas.
+     */
+    public synchronized StorageEngine addStrategy(StorageStrategy strategy) {
+        int index = 0;
+        while (index < strategies.size()
+                && strategies.get(index).getCostClass().compareTo(strategy.getCostClass()) <= 0) {
+            index++;
+        }
+        strategies.add(index, strategy);
+        return this;
+    }
+
+    /**
+     * Obtém uma amostra com o nível de detalhe pedido.
+     *
+     * @param detail AGGREGATE para os números do dispositivo; PER_PACKAGE apenas quando a soma por pacote for necessária.
+     * @return Amostra da primeira estratégia que teve sucesso.
+     * @throws Exception A falha da última estratégia tentada, se nenhuma funcionar.
+     */
+    public synchronized StorageSample sample(StorageStrategy.Detail detail) throws Exception {
+        Exception lastFailure = null;
+        for (StorageStrategy strategy : strategies) {
+            if (strategy.getDetail() != detail) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                StorageSample sample = strategy.sample();
+                sample.setDurationMs((System.nanoTime() - start) / 1_000_000L);
+                return sample;
+            } catch (Exception e) {
+                Log.w(TAG, "Estratégia " + strategy.getName() + " falhou: " + e.getMessage());
+                lastFailure = e;
+            }
+        }
+        throw lastFailure != null ? lastFailure
+                : new IllegalStateException("Nenhuma estratégia de armazenamento para " + detail);
+    }
+}
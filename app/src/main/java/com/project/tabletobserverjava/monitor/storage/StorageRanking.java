@@ -0,0 +1,87 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maiores consumidores de armazenamento por pacote: top-N por bytes de app, de dados e de cache,
+ * e top-N por crescimento desde a consulta anterior de cada pacote.
+ * Recebe as mudanças do PackageStorageCache, sem reordenar a lista inteira de pacotes.
+ */
+public class StorageRanking implements PackageStorageCache.Listener {
+
+    /**
+     * Categoria do ranking.
+     */
+    public enum Category {
+        APP, DATA, CACHE,
+        /** Crescimento total (app + dados, que já incluem o cache) em bytes por hora. */
+        GROWTH
+    }
+
+    private static final long HOUR_MS = 60 * 60 * 1000;
+
+    private final TopNRanking appRanking;
+    private final TopNRanking dataRanking;
+    private final TopNRanking cacheRanking;
+    private final TopNRanking growthRanking;
+
+    /**
+     * @param size Quantidade de pacotes em cada ranking.
+     */
+    public StorageRanking(int size) {
+        appRanking = new TopNRanking(size);
+        dataRanking = new TopNRanking(size);
+        cacheRanking = new TopNRanking(size);
+        growthRanking = new TopNRanking(size);
+    }
+
+    @Override
+    public synchronized void onPackageChanged(String packageName,
+                                              PackageStorageCache.PackageStats previous,
+                                              PackageStorageCache.PackageStats current) {
+        if (current == null) {
+            appRanking.remove(packageName);
+            dataRanking.remove(packageName);
+            cacheRanking.remove(packageName);
+            growthRanking.remove(packageName);
+            return;
+        }
+        appRanking.update(packageName, current.appBytes);
+        dataRanking.update(packageName, current.dataBytes);
+        cacheRanking.update(packageName, current.cacheBytes);
+
+        if (previous != null && current.sampledAtMs > previous.sampledAtMs) {
+            long delta = current.getTotalBytes() - previous.getTotalBytes();
+            long elapsed = current.sampledAtMs - previous.sampledAtMs;
+            growthRanking.update(packageName, delta * HOUR_MS / elapsed);
+        }
+    }
+
+    /**
+     * Descarta os valores de todas as categorias; o ranking volta a ser preenchido
+     * pelas próximas mudanças do cache.
+     */
+    public synchronized void clear() {
+        appRanking.clear();
+        dataRanking.clear();
+        cacheRanking.clear();
+        growthRanking.clear();
+    }
+
+    /**
+     * @return Pacotes da categoria, do maior para o menor valor.
+     */
+    public synchronized List<Map.Entry<String, Long>> top(Category category) {
+        switch (category) {
+            case APP:
+                return appRanking.top();
+            case DATA:
+                return dataRanking.top();
+            case CACHE:
+                return cacheRanking.top();
+            default:
+                return growthRanking.top();
+        }
+    }
+}
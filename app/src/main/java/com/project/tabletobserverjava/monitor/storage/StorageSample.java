@@ -0,0 +1,52 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+/**
+ * Amostra de armazenamento produzida por uma StorageStrategy.
+ * "Usado" é sempre total - livre; os campos por categoria valem UNKNOWN quando a estratégia não os calcula.
+ */
+public class StorageSample {
+
+    public static final long UNKNOWN = -1;
+
+    private final String strategy;
+    private final long totalBytes;
+    private final long freeBytes;
+    private final long appBytes;
+    private final long dataBytes;
+    private final long cacheBytes;
+    private long durationMs;
+
+    public StorageSample(String strategy, long totalBytes, long freeBytes,
+                         long appBytes, long dataBytes, long cacheBytes) {
+        this.strategy = strategy;
+        this.totalBytes = totalBytes;
+        this.freeBytes = freeBytes;
+        this.appBytes = appBytes;
+        this.dataBytes = dataBytes;
+        this.cacheBytes = cacheBytes;
+    }
+
+    /** @return Nome da estratégia que produziu a amostra. */
+    public String getStrategy() { return strategy; }
+
+    public long getTotalBytes() { return totalBytes; }
+
+    public long getFreeBytes() { return freeBytes; }
+
+    public long getUsedBytes() { return totalBytes - freeBytes; }
+
+    public int getUsedPercentage() {
+        return totalBytes > 0 ? (int) (getUsedBytes() * 100 / totalBytes) : 0;
+    }
+
+    public long getAppBytes() { return appBytes; }
+
+    public long getDataBytes() { return dataBytes; }
+
+    public long getCacheBytes() { return cacheBytes; }
+
+    /** @return Tempo gasto pela estratégia para produzir a amostra. */
+    public long getDurationMs() { return durationMs; }
+
+    void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
@@ -0,0 +1,32 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import com.project.tabletobserverjava.monitor.MetricCollector.CostClass;
+
+/**
+ * Forma de obter uma amostra de armazenamento. O StorageEngine tenta as estratégias
+ * da mais barata para a mais cara até uma delas ter sucesso.
+ */
+public interface StorageStrategy {
+
+    /**
+     * Nível de detalhe que uma estratégia entrega.
+     */
+    enum Detail {
+        /** Números do dispositivo inteiro. */
+        AGGREGATE,
+        /** Soma por pacote; só roda quando o chamador pede explicitamente. */
+        PER_PACKAGE
+    }
+
+    String getName();
+
+    CostClass getCostClass();
+
+    Detail getDetail();
+
+    /**
+     * @return Amostra atual de armazenamento.
+     * @throws Exception Se a estratégia não estiver disponível; o motor tenta a próxima.
+     */
+    StorageSample sample() throws Exception;
+}
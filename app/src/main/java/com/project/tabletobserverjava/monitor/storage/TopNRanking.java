@@ -0,0 +1,122 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Ranking dos N maiores valores, atualizado incrementalmente.
+ *
+ * Os N primeiros ficam em um heap mínimo limitado: um valor novo só entra se superar o menor
+ * do heap. Apenas quando um membro do ranking diminui ou sai é preciso reconstruir o heap a
+ * partir de todos os valores, e isso é adiado até a próxima leitura.
+ */
+public class TopNRanking {
+
+    private final int capacity;
+    private final Map<String, Long> values = new HashMap<>();
+    private final Set<String> members = new HashSet<>();
+    private final Comparator<String> ascending;
+    private final PriorityQueue<String> heap;
+    private boolean needsRebuild;
+
+    /**
+     * @param capacity Quantidade de posições do ranking.
+     */
+    public TopNRanking(int capacity) {
+        this.capacity = capacity;
+        this.ascending = (a, b) -> {
+            int byValue = Long.compare(values.get(a), values.get(b));
+            // Desempate estável pelo nome; o maior nome fica abaixo no ranking
+            return byValue != 0 ? byValue : b.compareTo(a);
+        };
+        this.heap = new PriorityQueue<>(capacity, ascending);
+    }
+
+    /**
+     * Atualiza o valor de uma chave.
+     */
+    public void update(String key, long value) {
+        Long previous = values.get(key);
+        if (members.contains(key)) {
+            // O heap não tolera mudança de prioridade no lugar: remove, altera e reinsere
+            heap.remove(key);
+            values.put(key, value);
+            heap.add(key);
+            if (previous != null && value < previous) {
+                // Um valor de fora do ranking pode ter passado este membro
+                needsRebuild = true;
+            }
+            return;
+        }
+        values.put(key, value);
+        offer(key);
+    }
+
+    /**
+     * Remove uma chave do ranking e dos valores conhecidos.
+     */
+    public void remove(String key) {
+        if (members.remove(key)) {
+            heap.remove(key);
+            needsRebuild = true;
+        }
+        values.remove(key);
+    }
+
+    /**
+     * @return Chaves e valores do ranking, do maior para o menor.
+     */
+    public List<Map.Entry<String, Long>> top() {
+        if (needsRebuild) {
+            rebuild();
+        }
+        List<String> keys = new ArrayList<>(heap);
+        keys.sort(Collections.reverseOrder(ascending));
+        List<Map.Entry<String, Long>> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(new HashMap.SimpleImmutableEntry<>(key, values.get(key)));
+        }
+        return result;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Descarta todos os valores conhecidos.
+     */
+    public void clear() {
+        values.clear();
+        members.clear();
+        heap.clear();
+        needsRebuild = false;
+    }
+
+    private void offer(String key) {
+        if (heap.size() < capacity) {
+            heap.add(key);
+            members.add(key);
+        } else if (ascending.compare(key, heap.peek()) > 0) {
+            members.remove(heap.poll());
+            heap.add(key);
+            members.add(key);
+        }
+    }
+
+    private void rebuild() {
+        heap.clear();
+        members.clear();
+        for (String key : values.keySet()) {
+            offer(key);
+        }
+        needsRebuild = false;
+    }
+}
@@ -1,17 +1,10 @@
 package com.project.tabletobserverjava.ui.theme;
 
-import android.app.ActivityManager;
 import android.app.AlertDialog;
 import android.app.AppOpsManager;
 import android.content.Context;
 import android.content.Intent;
-import android.net.ConnectivityManager;
-import android.net.NetworkCapabilities;
-import android.net.NetworkInfo;
-import android.net.TrafficStats;
-import android.os.Build;
 import android.os.Bundle;
-import android.os.Handler;
 import android.provider.Settings;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -31,9 +24,10 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.project.tabletobserverjava.R;
-import com.project.tabletobserverjava.data.local.AppDatabase;
+import com.project.tabletobserverjava.TabletObserverApplication;
 import com.project.tabletobserverjava.data.model.EventLog;
 import com.project.tabletobserverjava.data.repository.EventLogRepository;
+import com.project.tabletobserverjava.monitor.collector.MainThreadCollector;
 
 
 import java.util.ArrayList;
@@ -47,15 +41,8 @@ public class EventLogFragment extends Fragment {
 
     private EventLogViewModel viewModel;
 
-    private final Handler handler = new Handler();
-    private Runnable logUpdateRunnable;
-
     private EventLogAdapter adapter;
 
-    // Variáveis para calcular o consumo de dados
-    private long initialRxBytes = 0;
-    private long initialTxBytes = 0;
-
     private boolean usageAccessPermissionRequested = false;
 
     @Nullable
@@ -77,11 +64,10 @@ public class EventLogFragment extends Fragment {
             adapter = new EventLogAdapter(new ArrayList<>());
             recyclerView.setAdapter(adapter);
 
-            // Configuração do ViewModel
-            EventLogRepository repository = new EventLogRepository(
-                    AppDatabase.getInstance(requireContext()).eventLogDao()
-            );
-            EventLogViewModelFactory factory = new EventLogViewModelFactory(repository, requireContext());
+            // Configuração do ViewModel com o repositório alimentado pelo motor de coleta
+            EventLogRepository repository =
+                    ((TabletObserverApplication) requireActivity().getApplication()).getRepository();
+            EventLogViewModelFactory factory = new EventLogViewModelFactory(repository);
             viewModel = new ViewModelProvider(this, factory).get(EventLogViewModel.class);
 
             // Verificação de inicialização do ViewModel
@@ -94,27 +80,12 @@ public class EventLogFragment extends Fragment {
             // Observa mudanças nos logs
             viewModel.getLiveLogs().observe(getViewLifecycleOwner(), logs -> adapter.updateLogs(logs));
 
-            // Inicializa os valores de tráfego de dados
-            initialRxBytes = TrafficStats.getTotalRxBytes();
-            initialTxBytes = TrafficStats.getTotalTxBytes();
-
             // Adiciona logs iniciais
             addInitialLogs();
 
-            // Verifica e solicita permissão de uso
+            // Verifica e solicita permissão de uso.
+            // A coleta roda no motor da aplicação; o Fragment apenas observa os resultados.
             validateAndRequestUsageAccessPermission();
-
-            // Timer para atualizar logs de conexão
-            logUpdateRunnable = () -> {
-                updateConnectionLog(); // Atualiza apenas o log de conexão
-                updateDataUsageLog();  // Atualiza o log de consumo de dados
-                updateMemoryUsageLog(); // Atualiza o log de exibição de uso de memória e CPU.
-                viewModel.updateStorageLogs(requireContext()); // Atualiza os logs de armazenamento
-                viewModel.testLatency("https://www.google.com");
-                handler.postDelayed(logUpdateRunnable, 5000); // Reexecuta a cada 5 segundos
-            };
-            handler.post(logUpdateRunnable);
-
         } catch (Exception e) {
             Log.e("EventLogFragment", "Erro durante a inicialização: " + e.getMessage(), e);
         }
@@ -123,8 +94,10 @@ public class EventLogFragment extends Fragment {
     @Override
     public void onPause() {
         super.onPause();
-        // Pausa o Timer quando o Fragment não está visível
-        handler.removeCallbacks(logUpdateRunnable);
+        MainThreadCollector mainThread = getMainThreadCollector();
+        if (mainThread != null) {
+            mainThread.stopFrameTracking();
+        }
 
         // Remove a flag para restaurar o comportamento padrão
         requireActivity().getWindow().clearFlags(WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON);
@@ -136,13 +109,19 @@ public class EventLogFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
-        // Retoma o Timer quando o Fragment volta a ser visível
-        handler.post(logUpdateRunnable);
-
         // Mantém a tela ligada e ajusta o brilho para um nível mínimo constante
         requireActivity().getWindow().addFlags(WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON);
         setScreenBrightness(0.3f); // Ajuste o brilho para 30%
 
+        // Mede a duração dos quadros só enquanto a tela está visível
+        MainThreadCollector mainThread = getMainThreadCollector();
+        if (mainThread != null) {
+            mainThread.startFrameTracking(requireActivity().getWindowManager().getDefaultDisplay().getRefreshRate());
+        }
+
+        // As transições de rede chegam pelo callback; a consulta direta só quando a tela volta
+        ((TabletObserverApplication) requireActivity().getApplication()).getCollectionEngine().pollConnectivity();
+
         // Verifique se a permissão foi concedida
         AppOpsManager appOpsManager = (AppOpsManager) requireContext().getSystemService(Context.APP_OPS_SERVICE);
         int mode = appOpsManager.checkOpNoThrow(AppOpsManager.OPSTR_GET_USAGE_STATS, android.os.Process.myUid(), requireContext().getPackageName());
@@ -154,13 +133,6 @@ public class EventLogFragment extends Fragment {
         }
     }
 
-    @Override
-    public void onDestroyView() {
-        super.onDestroyView();
-        // Remove o Timer ao destruir a View
-        handler.removeCallbacks(logUpdateRunnable);
-    }
-
     /**
      * Adiciona logs iniciais fixos na primeira inicialização.
      */
@@ -182,72 +154,6 @@ public class EventLogFragment extends Fragment {
         }
     }
 
-    /**
-     * Atualiza o log de uso de memória.
-     */
-    private void updateMemoryUsageLog() {
-        try {
-            ActivityManager activityManager = (ActivityManager) requireContext().getSystemService(Context.ACTIVITY_SERVICE);
-            ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
-            activityManager.getMemoryInfo(memoryInfo);
-
-            long totalMemory = memoryInfo.totalMem / (1024 * 1024); // Total de memória em MB
-            long usedMemory = (memoryInfo.totalMem - memoryInfo.availMem) / (1024 * 1024); // Memória usada em MB
-            long availableMemory = memoryInfo.availMem / (1024 * 1024); // Memória livre em MB
-            long usedPercentage = (usedMemory * 100) / totalMemory; // Porcentagem de memória usada
-
-
-            Log.d("EventLogFragment", String.format("Memória utilizada: %d MB de %d MB (%d%%)", usedMemory, totalMemory, usedPercentage));
-
-            // Atualiza o log de memória no ViewModel
-            viewModel.insertLog(new EventLog(
-                    System.currentTimeMillis(),
-                    "MEMORY_USAGE",
-                    String.format("Memória utilizada: %d MB de %d MB (%d%%)", usedMemory, totalMemory,usedPercentage,usedPercentage > 80 ? " - ALERTA: Uso acima de 80%!" : "" // Adiciona alerta no final do texto)
-            )));
-        } catch (Exception e) {
-            Log.e("EventLogFragment", "Erro ao atualizar log de uso de memória: " + e.getMessage(), e);
-        }
-    }
-
-
-    /**
-     * Atualiza o log de conexão de acordo com o estado atual.
-     */
-    private void updateConnectionLog() {
-        boolean isConnected = isConnectedToInternet();
-        String connectionStatus = isConnected ? "Dispositivo Conectado" : "Erro de conexão detectado";
-
-        viewModel.insertLog(new EventLog(
-                System.currentTimeMillis(),
-                "CONNECTION", // Tipo fixo para identificar logs de conexão
-                connectionStatus
-        ));
-    }
-
-    /**
-     * Atualiza o log de consumo de dados Wi-Fi.
-     */
-    private void updateDataUsageLog() {
-        try {
-            long currentRxBytes = TrafficStats.getTotalRxBytes();
-            long currentTxBytes = TrafficStats.getTotalTxBytes();
-
-            // Calcula o consumo total em MB desde a inicialização
-            long totalBytes = (currentRxBytes - initialRxBytes) + (currentTxBytes - initialTxBytes);
-            double totalMB = totalBytes / (1024.0 * 1024.0); // Converte para MB
-
-            // Atualiza o log com o consumo de dados
-            viewModel.insertLog(new EventLog(
-                    System.currentTimeMillis(),
-                    "DATA_USAGE", // Tipo fixo para identificar logs de consumo de dados
-                    String.format("Consumo de dados Wi-Fi: %.2f MB", totalMB)
-            ));
-        } catch (Exception e) {
-            Log.e("EventLogFragment", "Erro ao atualizar log de consumo de dados: " + e.getMessage(), e);
-        }
-    }
-
     /**
      * Verifica se a permissão de acesso ao uso foi concedida.
      */
@@ -274,31 +180,6 @@ public class EventLogFragment extends Fragment {
 
 
 
-    /**
-     * Verifica se o dispositivo está conectado à internet.
-     *
-     * @return true se conectado, false caso contrário.
-     */
-    private boolean isConnectedToInternet() {
-        ConnectivityManager connectivityManager =
-                (ConnectivityManager) requireContext().getSystemService(Context.CONNECTIVITY_SERVICE);
-
-        if (connectivityManager != null) {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities
-                        (connectivityManager.getActiveNetwork());
-                if (capabilities != null) {
-                    return capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET) &&
-                            capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
-                }
-            } else {
-                NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
-                return networkInfo != null && networkInfo.isConnected();
-            }
-        }
-        return false;
-    }
-
     private void setScreenBrightness(float brightness) {
         Window window = requireActivity().getWindow();
         WindowManager.LayoutParams layoutParams = window.getAttributes();
@@ -334,4 +215,9 @@ public class EventLogFragment extends Fragment {
         int mode = appOpsManager.checkOpNoThrow(AppOpsManager.OPSTR_GET_USAGE_STATS, android.os.Process.myUid(), context.getPackageName());
         return mode == AppOpsManager.MODE_ALLOWED;
     }
+
+    private MainThreadCollector getMainThreadCollector() {
+        return ((TabletObserverApplication) requireActivity().getApplication())
+                .getCollectionEngine().getMainThreadCollector();
+    }
 }
@@ -1,8 +1,6 @@
 package com.project.tabletobserverjava.viewModel;
 
 
-import android.content.Context;
-
 import androidx.annotation.NonNull;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
@@ -16,17 +14,14 @@ import com.project.tabletobserverjava.ui.theme.EventLogViewModel;
 public class EventLogViewModelFactory implements ViewModelProvider.Factory {
 
     private final EventLogRepository repository;
-    private final Context context;
-
 
     /**
      * Construtor da Factory.
      *
      * @param repository Instância do repositório a ser injetada no ViewModel.
      */
-    public EventLogViewModelFactory(EventLogRepository repository, Context context) {
+    public EventLogViewModelFactory(EventLogRepository repository) {
         this.repository = repository;
-        this.context = context;
     }
 
     @NonNull
@@ -34,7 +29,7 @@ public class EventLogViewModelFactory implements ViewModelProvider.Factory {
     @SuppressWarnings("unchecked")
     public <T extends ViewModel> T create(@NonNull Class<T> modelClass) {
         if (modelClass.isAssignableFrom(EventLogViewModel.class)) {
-            return (T) new EventLogViewModel(repository, context);
+            return (T) new EventLogViewModel(repository);
         }
         throw new IllegalArgumentException("Classe desconhecida: " + modelClass.getName());
     }
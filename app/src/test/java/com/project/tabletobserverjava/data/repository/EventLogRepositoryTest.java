@@ -0,0 +1,34 @@
+package com.project.tabletobserverjava.data.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.ComponentCallbacks2;
+
+import org.junit.Test;
+
+/**
+ * Testes do mapeamento dos níveis de onTrimMemory para o que o repositório descarta.
+ */
+public class EventLogRepositoryTest {
+
+    @Test
+    public void ignoresLevelsWithoutMemoryPressure() {
+        assertEquals(-1, EventLogRepository.keptLogTypes(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE));
+        assertEquals(-1, EventLogRepository.keptLogTypes(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW));
+        // A interface saiu da tela: valor numérico maior, mas sem pressão de memória
+        assertEquals(-1, EventLogRepository.keptLogTypes(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN));
+    }
+
+    @Test
+    public void keepsRecentTypesUnderPressure() {
+        int critical = EventLogRepository.keptLogTypes(ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL);
+        assertEquals(critical, EventLogRepository.keptLogTypes(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND));
+        assertEquals(critical, EventLogRepository.keptLogTypes(ComponentCallbacks2.TRIM_MEMORY_MODERATE));
+        assertEquals(8, critical);
+    }
+
+    @Test
+    public void dropsEverythingOnComplete() {
+        assertEquals(0, EventLogRepository.keptLogTypes(ComponentCallbacks2.TRIM_MEMORY_COMPLETE));
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.tabletobserverjava.monitor;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Testes do intervalo adaptativo: alongamento com sinal estável e volta imediata ao mínimo.
+ */
+public class AdaptiveIntervalTest {
+
+    private static long feed(AdaptiveInterval interval, double value, int samples) {
+        long last = 0;
+        for (int i = 0; i < samples; i++) {
+            last = interval.onSample(value);
+        }
+        return last;
+    }
+
+    @Test
+    public void stableSignalBacksOffToMaximum() {
+        AdaptiveInterval interval = new AdaptiveInterval(1000, 15_000, 5, Double.NaN);
+
+        assertEquals(1000, interval.onSample(20));
+        assertEquals(2000, feed(interval, 22, AdaptiveInterval.STABLE_SAMPLES_TO_SLOW));
+        assertEquals(4000, feed(interval, 18, AdaptiveInterval.STABLE_SAMPLES_TO_SLOW));
+        assertEquals(15_000, feed(interval, 21, 4 * AdaptiveInterval.STABLE_SAMPLES_TO_SLOW));
+    }
+
+    @Test
+    public void jumpReturnsToMinimumImmediately() {
+        AdaptiveInterval interval = new AdaptiveInterval(1000, 15_000, 5, Double.NaN);
+        feed(interval, 20, 10 * AdaptiveInterval.STABLE_SAMPLES_TO_SLOW);
+
+        assertEquals(1000, interval.onSample(40));
+        // A leitura do salto é a nova referência
+        assertEquals(2000, feed(interval, 41, AdaptiveInterval.STABLE_SAMPLES_TO_SLOW));
+    }
+
+    @Test
+    public void slowDriftEventuallyLeavesBand() {
+        AdaptiveInterval interval = new AdaptiveInterval(1000, 15_000, 5, Double.NaN);
+        interval.onSample(20);
+        long last = 0;
+        // Seis leituras subindo um ponto por vez, todas dentro da faixa da referência 20
+        for (int value = 20; value <= 25; value++) {
+            last = interval.onSample(value);
+        }
+        assertEquals(4000, last);
+
+        assertEquals(1000, interval.onSample(26));
+    }
+
+    @Test
+    public void aboveThresholdStaysFast() {
+        AdaptiveInterval interval = new AdaptiveInterval(1000, 15_000, 5, 85);
+
+        assertEquals(1000, feed(interval, 90, 10 * AdaptiveInterval.STABLE_SAMPLES_TO_SLOW));
+        assertEquals(2000, feed(interval, 40, 1 + AdaptiveInterval.STABLE_SAMPLES_TO_SLOW));
+    }
+}
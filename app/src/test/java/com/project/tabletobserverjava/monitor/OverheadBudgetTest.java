@@ -0,0 +1,87 @@
+package com.project.tabletobserverjava.monitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Testes do orçamento de custo: alongamento do coletor mais caro e restauração com folga.
+ */
+public class OverheadBudgetTest {
+
+    private static final long WINDOW_MS = 60_000;
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void withinBudgetChangesNothing() {
+        OverheadBudget budget = new OverheadBudget(1.0);
+        OverheadBudget.Account cpu = new OverheadBudget.Account("cpu");
+        cpu.onRun(300 * MS, 300, 0);
+
+        assertNull(budget.evaluate(Arrays.asList(cpu), WINDOW_MS));
+        assertEquals(0.5, budget.getLastCpuPercent(), 1e-9);
+        assertEquals(1, cpu.getStretch());
+    }
+
+    @Test
+    public void overBudgetStretchesMostExpensiveFirst() {
+        OverheadBudget budget = new OverheadBudget(1.0);
+        OverheadBudget.Account cpu = new OverheadBudget.Account("cpu");
+        OverheadBudget.Account storage = new OverheadBudget.Account("storage");
+        List<OverheadBudget.Account> accounts = Arrays.asList(cpu, storage);
+
+        cpu.onRun(200 * MS, 200, 0);
+        storage.onRun(700 * MS, 900, 40);
+        OverheadBudget.Adjustment adjustment = budget.evaluate(accounts, WINDOW_MS);
+
+        assertNotNull(adjustment);
+        assertTrue(adjustment.isBackOff());
+        assertEquals("storage", adjustment.getName());
+        assertEquals(2, storage.getStretch());
+        assertEquals(1, cpu.getStretch());
+        assertEquals(40, storage.getWindowBinderCalls());
+    }
+
+    @Test
+    public void stretchStopsAtMaximum() {
+        OverheadBudget budget = new OverheadBudget(1.0);
+        OverheadBudget.Account storage = new OverheadBudget.Account("storage");
+        List<OverheadBudget.Account> accounts = Arrays.asList(storage);
+
+        for (int i = 0; i < 5; i++) {
+            storage.onRun(2000 * MS, 2000, 0);
+            budget.evaluate(accounts, WINDOW_MS);
+        }
+
+        assertEquals(OverheadBudget.MAX_STRETCH, storage.getStretch());
+    }
+
+    @Test
+    public void restoresOnlyWhenProjectionFits() {
+        OverheadBudget budget = new OverheadBudget(1.0);
+        OverheadBudget.Account storage = new OverheadBudget.Account("storage");
+        List<OverheadBudget.Account> accounts = Arrays.asList(storage);
+
+        storage.onRun(900 * MS, 900, 0);
+        budget.evaluate(accounts, WINDOW_MS);
+        assertEquals(2, storage.getStretch());
+
+        // 0,5% agora; dobrar a frequência projeta 1,0%, acima de 80% do limite
+        storage.onRun(300 * MS, 300, 0);
+        assertNull(budget.evaluate(accounts, WINDOW_MS));
+        assertEquals(2, storage.getStretch());
+
+        // 0,2% agora; a projeção de 0,4% cabe no limite
+        storage.onRun(120 * MS, 120, 0);
+        OverheadBudget.Adjustment adjustment = budget.evaluate(accounts, WINDOW_MS);
+        assertNotNull(adjustment);
+        assertEquals(1, storage.getStretch());
+        assertEquals(2, adjustment.getPreviousStretch());
+    }
+}
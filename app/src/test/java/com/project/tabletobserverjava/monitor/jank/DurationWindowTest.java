@@ -0,0 +1,82 @@
+package com.project.tabletobserverjava.monitor.jank;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Testes da janela de durações usada para quadros e para o atraso da thread principal.
+ */
+public class DurationWindowTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void countsThresholdsAndMaximum() {
+        DurationWindow window = new DurationWindow(25 * MS, 700 * MS);
+        for (int i = 0; i < 97; i++) {
+            window.record(16 * MS);
+        }
+        window.record(40 * MS);
+        window.record(50 * MS);
+        window.record(900 * MS);
+
+        assertEquals(100, window.getCount());
+        assertEquals(3, window.getOverThresholdCount());
+        assertEquals(1, window.getSevereCount());
+        assertEquals(900.0, window.getMaxMs(), 1e-9);
+        // 16 ms cai na faixa até 32 ms
+        assertEquals(32.0, window.getPercentileMs(50), 1e-9);
+        assertEquals(64.0, window.getPercentileMs(99), 1e-9);
+        assertEquals(900.0, window.getPercentileMs(100), 1e-9);
+    }
+
+    @Test
+    public void drainCopiesAndResets() {
+        DurationWindow window = new DurationWindow(25 * MS, 700 * MS);
+        DurationWindow copy = new DurationWindow(0, 0);
+        window.record(30 * MS);
+        window.record(10 * MS);
+
+        window.drainTo(copy);
+
+        assertEquals(2, copy.getCount());
+        assertEquals(1, copy.getOverThresholdCount());
+        assertEquals(20.0, copy.getMeanMs(), 1e-9);
+        assertEquals(0, window.getCount());
+        assertEquals(0.0, window.getMaxMs(), 1e-9);
+        assertEquals(0.0, window.getPercentileMs(99), 1e-9);
+    }
+
+    @Test
+    public void recordingDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        DurationWindow window = new DurationWindow(25 * MS, 700 * MS);
+        DurationWindow copy = new DurationWindow(0, 0);
+        // Aquece o JIT antes de medir
+        for (int i = 0; i < 10_000; i++) {
+            window.record(i * 1000L);
+        }
+        window.drainTo(copy);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            window.record((i % 100) * MS);
+            if (i % 600 == 0) {
+                window.drainTo(copy);
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Folga para a própria medição; uma alocação por quadro passaria de 1 MB
+        assertTrue("alocou " + allocated + " bytes", allocated < 16 * 1024);
+    }
+}
@@ -0,0 +1,108 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testes do rastreador de conectividade com a sequência de callbacks da rede padrão.
+ */
+public class ConnectivityTrackerTest {
+
+    private static ConnectivityTracker connectedAt(long nowMs) {
+        ConnectivityTracker tracker = new ConnectivityTracker();
+        tracker.onAvailable(nowMs);
+        tracker.onCapabilities(true, "wifi", nowMs);
+        return tracker;
+    }
+
+    @Test
+    public void startingWithoutNetworkIsNotAnOutage() {
+        ConnectivityTracker tracker = new ConnectivityTracker();
+        tracker.onAvailable(1000);
+        assertFalse(tracker.isConnected());
+        tracker.onCapabilities(true, "wifi", 1500);
+
+        assertTrue(tracker.isConnected());
+        assertEquals(1500, tracker.getChangedAtMs());
+        assertEquals(0, tracker.getOutageCount());
+    }
+
+    @Test
+    public void shortOutageIsMeasuredAndCountsAsFlap() {
+        ConnectivityTracker tracker = connectedAt(0);
+        tracker.onLost(10_000);
+        assertEquals(10_000, tracker.getOutageStartMs());
+        assertEquals(500, tracker.getTotalOutageMs(10_500));
+
+        tracker.onAvailable(11_200);
+        tracker.onCapabilities(true, "wifi", 11_800);
+
+        assertTrue(tracker.isConnected());
+        assertEquals(1, tracker.getOutageCount());
+        assertEquals(1, tracker.getFlapCount());
+        assertEquals(1800, tracker.getLastOutageMs());
+        assertEquals(1800, tracker.getTotalOutageMs(20_000));
+    }
+
+    @Test
+    public void longOutageIsNotAFlapAndValidationLossCounts() {
+        ConnectivityTracker tracker = connectedAt(0);
+        // Rede continua, mas perde a validação: sem internet
+        tracker.onCapabilities(false, "wifi", 5000);
+        assertFalse(tracker.isConnected());
+        tracker.onCapabilities(true, "wifi", 5000 + ConnectivityTracker.FLAP_MAX_MS + 1);
+
+        assertEquals(1, tracker.getOutageCount());
+        assertEquals(0, tracker.getFlapCount());
+        assertEquals(ConnectivityTracker.FLAP_MAX_MS + 1, tracker.getLongestOutageMs(60_000));
+    }
+
+    @Test
+    public void bandwidthOnlyCallbacksAreNotTransitions() {
+        ConnectivityTracker tracker = connectedAt(0);
+        assertNull(tracker.onCapabilities(true, "wifi", 100));
+        assertNull(tracker.onLinkProperties("", 100));
+        assertNotNull(tracker.onLinkProperties("wlan0", 200));
+        assertNull(tracker.onLinkProperties("wlan0", 300));
+        assertNotNull(tracker.onCapabilities(true, "celular", 400));
+        assertTrue(tracker.isConnected());
+    }
+
+    @Test
+    public void pollReconcilesMissedCallback() {
+        ConnectivityTracker tracker = connectedAt(0);
+        assertNull(tracker.onPolled(true, true, 1000));
+        ConnectivityTracker.Transition transition = tracker.onPolled(false, false, 2000);
+
+        assertNotNull(transition);
+        assertFalse(transition.isConnected());
+        assertEquals(1, tracker.getOutageCount());
+    }
+
+    @Test
+    public void historyKeepsMostRecentInOrder() {
+        ConnectivityTracker tracker = connectedAt(0);
+        for (int i = 1; i <= 40; i++) {
+            if (i % 2 == 1) {
+                tracker.onLost(i * 1000);
+            } else {
+                tracker.onAvailable(i * 1000);
+            }
+        }
+        List<ConnectivityTracker.Transition> recent = new ArrayList<>();
+        tracker.copyHistory(recent, 3);
+
+        assertEquals(3, recent.size());
+        assertEquals(38_000, recent.get(0).getTimestampMs());
+        assertEquals(40_000, recent.get(2).getTimestampMs());
+        assertEquals("rede disponível", recent.get(2).getDescription());
+    }
+}
@@ -0,0 +1,227 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+/**
+ * Testes do motor de sondas contra um servidor HTTP local, no próprio processo: janelas,
+ * reuso de conexão, prazos, cancelamento e descarte de resultados atrasados.
+ */
+public class LatencyProbeEngineTest {
+
+    private static final int TIMEOUT_MS = 2000;
+    private static final long DEADLINE_MS = 3000;
+    private static final long MS = 1_000_000L;
+
+    private HttpServer server;
+    // Segura as respostas de /slow até ser liberado
+    private final CountDownLatch slowResponses = new CountDownLatch(1);
+    // Porta de origem de cada requisição: uma por conexão TCP
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            // Sem consumir a requisição o servidor fecha a conexão em vez de mantê-la
+            exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/slow")) {
+                awaitUninterruptibly(slowResponses);
+            }
+            int status = path.startsWith("/missing") ? 404 : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        slowResponses.countDown();
+        server.stop(0);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException ignored) {
+                // continua esperando
+            }
+        }
+    }
+
+    private URL url(String path) throws IOException {
+        return new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), path);
+    }
+
+    @Test
+    public void reusedConnectionServesEveryProbe() throws Exception {
+        LatencyProbeEngine engine = new LatencyProbeEngine(10, 2);
+        engine.setTarget(new ProbeTarget("local", url("/"), true, TIMEOUT_MS));
+
+        for (int i = 0; i < 5; i++) {
+            ProbeResult result = engine.probeAll(DEADLINE_MS).get(0);
+            assertTrue(result.isSuccess());
+            assertEquals(200, result.getResponseCode());
+        }
+        assertEquals(1, clientPorts.size());
+        LatencyStats stats = engine.getStats("local");
+        assertEquals(5, stats.getSamples());
+        assertEquals(0, stats.getLossRate(), 1e-9);
+        assertTrue(stats.getP99Ms() > 0);
+    }
+
+    @Test
+    public void withoutReuseEachProbeOpensAConnection() throws Exception {
+        LatencyProbeEngine engine = new LatencyProbeEngine(10, 2);
+        engine.setTarget(new ProbeTarget("local", url("/"), false, TIMEOUT_MS));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(engine.probeAll(DEADLINE_MS).get(0).isSuccess());
+        }
+        assertEquals(3, clientPorts.size());
+    }
+
+    @Test
+    public void anyHttpStatusCountsAsReachable() throws Exception {
+        LatencyProbeEngine engine = new LatencyProbeEngine(10, 2);
+        engine.setTarget(new ProbeTarget("local", url("/missing"), true, TIMEOUT_MS));
+
+        ProbeResult result = engine.probeAll(DEADLINE_MS).get(0);
+        assertTrue(result.isSuccess());
+        assertEquals(404, result.getResponseCode());
+    }
+
+    @Test
+    public void unreachableTargetCountsAsLoss() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        LatencyProbeEngine engine = new LatencyProbeEngine(10, 2);
+        engine.setTarget(new ProbeTarget("local", url("/"), true, TIMEOUT_MS));
+        engine.setTarget(new ProbeTarget("closed",
+                new URL("http", server.getAddress().getHostString(), closedPort, "/"), true, TIMEOUT_MS));
+
+        List<ProbeResult> results = engine.probeAll(DEADLINE_MS);
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertNotNull(results.get(1).getError());
+        assertEquals(1.0, results.get(1).getStats().getLossRate(), 1e-9);
+    }
+
+    @Test
+    public void changingTargetUrlResetsWindow() throws Exception {
+        LatencyProbeEngine engine = new LatencyProbeEngine(10, 2);
+        engine.setTarget(new ProbeTarget("local", url("/"), true, TIMEOUT_MS));
+        engine.probeAll(DEADLINE_MS);
+        engine.setTarget(new ProbeTarget("local", url("/"), true, TIMEOUT_MS));
+        assertEquals(1, engine.getStats("local").getSamples());
+
+        engine.setTarget(new ProbeTarget("local", url("/other"), true, TIMEOUT_MS));
+        assertEquals(0, engine.getStats("local").getSamples());
+    }
+
+    @Test
+    public void probePastDeadlineIsCancelledAndFreesItsThread() throws Exception {
+        LatencyProbeEngine engine = new LatencyProbeEngine(10, 2);
+        engine.setTarget(new ProbeTarget("slow", url("/slow"), true, TIMEOUT_MS));
+
+        long start = System.nanoTime();
+        ProbeResult result = engine.probeAll(200).get(0);
+        assertTrue((System.nanoTime() - start) / 1_000_000 < TIMEOUT_MS);
+        assertFalse(result.isSuccess());
+        assertEquals(1, engine.getCancelledCount());
+
+        // Fechar a conexão desbloqueia a leitura, e o destino volta a ser sondado
+        Thread.sleep(100);
+        engine.probeAll(200);
+        assertEquals(0, engine.getSkippedCount());
+        assertEquals(2, engine.getCancelledCount());
+        engine.stop();
+    }
+
+    @Test
+    public void hungProbeIsNotDuplicatedAndItsLateResultIsDropped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PhasedHttpProbe hung = new PhasedHttpProbe() {
+            @Override
+            public ProbeResult probe(ProbeCall call) {
+                // Como uma resolução de nome travada: ignora o cancelamento
+                awaitUninterruptibly(release);
+                return ProbeResult.success(call, MS, 200, null);
+            }
+        };
+        LatencyProbeEngine engine = new LatencyProbeEngine(10, 2, hung);
+        engine.setTarget(new ProbeTarget("dns", url("/"), false, TIMEOUT_MS));
+
+        ProbeResult first = engine.probeAll(100).get(0);
+        assertFalse(first.isSuccess());
+        assertEquals(1, first.getSequence());
+        ProbeResult second = engine.probeAll(100).get(0);
+        assertFalse(second.isSuccess());
+        assertEquals(1, engine.getSkippedCount());
+
+        release.countDown();
+        long waitUntil = System.nanoTime() + 2_000_000_000L;
+        while (engine.getStaleCount() == 0 && System.nanoTime() < waitUntil) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, engine.getStaleCount());
+
+        ProbeResult third = engine.probeAll(DEADLINE_MS).get(0);
+        assertTrue(third.isSuccess());
+        assertEquals(2, third.getSequence());
+        LatencyStats stats = third.getStats();
+        assertEquals(3, stats.getSamples());
+        assertEquals(2, stats.getFailures());
+        engine.stop();
+    }
+
+    @Test
+    public void stopCancelsProbesInFlight() throws Exception {
+        LatencyProbeEngine engine = new LatencyProbeEngine(10, 2);
+        engine.setTarget(new ProbeTarget("slow", url("/slow"), true, TIMEOUT_MS));
+        Thread caller = new Thread(() -> {
+            try {
+                engine.probeAll(DEADLINE_MS);
+            } catch (InterruptedException ignored) {
+                // parada do teste
+            }
+        });
+        caller.start();
+        Thread.sleep(200);
+
+        long start = System.nanoTime();
+        engine.stop();
+        caller.join(TIMEOUT_MS);
+        assertFalse(caller.isAlive());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < TIMEOUT_MS);
+        assertEquals(1, engine.getCancelledCount());
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Testes da janela de latência: percentis, jitter, perda e descarte das sondas antigas.
+ */
+public class LatencyWindowTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void percentilesUseNearestRank() {
+        LatencyWindow window = new LatencyWindow(100);
+        for (int i = 100; i >= 1; i--) {
+            window.recordSuccess(i * MS);
+        }
+        LatencyStats stats = window.snapshot();
+
+        assertEquals(100, stats.getSamples());
+        assertEquals(50, stats.getP50Ms(), 1e-9);
+        assertEquals(95, stats.getP95Ms(), 1e-9);
+        assertEquals(99, stats.getP99Ms(), 1e-9);
+        assertEquals(100, stats.getMaxMs(), 1e-9);
+    }
+
+    @Test
+    public void jitterSkipsFailuresAndLossCountsThem() {
+        LatencyWindow window = new LatencyWindow(10);
+        window.recordSuccess(10 * MS);
+        window.recordFailure();
+        window.recordSuccess(20 * MS);
+        window.recordSuccess(14 * MS);
+        LatencyStats stats = window.snapshot();
+
+        // |20 - 10| e |14 - 20|
+        assertEquals(8, stats.getJitterMs(), 1e-9);
+        assertEquals(0.25, stats.getLossRate(), 1e-9);
+        assertEquals(14, stats.getP50Ms(), 1e-9);
+    }
+
+    @Test
+    public void oldestSamplesLeaveTheWindow() {
+        LatencyWindow window = new LatencyWindow(3);
+        window.recordFailure();
+        window.recordFailure();
+        window.recordSuccess(5 * MS);
+        window.recordSuccess(7 * MS);
+        window.recordSuccess(6 * MS);
+        LatencyStats stats = window.snapshot();
+
+        assertEquals(3, stats.getSamples());
+        assertEquals(0, stats.getLossRate(), 1e-9);
+        // Em ordem de sonda: 5, 7, 6
+        assertEquals(1.5, stats.getJitterMs(), 1e-9);
+    }
+}
@@ -0,0 +1,176 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+
+/**
+ * Testes da sonda em fases contra servidores locais, um http e um https com certificado
+ * autoassinado para "localhost".
+ */
+public class PhasedHttpProbeTest {
+
+    private static final String KEYSTORE = "/net/probe-localhost.p12";
+    private static final char[] PASSWORD = "tablet-observer".toCharArray();
+    private static final int TIMEOUT_MS = 2000;
+
+    private InetAddress localhost;
+    private HttpServer httpServer;
+    private HttpsServer httpsServer;
+    private SSLContext clientContext;
+
+    @Before
+    public void startServers() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = getClass().getResourceAsStream(KEYSTORE)) {
+            keyStore.load(in, PASSWORD);
+        }
+        KeyManagerFactory keys = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keys.init(keyStore, PASSWORD);
+        SSLContext serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(keys.getKeyManagers(), null, null);
+
+        // O cliente confia só no certificado do servidor local
+        TrustManagerFactory trust = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trust.init(keyStore);
+        clientContext = SSLContext.getInstance("TLS");
+        clientContext.init(null, trust.getTrustManagers(), null);
+
+        localhost = InetAddress.getByName("localhost");
+        httpServer = HttpServer.create(new InetSocketAddress(localhost, 0), 0);
+        httpServer.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        httpServer.start();
+        httpsServer = HttpsServer.create(new InetSocketAddress(localhost, 0), 0);
+        httpsServer.setHttpsConfigurator(new HttpsConfigurator(serverContext));
+        httpsServer.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        httpsServer.start();
+    }
+
+    @After
+    public void stopServers() {
+        httpServer.stop(0);
+        httpsServer.stop(0);
+    }
+
+    private ProbeResult probe(String protocol, String host, int port) throws IOException {
+        PhasedHttpProbe probe = new PhasedHttpProbe(clientContext.getSocketFactory());
+        return probe.probe(new ProbeTarget("local", new URL(protocol, host, port, "/"), false, TIMEOUT_MS));
+    }
+
+    @Test
+    public void httpsProbeTimesEveryPhase() throws IOException {
+        ProbeResult result = probe("https", "localhost", httpsServer.getAddress().getPort());
+
+        assertTrue(result.getError(), result.isSuccess());
+        assertEquals(200, result.getResponseCode());
+        PhaseTimings phases = result.getPhases();
+        assertTrue(phases.getDnsMs() >= 0);
+        assertTrue(phases.getConnectMs() >= 0);
+        assertTrue(phases.getTlsMs() > 0);
+        assertTrue(phases.getFirstByteMs() > 0);
+        double sum = phases.getDnsMs() + phases.getConnectMs() + phases.getTlsMs() + phases.getFirstByteMs();
+        assertEquals(result.getLatencyMs(), sum, 0.01);
+    }
+
+    @Test
+    public void httpProbeSkipsTls() throws IOException {
+        ProbeResult result = probe("http", "localhost", httpServer.getAddress().getPort());
+
+        assertTrue(result.getError(), result.isSuccess());
+        assertEquals(204, result.getResponseCode());
+        assertEquals(-1, result.getPhases().getTlsMs(), 0);
+        assertTrue(result.getPhases().getFirstByteMs() > 0);
+    }
+
+    @Test
+    public void certificateForAnotherHostFailsInTlsPhase() throws IOException {
+        // O certificado só vale para "localhost", não para o endereço literal
+        ProbeResult result = probe("https", localhost.getHostAddress(), httpsServer.getAddress().getPort());
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getError(), result.getError().startsWith("tls:"));
+        assertTrue(result.getPhases().getConnectMs() >= 0);
+        assertEquals(-1, result.getPhases().getFirstByteMs(), 0);
+    }
+
+    @Test
+    public void closedPortFailsInTcpPhase() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, localhost)) {
+            closedPort = socket.getLocalPort();
+        }
+        ProbeResult result = probe("http", "localhost", closedPort);
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getError(), result.getError().startsWith("tcp:"));
+        assertTrue(result.getPhases().getDnsMs() >= 0);
+    }
+
+    @Test
+    public void connectOnlyCountsRefusedConnectionAsReachable() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, localhost)) {
+            closedPort = socket.getLocalPort();
+        }
+        ProbeResult result = new PhasedHttpProbe().probe(new ProbeTarget("gateway",
+                new URL("http", localhost.getHostAddress(), closedPort, "/"), false, true, TIMEOUT_MS));
+
+        assertTrue(result.getError(), result.isSuccess());
+        assertEquals(0, result.getResponseCode());
+        assertTrue(result.getPhases().getConnectMs() >= 0);
+        assertEquals(-1, result.getPhases().getFirstByteMs(), 0);
+    }
+
+    @Test
+    public void connectOnlyStopsAfterTcp() throws IOException {
+        ProbeResult result = new PhasedHttpProbe().probe(new ProbeTarget("gateway",
+                new URL("http", "localhost", httpServer.getAddress().getPort(), "/"), false, true, TIMEOUT_MS));
+
+        assertTrue(result.getError(), result.isSuccess());
+        assertEquals(0, result.getResponseCode());
+        assertEquals(result.getLatencyMs(), result.getPhases().getDnsMs() + result.getPhases().getConnectMs(), 0.01);
+        assertEquals(-1, result.getPhases().getFirstByteMs(), 0);
+    }
+
+    @Test
+    public void statusLineParsing() throws IOException {
+        byte[] line = "HTTP/1.1 503 Service Unavailable\r".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(503, PhasedHttpProbe.parseStatus(line, line.length));
+        byte[] garbage = "SSH-2.0-OpenSSH".getBytes(StandardCharsets.US_ASCII);
+        try {
+            PhasedHttpProbe.parseStatus(garbage, garbage.length);
+            throw new AssertionError("linha inválida aceita");
+        } catch (IOException expected) {
+            // esperado
+        }
+    }
+}
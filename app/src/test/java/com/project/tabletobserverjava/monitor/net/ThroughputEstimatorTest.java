@@ -0,0 +1,71 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Testes do estimador de vazão com tempo simulado: aquecimento, convergência e travamentos.
+ */
+public class ThroughputEstimatorTest {
+
+    private static final long MS = 1_000_000L;
+    /** 1 MB por 10 ms: 800 Mbps. */
+    private static final long BYTES_PER_STEP = 1_000_000;
+
+    private static ThroughputEstimator estimator() {
+        return new ThroughputEstimator(100, 50, 200, 0.05, 4);
+    }
+
+    @Test
+    public void warmupIsExcludedAndSteadyRateConverges() {
+        ThroughputEstimator estimator = estimator();
+        estimator.start(0);
+        long now = 0;
+        boolean converged = false;
+        // Aquecimento lento, como o slow start, e depois taxa constante
+        while (now < 2000 * MS && !converged) {
+            now += 10 * MS;
+            estimator.onBytes(now <= 100 * MS ? BYTES_PER_STEP / 10 : BYTES_PER_STEP, now);
+            converged = estimator.check(now);
+        }
+
+        assertTrue(converged);
+        assertEquals(800, estimator.getMbps(now), 800 * 0.02);
+        // Aquecimento mais 4 amostras de 50 ms
+        assertEquals(300, estimator.getConvergedAfterMs());
+        assertEquals(0, estimator.getStalls());
+    }
+
+    @Test
+    public void varyingRateDoesNotConverge() {
+        ThroughputEstimator estimator = estimator();
+        estimator.start(0);
+        long now = 0;
+        for (int step = 1; step <= 100; step++) {
+            now += 10 * MS;
+            // A taxa dobra a cada 200 ms
+            estimator.onBytes(BYTES_PER_STEP << (step / 20), now);
+            assertFalse(estimator.check(now));
+        }
+        assertEquals(-1, estimator.getConvergedAfterMs());
+    }
+
+    @Test
+    public void eachGapWithoutProgressCountsOnce() {
+        ThroughputEstimator estimator = estimator();
+        estimator.start(0);
+        estimator.onBytes(BYTES_PER_STEP, 10 * MS);
+        for (long now = 20 * MS; now <= 600 * MS; now += 10 * MS) {
+            estimator.check(now);
+        }
+        estimator.onBytes(BYTES_PER_STEP, 610 * MS);
+        for (long now = 620 * MS; now <= 900 * MS; now += 10 * MS) {
+            estimator.check(now);
+        }
+
+        assertEquals(2, estimator.getStalls());
+    }
+}
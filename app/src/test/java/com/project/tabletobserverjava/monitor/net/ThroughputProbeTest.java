@@ -0,0 +1,162 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Testes da sonda de vazão contra um servidor HTTP local que envia dados sem parar no GET e
+ * descarta o corpo do POST.
+ */
+public class ThroughputProbeTest {
+
+    private static final long MAX_BYTES = 4L * 1024 * 1024 * 1024;
+    private static final long MAX_DURATION_MS = 5000;
+
+    private HttpServer server;
+    private final AtomicLong uploadedBytes = new AtomicLong(-1);
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/data", exchange -> {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                long total = 0;
+                byte[] chunk = new byte[64 * 1024];
+                try (InputStream in = exchange.getRequestBody()) {
+                    int read;
+                    while ((read = in.read(chunk)) >= 0) {
+                        total += read;
+                    }
+                }
+                uploadedBytes.set(total);
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(200, 0);
+            byte[] chunk = new byte[64 * 1024];
+            try (OutputStream out = exchange.getResponseBody()) {
+                while (true) {
+                    out.write(chunk);
+                }
+            } catch (IOException closedByClient) {
+                // a sonda parou de ler
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private ProbeCall call(String path) throws IOException {
+        return call(new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), path));
+    }
+
+    private static ProbeCall call(URL url) {
+        return new ProbeCall(new ProbeTarget("throughput", url, false, (int) MAX_DURATION_MS), 1);
+    }
+
+    private static ThroughputProbe probe() {
+        // Tolerância larga: no loopback a vazão oscila com o agendamento das threads
+        return new ThroughputProbe(new ThroughputEstimator(100, 50, 1000, 0.2, 4));
+    }
+
+    @Test
+    public void downloadStopsOnceEstimateConverges() throws IOException {
+        ThroughputResult result = probe().download(call("/data"), MAX_BYTES, MAX_DURATION_MS);
+
+        assertTrue(result.getError(), result.isSuccess());
+        assertEquals("download", result.getDirection());
+        assertTrue(result.getMbps() > 0);
+        assertTrue(result.isConverged());
+        assertTrue(result.getBytes() < MAX_BYTES);
+        assertTrue(result.getDurationMs() < MAX_DURATION_MS);
+    }
+
+    @Test
+    public void uploadEndsChunkedBodyCleanly() throws IOException {
+        ThroughputResult result = probe().upload(call("/data"), MAX_BYTES, MAX_DURATION_MS);
+
+        assertTrue(result.getError(), result.isSuccess());
+        assertTrue(result.getMbps() > 0);
+        assertTrue(result.isConverged());
+        // O servidor recebeu o corpo inteiro: os dados, sem o enquadramento dos chunks
+        assertTrue(uploadedBytes.get() > 0);
+        assertTrue(uploadedBytes.get() <= result.getBytes());
+    }
+
+    @Test
+    public void byteLimitStopsTransferBeforeConvergence() throws IOException {
+        long limit = 256 * 1024;
+        ThroughputResult result = probe().download(call("/data"), limit, MAX_DURATION_MS);
+
+        assertTrue(result.isSuccess());
+        assertTrue(result.getBytes() >= limit);
+        assertTrue(result.getBytes() < limit + 64 * 1024);
+    }
+
+    @Test
+    public void errorStatusAndHttpsAreFailures() throws IOException {
+        ThroughputProbe probe = probe();
+        ThroughputResult missing = probe.download(call("/missing"), MAX_BYTES, MAX_DURATION_MS);
+        assertFalse(missing.isSuccess());
+        assertEquals("HTTP 404", missing.getError());
+
+        ThroughputResult tls = probe.download(call(new URL("https://localhost/")), MAX_BYTES, MAX_DURATION_MS);
+        assertFalse(tls.isSuccess());
+    }
+
+    @Test
+    public void cancelClosesChannelMidTransfer() throws Exception {
+        // Estimador que nunca converge: sem o cancelamento o download iria até o prazo
+        ThroughputProbe probe = new ThroughputProbe(new ThroughputEstimator(100, 50, 1000, 0, 1000));
+        ProbeCall call = call("/data");
+        ThroughputResult[] result = new ThroughputResult[1];
+        Thread thread = new Thread(() -> result[0] = probe.download(call, MAX_BYTES, MAX_DURATION_MS));
+        thread.start();
+        Thread.sleep(300);
+        call.cancel();
+        thread.join(MAX_DURATION_MS);
+
+        assertFalse(thread.isAlive());
+        assertFalse(result[0].isSuccess());
+        assertTrue(result[0].getDurationMs() < MAX_DURATION_MS / 2);
+    }
+
+    @Test
+    public void cancelledCallDoesNotConnect() throws IOException {
+        ProbeCall call = call("/data");
+        call.cancel();
+
+        ThroughputResult result = probe().upload(call, MAX_BYTES, MAX_DURATION_MS);
+
+        assertFalse(result.isSuccess());
+        assertEquals("InterruptedIOException", result.getError());
+        assertEquals(-1, uploadedBytes.get());
+    }
+}
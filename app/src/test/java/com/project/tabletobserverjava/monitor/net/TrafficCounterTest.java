@@ -0,0 +1,60 @@
+package com.project.tabletobserverjava.monitor.net;
+
+import static org.junit.Assert.assertEquals;
+
+import com.project.tabletobserverjava.monitor.Ewma;
+
+import org.junit.Test;
+
+/**
+ * Testes das taxas, totais e suavização do TrafficCounter.
+ */
+public class TrafficCounterTest {
+
+    @Test
+    public void computesRatesFromCounterDeltas() {
+        TrafficCounter counter = new TrafficCounter(1000);
+        counter.update(1000, 500, 10, 5, 0);
+        counter.update(11_000, 2500, 30, 15, 2000);
+
+        assertEquals(5000, counter.getRxBytesPerSec(), 0.001);
+        assertEquals(1000, counter.getTxBytesPerSec(), 0.001);
+        assertEquals(10, counter.getRxPacketsPerSec(), 0.001);
+        assertEquals(5, counter.getTxPacketsPerSec(), 0.001);
+        assertEquals(10_000, counter.getTotalRxBytes());
+        assertEquals(2000, counter.getTotalTxBytes());
+    }
+
+    @Test
+    public void totalsSurviveCounterReset() {
+        TrafficCounter counter = new TrafficCounter(1000);
+        counter.update(5000, 5000, 50, 50, 0);
+        counter.update(8000, 6000, 80, 60, 1000);
+        // Interface recriada: os contadores recomeçam do zero
+        counter.update(300, 100, 3, 1, 1000);
+        counter.update(700, 200, 7, 2, 1000);
+
+        assertEquals(1, counter.getResets());
+        assertEquals(3000 + 300 + 400, counter.getTotalRxBytes());
+        assertEquals(1000 + 100 + 100, counter.getTotalTxBytes());
+    }
+
+    @Test
+    public void smoothingWeightsByElapsedTime() {
+        Ewma ewma = new Ewma(1000);
+        assertEquals(100, ewma.update(100, 0), 0.0);
+        // Uma constante de tempo depois, a nova amostra pesa 1 - 1/e
+        assertEquals(100 + (1 - Math.exp(-1)) * 100, ewma.update(200, 1000), 0.001);
+
+        Ewma fast = new Ewma(1000);
+        fast.update(0, 0);
+        for (int i = 0; i < 10; i++) {
+            fast.update(100, 100);
+        }
+        Ewma slow = new Ewma(1000);
+        slow.update(0, 0);
+        slow.update(100, 1000);
+        // Dez amostras de 100 ms equivalem a uma de 1 s
+        assertEquals(slow.getValue(), fast.getValue(), 0.001);
+    }
+}
@@ -0,0 +1,108 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Testes do amostrador de CPU sobre instantâneos gravados de /proc.
+ */
+public class CpuSamplerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private static final String STAT_1 =
+            "cpu  1000 0 500 8000 100 0 0 0 0 0\n"
+            + "cpu0 600 0 300 3900 50 0 0 0 0 0\n"
+            + "cpu1 400 0 200 4100 50 0 0 0 0 0\n"
+            + "intr 123456 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0\n"
+            + "ctxt 987654\n"
+            + "btime 1700000000\n";
+
+    // Em 1 segundo: cpu0 ocupado em 80 de 100 ticks; cpu1 com 20 de iowait e 20 ocupados
+    private static final String STAT_2 =
+            "cpu  1120 0 500 8060 120 0 0 0 0 0\n"
+            + "cpu0 680 0 300 3920 50 0 0 0 0 0\n"
+            + "cpu1 420 0 200 4160 70 0 0 0 0 0\n"
+            + "intr 123999 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0\n"
+            + "ctxt 999999\n"
+            + "btime 1700000000\n";
+
+    private static final String SELF_1 =
+            "4321 (Tablet (Observer) x) S 1 4321 0 0 -1 4194560 1000 0 0 0 200 100 0 0 20 0 30 0 5000 0 0\n";
+    private static final String SELF_2 =
+            "4321 (Tablet (Observer) x) S 1 4321 0 0 -1 4194560 1100 0 0 0 230 110 0 0 20 0 30 0 5000 0 0\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(String name, String content) throws Exception {
+        File file = new File(folder.getRoot(), name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    @Test
+    public void computesUtilizationFromDeltas() throws Exception {
+        File stat = write("stat", STAT_1);
+        File load = write("loadavg", "0.52 1.25 2.00 1/467 12345\n");
+        File self = write("self_stat", SELF_1);
+        CpuSampler sampler = new CpuSampler(stat, load, self, 100, 2);
+
+        assertFalse(sampler.sample(0));
+        write("stat", STAT_2);
+        write("self_stat", SELF_2);
+        assertTrue(sampler.sample(SECOND));
+
+        assertEquals(2, sampler.getCoreCount());
+        assertEquals(80.0, sampler.getCoreBusyPercent(0), 0.001);
+        assertEquals(20.0, sampler.getCoreBusyPercent(1), 0.001);
+        assertEquals(20.0, sampler.getCoreIowaitPercent(1), 0.001);
+        // Total: 200 ticks, 120 ocupados, 20 de iowait
+        assertEquals(60.0, sampler.getBusyPercent(), 0.001);
+        assertEquals(10.0, sampler.getIowaitPercent(), 0.001);
+
+        assertEquals(0.52, sampler.getLoadAverage(0), 0.0001);
+        assertEquals(2.0, sampler.getLoadAverage(2), 0.0001);
+
+        // 40 ticks de 100 Hz em 1 segundo: 40% de um núcleo, 20% do aparelho de 2 núcleos
+        assertEquals(40.0, sampler.getSelfPercentOfCore(), 0.001);
+        assertEquals(20.0, sampler.getSelfPercentOfDevice(), 0.001);
+    }
+
+    @Test
+    public void offlineCoreIsReported() throws Exception {
+        File stat = write("stat", STAT_1);
+        CpuSampler sampler = new CpuSampler(stat, write("loadavg", "0 0 0 1/1 1\n"), write("self_stat", SELF_1), 100, 2);
+        sampler.sample(0);
+
+        write("stat", "cpu  1120 0 500 8060 120 0 0 0 0 0\ncpu0 680 0 300 3920 50 0 0 0 0 0\nintr 1\n");
+        sampler.sample(SECOND);
+
+        assertTrue(sampler.isCoreOnline(0));
+        assertFalse(sampler.isCoreOnline(1));
+    }
+
+    @Test
+    public void unreadableStatKeepsOtherSources() throws Exception {
+        File missing = new File(folder.getRoot(), "sem_permissao");
+        CpuSampler sampler = new CpuSampler(missing, write("loadavg", "1.00 1.00 1.00 1/1 1\n"),
+                write("self_stat", SELF_1), 100, 2);
+
+        sampler.sample(0);
+        write("self_stat", SELF_2);
+        sampler.sample(SECOND);
+
+        assertFalse(sampler.isSystemAvailable());
+        assertTrue(sampler.isLoadAverageAvailable());
+        assertEquals(20.0, sampler.getSelfPercentOfDevice(), 0.001);
+    }
+}
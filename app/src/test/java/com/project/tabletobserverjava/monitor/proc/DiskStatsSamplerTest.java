@@ -0,0 +1,139 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Testes do amostrador de /proc/diskstats e /proc/self/io sobre arquivos gravados no teste.
+ */
+public class DiskStatsSamplerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String diskLine(String name, long reads, long sectorsRead, long msReading,
+                                   long writes, long sectorsWritten, long msWriting, long msIo) {
+        return String.format(" 179       0 %s %d 0 %d %d %d 0 %d %d 0 %d %d 0 0 0 0%n",
+                name, reads, sectorsRead, msReading, writes, sectorsWritten, msWriting, msIo, msIo);
+    }
+
+    private static void write(File file, String content) throws Exception {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void computesRatesPerDevice() throws Exception {
+        File file = new File(folder.getRoot(), "diskstats");
+        DiskStatsSampler sampler = new DiskStatsSampler(file, name -> !name.startsWith("loop"));
+
+        write(file, diskLine("loop0", 5, 10, 1, 0, 0, 0, 1)
+                + diskLine("mmcblk0", 100, 2000, 50, 40, 800, 30, 400));
+        assertFalse(sampler.sample(0));
+
+        // Em 2 segundos: 200 leituras de 4000 setores e 60 escritas de 2000 setores
+        write(file, diskLine("loop0", 5, 10, 1, 0, 0, 0, 1)
+                + diskLine("mmcblk0", 300, 6000, 250, 100, 2800, 150, 900));
+        assertTrue(sampler.sample(2 * SECOND));
+
+        assertEquals(2, sampler.getDeviceCount());
+        assertFalse(sampler.getDevice(0).isAccepted());
+        DiskStatsSampler.Device disk = sampler.getDevice(1);
+        assertEquals("mmcblk0", disk.getName());
+        assertEquals(4000 * 512 / 2.0, disk.getReadBytesPerSec(), 0.001);
+        assertEquals(2000 * 512 / 2.0, disk.getWriteBytesPerSec(), 0.001);
+        assertEquals(100, disk.getReadIops(), 0.001);
+        assertEquals(30, disk.getWriteIops(), 0.001);
+        // 500 ms com I/O em 2000 ms
+        assertEquals(25, disk.getBusyPercent(), 0.001);
+        assertEquals(1.0, disk.getReadLatencyMs(), 0.001);
+        assertEquals(2.0, disk.getWriteLatencyMs(), 0.001);
+    }
+
+    @Test
+    public void resetCountersProduceZeroRates() throws Exception {
+        File file = new File(folder.getRoot(), "diskstats");
+        DiskStatsSampler sampler = new DiskStatsSampler(file, name -> true);
+
+        write(file, diskLine("sda", 100, 2000, 50, 40, 800, 30, 400));
+        sampler.sample(0);
+        write(file, diskLine("sda", 1, 8, 1, 1, 8, 1, 1));
+        sampler.sample(SECOND);
+
+        assertEquals(0, sampler.getDevice(0).getReadBytesPerSec(), 0.0);
+        assertEquals(0, sampler.getDevice(0).getBusyPercent(), 0.0);
+    }
+
+    @Test
+    public void missingDeviceIsNotPresent() throws Exception {
+        File file = new File(folder.getRoot(), "diskstats");
+        DiskStatsSampler sampler = new DiskStatsSampler(file, name -> true);
+
+        write(file, diskLine("sda", 1, 8, 1, 1, 8, 1, 1) + diskLine("sdb", 1, 8, 1, 1, 8, 1, 1));
+        sampler.sample(0);
+        write(file, diskLine("sda", 2, 16, 2, 2, 16, 2, 2));
+        sampler.sample(SECOND);
+
+        assertTrue(sampler.getDevice(0).isPresent());
+        assertFalse(sampler.getDevice(1).isPresent());
+    }
+
+    @Test
+    public void selfIoRates() throws Exception {
+        File file = new File(folder.getRoot(), "io");
+        SelfIoSampler sampler = new SelfIoSampler(file);
+
+        write(file, "rchar: 1000\nwchar: 2000\nsyscr: 10\nsyscw: 20\nread_bytes: 4096\n"
+                + "write_bytes: 8192\ncancelled_write_bytes: 0\n");
+        assertFalse(sampler.sample(0));
+        write(file, "rchar: 3000\nwchar: 2000\nsyscr: 30\nsyscw: 20\nread_bytes: 4096\n"
+                + "write_bytes: 16384\ncancelled_write_bytes: 0\n");
+        assertTrue(sampler.sample(2 * SECOND));
+
+        assertEquals(1000, sampler.getReadCharsPerSec(), 0.001);
+        assertEquals(0, sampler.getWriteCharsPerSec(), 0.001);
+        assertEquals(10, sampler.getReadSyscallsPerSec(), 0.001);
+        assertEquals(0, sampler.getReadBytesPerSec(), 0.001);
+        assertEquals(4096, sampler.getWriteBytesPerSec(), 0.001);
+    }
+
+    @Test
+    public void samplingDoesNotAllocate() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        File file = new File(folder.getRoot(), "diskstats");
+        write(file, diskLine("mmcblk0", 100, 2000, 50, 40, 800, 30, 400)
+                + diskLine("mmcblk0p1", 10, 200, 5, 4, 80, 3, 40)
+                + diskLine("zram0", 1, 8, 0, 1, 8, 0, 0));
+        DiskStatsSampler sampler = new DiskStatsSampler(file, name -> true);
+
+        // Aquecimento: cria os dispositivos e deixa o JIT compilar o caminho da amostra
+        for (int i = 0; i < 20_000; i++) {
+            sampler.sample(i * SECOND);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1000; i++) {
+            sampler.sample((20_000 + i) * SECOND);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Folga para a própria medição; uma alocação por amostra passaria de 16 KB
+        assertTrue("alocou " + allocated + " bytes", allocated < 16 * 1024);
+        sampler.close();
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Testes dos amostradores de /proc/meminfo e /proc/pressure sobre arquivos gravados.
+ */
+public class MemInfoSamplerTest {
+
+    private static final String MEMINFO =
+            "MemTotal:        3854020 kB\n"
+            + "MemFree:          143652 kB\n"
+            + "MemAvailable:    1532100 kB\n"
+            + "Buffers:           10240 kB\n"
+            + "Cached:          1402768 kB\n"
+            + "SwapCached:        20480 kB\n"
+            + "Active:          1200000 kB\n"
+            + "Inactive:         900000 kB\n"
+            + "Active(anon):     600000 kB\n"
+            + "SwapTotal:       2097148 kB\n"
+            + "SwapFree:        1048576 kB\n"
+            + "Dirty:               128 kB\n"
+            + "Mapped:           400000 kB\n"
+            + "Shmem:             20000 kB\n"
+            + "SReclaimable:      90000 kB\n"
+            + "VmallocTotal:   263061440 kB\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(String name, String content) throws Exception {
+        File file = new File(folder.getRoot(), name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    @Test
+    public void parsesTypedFields() throws Exception {
+        MemInfoSampler sampler = new MemInfoSampler(write("meminfo", MEMINFO));
+
+        sampler.sample();
+
+        assertEquals(3854020, sampler.getKb(MemInfoSampler.MEM_TOTAL));
+        assertEquals(1532100, sampler.getKb(MemInfoSampler.MEM_AVAILABLE));
+        assertEquals(1402768, sampler.getKb(MemInfoSampler.CACHED));
+        // "Active(anon):" não pode ser confundido com "Active:"
+        assertEquals(1200000, sampler.getKb(MemInfoSampler.ACTIVE));
+        assertEquals(2097148, sampler.getKb(MemInfoSampler.SWAP_TOTAL));
+        assertEquals(1048576, sampler.getKb(MemInfoSampler.SWAP_FREE));
+        assertEquals(90000, sampler.getKb(MemInfoSampler.SLAB_RECLAIMABLE));
+    }
+
+    @Test
+    public void relearnsWhenLinesMove() throws Exception {
+        File file = write("meminfo", MEMINFO);
+        MemInfoSampler sampler = new MemInfoSampler(file);
+        sampler.sample();
+
+        write("meminfo", "MemTotal:        3854020 kB\nMemAvailable:     999999 kB\nCached:            1000 kB\n");
+        sampler.sample();
+
+        assertEquals(999999, sampler.getKb(MemInfoSampler.MEM_AVAILABLE));
+        assertEquals(1000, sampler.getKb(MemInfoSampler.CACHED));
+        // Campos que não existem mais ficam em -1
+        assertEquals(-1, sampler.getKb(MemInfoSampler.SWAP_TOTAL));
+    }
+
+    @Test
+    public void pressureAveragesAndIntervalPercent() throws Exception {
+        File file = write("memory", "some avg10=1.50 avg60=0.75 avg300=0.10 total=1000000\n"
+                + "full avg10=0.25 avg60=0.05 avg300=0.00 total=200000\n");
+        PressureSampler sampler = new PressureSampler(file);
+
+        assertTrue(sampler.sample(0));
+        assertEquals(1.5, sampler.getSome().getAvg10(), 0.0001);
+        assertEquals(0.75, sampler.getSome().getAvg60(), 0.0001);
+        assertEquals(0.25, sampler.getFull().getAvg10(), 0.0001);
+        assertEquals(1000000, sampler.getSome().getTotalUs());
+
+        // 250 ms de espera "some" e 50 ms "full" em 1 segundo
+        write("memory", "some avg10=2.00 avg60=0.80 avg300=0.10 total=1250000\n"
+                + "full avg10=0.30 avg60=0.05 avg300=0.00 total=250000\n");
+        sampler.sample(1_000_000_000L);
+        assertEquals(25.0, sampler.getSome().getIntervalPercent(), 0.0001);
+        assertEquals(5.0, sampler.getFull().getIntervalPercent(), 0.0001);
+    }
+
+    @Test
+    public void missingPressureFileIsUnavailable() {
+        PressureSampler sampler = new PressureSampler(new File(folder.getRoot(), "sem_psi"));
+
+        assertFalse(sampler.sample(0));
+        assertFalse(sampler.isAvailable());
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Testes do amostrador de /proc/net/dev sobre arquivos gravados no teste.
+ */
+public class NetDevSamplerTest {
+
+    private static final String HEADER =
+            "Inter-|   Receive                                                |  Transmit\n"
+            + " face |bytes    packets errs drop fifo frame compressed multicast|bytes    packets errs drop fifo colls carrier compressed\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String line(String name, long rxBytes, long rxPackets, long txBytes, long txPackets) {
+        return String.format("%6s: %d %d 0 0 0 0 0 0 %d %d 0 0 0 0 0 0%n",
+                name, rxBytes, rxPackets, txBytes, txPackets);
+    }
+
+    private static void write(File file, String content) throws Exception {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void readsCountersPerInterface() throws Exception {
+        File file = new File(folder.getRoot(), "dev");
+        write(file, HEADER + line("lo", 500, 5, 500, 5) + line("wlan0", 123456, 100, 7890, 60)
+                + line("rmnet0", 10, 1, 20, 2));
+        NetDevSampler sampler = new NetDevSampler(file);
+        sampler.sample();
+
+        assertEquals(3, sampler.getInterfaceCount());
+        assertTrue(sampler.getInterface(0).isLoopback());
+        NetDevSampler.Interface wlan = sampler.getInterface(1);
+        assertEquals("wlan0", wlan.getName());
+        assertEquals(123456, wlan.getRxBytes());
+        assertEquals(100, wlan.getRxPackets());
+        assertEquals(7890, wlan.getTxBytes());
+        assertEquals(60, wlan.getTxPackets());
+        assertEquals("rmnet0", sampler.getInterface(2).getName());
+    }
+
+    @Test
+    public void counterGluedToNameIsParsed() throws Exception {
+        // Com contadores grandes o kernel não deixa espaço depois do ':'
+        File file = new File(folder.getRoot(), "dev");
+        write(file, HEADER + "  wlan0:4294967296 3000000 0 0 0 0 0 0 1234567890 2000000 0 0 0 0 0 0\n");
+        NetDevSampler sampler = new NetDevSampler(file);
+        sampler.sample();
+
+        NetDevSampler.Interface wlan = sampler.getInterface(0);
+        assertEquals("wlan0", wlan.getName());
+        assertEquals(4294967296L, wlan.getRxBytes());
+        assertEquals(3000000, wlan.getRxPackets());
+        assertEquals(1234567890, wlan.getTxBytes());
+        assertEquals(2000000, wlan.getTxPackets());
+    }
+
+    @Test
+    public void interfacesKeepTheirSlotAcrossSamples() throws Exception {
+        File file = new File(folder.getRoot(), "dev");
+        NetDevSampler sampler = new NetDevSampler(file);
+        write(file, HEADER + line("wlan0", 1, 1, 1, 1) + line("rmnet0", 1, 1, 1, 1));
+        sampler.sample();
+        NetDevSampler.Interface rmnet = sampler.getInterface(1);
+
+        // A rede móvel some e volta depois de uma interface nova
+        write(file, HEADER + line("wlan0", 2, 2, 2, 2) + line("tun0", 3, 3, 3, 3));
+        sampler.sample();
+        assertFalse(rmnet.isPresent());
+        assertTrue(sampler.getInterface(2).isPresent());
+
+        write(file, HEADER + line("tun0", 4, 4, 4, 4) + line("rmnet0", 5, 5, 5, 5));
+        sampler.sample();
+        assertEquals(3, sampler.getInterfaceCount());
+        assertSame(rmnet, sampler.getInterface(1));
+        assertTrue(rmnet.isPresent());
+        assertEquals(5, rmnet.getRxBytes());
+        assertFalse(sampler.getInterface(0).isPresent());
+    }
+}
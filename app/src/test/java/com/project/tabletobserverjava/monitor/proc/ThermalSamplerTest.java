@@ -0,0 +1,104 @@
+package com.project.tabletobserverjava.monitor.proc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Testes dos amostradores de zonas térmicas e de frequência da CPU sobre árvores gravadas.
+ */
+public class ThermalSamplerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(String path, String content) throws Exception {
+        File file = new File(folder.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    @Test
+    public void readsZonesInIndexOrder() throws Exception {
+        write("thermal/thermal_zone10/type", "battery\n");
+        write("thermal/thermal_zone10/temp", "31500\n");
+        write("thermal/thermal_zone2/type", "cpu-0-0\n");
+        write("thermal/thermal_zone2/temp", "48200\n");
+        new File(folder.getRoot(), "thermal/cooling_device0").mkdirs();
+
+        ThermalZoneSampler sampler = new ThermalZoneSampler(new File(folder.getRoot(), "thermal"));
+
+        assertEquals(2, sampler.sample());
+        assertEquals(2, sampler.getZoneCount());
+        assertEquals(2, sampler.getZone(0).getIndex());
+        assertEquals("cpu-0-0", sampler.getZone(0).getType());
+        assertEquals(48.2, sampler.getZone(0).getCelsius(), 1e-9);
+        assertEquals("battery", sampler.getZone(1).getType());
+        assertEquals(31.5, sampler.getZone(1).getCelsius(), 1e-9);
+    }
+
+    @Test
+    public void rereadsTemperatureAndAcceptsPlainDegrees() throws Exception {
+        File temp = write("thermal/thermal_zone0/temp", "41\n");
+        ThermalZoneSampler sampler = new ThermalZoneSampler(new File(folder.getRoot(), "thermal"));
+
+        sampler.sample();
+        assertEquals(41.0, sampler.getZone(0).getCelsius(), 1e-9);
+        assertEquals("zone0", sampler.getZone(0).getType());
+
+        Files.write(temp.toPath(), "55000\n".getBytes(StandardCharsets.US_ASCII));
+        sampler.sample();
+        assertEquals(55.0, sampler.getZone(0).getCelsius(), 1e-9);
+    }
+
+    @Test
+    public void unreadableZoneIsDisabled() throws Exception {
+        new File(folder.getRoot(), "thermal/thermal_zone0").mkdirs();
+        ThermalZoneSampler sampler = new ThermalZoneSampler(new File(folder.getRoot(), "thermal"));
+
+        assertEquals(0, sampler.sample());
+        assertFalse(sampler.getZone(0).isAvailable());
+        assertTrue(Double.isNaN(sampler.getZone(0).getCelsius()));
+    }
+
+    @Test
+    public void capBelowHardwareMaximumShowsThrottling() throws Exception {
+        write("cpu/cpu0/cpufreq/cpuinfo_max_freq", "2000000\n");
+        write("cpu/cpu0/cpufreq/scaling_max_freq", "2000000\n");
+        write("cpu/cpu0/cpufreq/scaling_cur_freq", "1200000\n");
+        write("cpu/cpu1/cpufreq/cpuinfo_max_freq", "2000000\n");
+        File cap = write("cpu/cpu1/cpufreq/scaling_max_freq", "2000000\n");
+        write("cpu/cpu1/cpufreq/scaling_cur_freq", "2000000\n");
+        new File(folder.getRoot(), "cpu/cpufreq").mkdirs();
+
+        CpuFreqSampler sampler = new CpuFreqSampler(new File(folder.getRoot(), "cpu"));
+
+        assertEquals(2, sampler.sample());
+        assertEquals(1200.0, sampler.getCore(0).getCurrentMhz(), 1e-9);
+        assertEquals(100.0, sampler.getMinCapPercent(), 1e-9);
+
+        Files.write(cap.toPath(), "1500000\n".getBytes(StandardCharsets.US_ASCII));
+        sampler.sample();
+        assertEquals(75.0, sampler.getCore(1).getCapPercent(), 1e-9);
+        assertEquals(75.0, sampler.getMinCapPercent(), 1e-9);
+    }
+
+    @Test
+    public void coreWithoutCpufreqIsIgnored() throws Exception {
+        new File(folder.getRoot(), "cpu/cpu0").mkdirs();
+        CpuFreqSampler sampler = new CpuFreqSampler(new File(folder.getRoot(), "cpu"));
+
+        assertEquals(0, sampler.sample());
+        assertFalse(sampler.getCore(0).isPresent());
+        assertEquals(100.0, sampler.getMinCapPercent(), 1e-9);
+    }
+}
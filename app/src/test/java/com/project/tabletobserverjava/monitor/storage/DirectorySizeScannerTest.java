@@ -0,0 +1,162 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Testes da varredura de diretórios sobre uma árvore gerada no sistema de arquivos local.
+ */
+public class DirectorySizeScannerTest {
+
+    /** Mtime bem anterior à janela de corrida, para que as listagens possam ser reaproveitadas. */
+    private static final long OLD_MTIME = System.currentTimeMillis() - 60_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final DirectorySizeScanner scanner = new DirectorySizeScanner(4, Long.MAX_VALUE);
+
+    @After
+    public void tearDown() {
+        scanner.shutdown();
+    }
+
+    /**
+     * Gera {@code width} subdiretórios por nível até {@code depth}, com {@code files} arquivos
+     * de {@code fileSize} bytes em cada diretório.
+     *
+     * @return Total de bytes gerados.
+     */
+    private static long generate(Path dir, int depth, int width, int files, int fileSize) throws IOException {
+        long total = 0;
+        byte[] content = new byte[fileSize];
+        for (int i = 0; i < files; i++) {
+            Files.write(dir.resolve("f" + i), content);
+            total += fileSize;
+        }
+        if (depth > 0) {
+            for (int i = 0; i < width; i++) {
+                Path child = Files.createDirectory(dir.resolve("d" + i));
+                total += generate(child, depth - 1, width, files, fileSize);
+            }
+        }
+        return total;
+    }
+
+    private static void ageDirectories(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.setLastModifiedTime(dir, FileTime.fromMillis(OLD_MTIME));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Test
+    public void sumsWholeTree() throws Exception {
+        Path root = folder.getRoot().toPath();
+        long expected = generate(root, 3, 3, 4, 100);
+
+        DirectorySizeScanner.Result result = scanner.scan(root);
+
+        assertEquals(expected, result.getTotalBytes());
+        // 1 + 3 + 9 + 27 diretórios, com 4 arquivos cada
+        assertEquals(40, result.getDirectoryCount());
+        assertEquals(160, result.getFileCount());
+        assertEquals(0, result.getErrorCount());
+    }
+
+    @Test
+    public void unchangedDirectoriesAreNotListedAgain() throws Exception {
+        Path root = folder.getRoot().toPath();
+        long expected = generate(root, 3, 3, 4, 100);
+        ageDirectories(root);
+
+        scanner.scan(root);
+        DirectorySizeScanner.Result second = scanner.scan(root);
+
+        assertEquals(expected, second.getTotalBytes());
+        assertEquals(0, second.getListedDirectories());
+        assertEquals(40, second.getReusedDirectories());
+    }
+
+    @Test
+    public void changedDirectoryIsListedAgain() throws Exception {
+        Path root = folder.getRoot().toPath();
+        long expected = generate(root, 3, 3, 4, 100);
+        ageDirectories(root);
+        scanner.scan(root);
+
+        Path changed = root.resolve("d1").resolve("d2");
+        Files.write(changed.resolve("novo"), new byte[500]);
+        Files.setLastModifiedTime(changed, FileTime.fromMillis(OLD_MTIME + 1000));
+
+        DirectorySizeScanner.Result result = scanner.scan(root);
+
+        assertEquals(expected + 500, result.getTotalBytes());
+        assertEquals(1, result.getListedDirectories());
+    }
+
+    @Test
+    public void recentlyChangedDirectoryIsNotTrusted() throws Exception {
+        Path root = folder.getRoot().toPath();
+        generate(root, 1, 2, 1, 10);
+
+        // Mtimes dentro da janela de corrida: a segunda varredura precisa listar tudo de novo
+        scanner.scan(root);
+        DirectorySizeScanner.Result second = scanner.scan(root);
+
+        assertEquals(3, second.getListedDirectories());
+    }
+
+    @Test
+    public void removedSubtreeLeavesCache() throws Exception {
+        Path root = folder.getRoot().toPath();
+        generate(root, 2, 2, 1, 10);
+        ageDirectories(root);
+        scanner.scan(root);
+        assertEquals(7, scanner.getCachedDirectoryCount());
+
+        Path removed = root.resolve("d0");
+        Files.walkFileTree(removed, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Files.setLastModifiedTime(root, FileTime.fromMillis(OLD_MTIME + 1000));
+
+        DirectorySizeScanner.Result result = scanner.scan(root);
+
+        assertEquals(40, result.getTotalBytes());
+        assertEquals(4, scanner.getCachedDirectoryCount());
+    }
+
+    @Test
+    public void missingDirectoryHasZeroSize() {
+        DirectorySizeScanner.Result result = scanner.scan(folder.getRoot().toPath().resolve("inexistente"));
+
+        assertEquals(0, result.getTotalBytes());
+        assertEquals(0, result.getDirectoryCount());
+    }
+}
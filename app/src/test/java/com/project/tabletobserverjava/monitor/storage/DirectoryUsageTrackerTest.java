@@ -0,0 +1,140 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Testes do acompanhamento incremental de diretórios, com observadores e relógio simulados.
+ */
+public class DirectoryUsageTrackerTest {
+
+    private static final long RESYNC_MS = 60_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final DirectorySizeScanner scanner = new DirectorySizeScanner(2, 0);
+    // Observadores ativos por diretório
+    private final Map<File, Consumer<String>> watchers = new HashMap<>();
+    private long now;
+
+    @After
+    public void tearDown() {
+        scanner.shutdown();
+    }
+
+    private DirectoryUsageTracker tracker(int maxNodes) {
+        return new DirectoryUsageTracker(folder.getRoot(), maxNodes, RESYNC_MS, scanner, () -> now,
+                (dir, listener) -> {
+                    watchers.put(dir, listener);
+                    return () -> watchers.remove(dir);
+                });
+    }
+
+    private void event(File dir, String name) {
+        watchers.get(dir).accept(name);
+    }
+
+    private Path write(String relative, int size) throws Exception {
+        Path path = folder.getRoot().toPath().resolve(relative);
+        Files.createDirectories(path.getParent());
+        return Files.write(path, new byte[size]);
+    }
+
+    @Test
+    public void appliesObservedChangesWithoutRescanning() throws Exception {
+        write("a", 100);
+        write("sub/b", 200);
+        DirectoryUsageTracker tracker = tracker(1000);
+        assertEquals(300, tracker.getTotalBytes());
+        assertEquals(1, tracker.getResyncCount());
+        assertEquals(2, watchers.size());
+
+        // Arquivo alterado, arquivo novo e subdiretório novo
+        write("sub/b", 50);
+        event(new File(folder.getRoot(), "sub"), "b");
+        write("c", 10);
+        event(folder.getRoot(), "c");
+        write("new/d", 1000);
+        event(folder.getRoot(), "new");
+        assertEquals(100 + 50 + 10 + 1000, tracker.getTotalBytes());
+        assertEquals(1, tracker.getResyncCount());
+        assertEquals(3, watchers.size());
+
+        // Subdiretório removido: o observador dele é desligado
+        Files.delete(folder.getRoot().toPath().resolve("new/d"));
+        Files.delete(folder.getRoot().toPath().resolve("new"));
+        event(folder.getRoot(), "new");
+        assertEquals(160, tracker.getTotalBytes());
+        assertEquals(2, watchers.size());
+        assertEquals(5, tracker.getTrackedNodeCount());
+    }
+
+    @Test
+    public void resyncPicksUpMissedChanges() throws Exception {
+        write("a", 100);
+        DirectoryUsageTracker tracker = tracker(1000);
+        assertEquals(100, tracker.getTotalBytes());
+
+        // Mudança sem evento, como num estouro da fila do inotify
+        write("b", 400);
+        now += RESYNC_MS - 1;
+        assertEquals(100, tracker.getTotalBytes());
+        now += 1;
+        assertEquals(500, tracker.getTotalBytes());
+        assertEquals(2, tracker.getResyncCount());
+    }
+
+    @Test
+    public void fallsBackToPollingPastNodeCapAndRecovers() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            write("f" + i, 10);
+        }
+        DirectoryUsageTracker tracker = tracker(4);
+        assertEquals(50, tracker.getTotalBytes());
+        assertTrue(tracker.isPolling());
+        assertTrue(watchers.isEmpty());
+
+        // Em modo de varredura, as mudanças aparecem mesmo sem observadores
+        write("f5", 10);
+        assertEquals(60, tracker.getTotalBytes());
+
+        // A árvore volta a caber no limite: o acompanhamento incremental é retomado
+        for (int i = 0; i < 4; i++) {
+            Files.delete(folder.getRoot().toPath().resolve("f" + i));
+        }
+        now += RESYNC_MS;
+        assertEquals(20, tracker.getTotalBytes());
+        assertFalse(tracker.isPolling());
+        assertEquals(1, watchers.size());
+        assertEquals(3, tracker.getTrackedNodeCount());
+    }
+
+    @Test
+    public void newFilesPastNodeCapSwitchToPolling() throws Exception {
+        write("a", 10);
+        DirectoryUsageTracker tracker = tracker(3);
+        assertEquals(10, tracker.getTotalBytes());
+
+        write("b", 10);
+        write("c", 10);
+        event(folder.getRoot(), "b");
+        event(folder.getRoot(), "c");
+        assertEquals(30, tracker.getTotalBytes());
+        assertTrue(tracker.isPolling());
+        assertTrue(watchers.isEmpty());
+    }
+}
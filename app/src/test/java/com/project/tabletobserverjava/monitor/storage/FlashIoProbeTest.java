@@ -0,0 +1,116 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+/**
+ * Testes da sonda de I/O sobre o sistema de arquivos local.
+ */
+public class FlashIoProbeTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static FlashIoProbe.Config smallConfig() {
+        FlashIoProbe.Config config = new FlashIoProbe.Config();
+        config.sequentialBytes = 1024 * 1024;
+        config.sequentialBlockBytes = 64 * 1024;
+        config.randomBlockBytes = 4096;
+        config.randomWrites = 16;
+        config.budgetBytes = 4L * 1024 * 1024;
+        config.budgetWindowMs = 60_000;
+        config.maxDurationMs = 30_000;
+        config.maxUsagePercentage = 101;
+        return config;
+    }
+
+    @Test
+    public void measuresThroughputAndLatency() throws Exception {
+        File dir = folder.getRoot();
+        FlashIoProbe probe = new FlashIoProbe(dir, smallConfig(), null);
+
+        FlashIoProbe.Result result = probe.run(0);
+
+        assertFalse(result.isSkipped());
+        assertTrue(result.isCompleted());
+        assertTrue(result.getWriteMbPerSec() > 0);
+        assertTrue(result.getReadMbPerSec() > 0);
+        assertEquals(1024 * 1024, result.getBytesRead());
+        assertEquals(1024 * 1024 + 16 * 4096, result.getBytesWritten());
+        assertEquals(16, result.getFsyncSamples());
+        assertTrue(result.getFsyncP50Ms() <= result.getFsyncP99Ms());
+        // O arquivo temporário não fica no disco
+        assertEquals(0, dir.listFiles().length);
+    }
+
+    @Test
+    public void skipsWhenBudgetIsExhausted() throws Exception {
+        FlashIoProbe probe = new FlashIoProbe(folder.getRoot(), smallConfig(), null);
+
+        // Cada execução escreve pouco mais de 1 MB de um orçamento de 4 MB
+        assertFalse(probe.run(0).isSkipped());
+        assertFalse(probe.run(1000).isSkipped());
+        assertFalse(probe.run(2000).isSkipped());
+        assertTrue(probe.run(3000).isSkipped());
+
+        // Uma nova janela renova o orçamento
+        assertFalse(probe.run(61_000).isSkipped());
+    }
+
+    @Test
+    public void budgetForIntervalAllowsEveryRunOfTheDay() throws Exception {
+        long hour = 60 * 60 * 1000;
+        FlashIoProbe.Config config = smallConfig();
+        config.budgetWindowMs = 24 * hour;
+        FlashIoProbe probe = new FlashIoProbe(folder.getRoot(), config.budgetForInterval(6 * hour), null);
+
+        // Todas as execuções da cadência cabem na janela do dia
+        for (int run = 0; run < 4; run++) {
+            assertFalse("execução " + run, probe.run(run * 6 * hour).isSkipped());
+        }
+        // Uma execução extra fora da cadência não cabe no orçamento
+        assertTrue(probe.run(23 * hour).isSkipped());
+        // A janela seguinte renova o orçamento
+        assertFalse(probe.run(24 * hour).isSkipped());
+        assertFalse(probe.run(30 * hour).isSkipped());
+    }
+
+    @Test
+    public void skipsWhenStorageIsAboveThreshold() throws Exception {
+        FlashIoProbe.Config config = smallConfig();
+        config.maxUsagePercentage = 0;
+        FlashIoProbe probe = new FlashIoProbe(folder.getRoot(), config, null);
+
+        FlashIoProbe.Result result = probe.run(0);
+
+        assertTrue(result.isSkipped());
+        assertEquals(0, result.getBytesWritten());
+    }
+
+    @Test
+    public void evictorRunsBeforeRead() throws Exception {
+        boolean[] evicted = {false};
+        FlashIoProbe probe = new FlashIoProbe(folder.getRoot(), smallConfig(), fd -> evicted[0] = fd.valid());
+
+        FlashIoProbe.Result result = probe.run(0);
+
+        assertTrue(evicted[0]);
+        assertTrue(result.isReadFromFlash());
+    }
+
+    @Test
+    public void percentileUsesNearestRank() {
+        long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        assertEquals(5, FlashIoProbe.percentile(sorted, 50));
+        assertEquals(10, FlashIoProbe.percentile(sorted, 99));
+        assertEquals(1, FlashIoProbe.percentile(sorted, 0));
+    }
+}
@@ -0,0 +1,32 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Testes da cota de reconsultas de cache do PackageStorageCache.
+ */
+public class PackageStorageCacheTest {
+
+    private static final long MINUTE_MS = 60 * 1000;
+
+    @Test
+    public void quotaCoversAllPackagesWithinThePeriod() {
+        // 300 pacotes num período de 30 minutos, com refresh a cada minuto
+        assertEquals(10, PackageStorageCache.cacheRefreshQuota(300, MINUTE_MS));
+        assertEquals(150, PackageStorageCache.cacheRefreshQuota(300, 15 * MINUTE_MS));
+    }
+
+    @Test
+    public void quotaIsCappedAtThePackageCount() {
+        assertEquals(300, PackageStorageCache.cacheRefreshQuota(300, 90 * MINUTE_MS));
+    }
+
+    @Test
+    public void quotaIsAtLeastOne() {
+        assertEquals(1, PackageStorageCache.cacheRefreshQuota(20, 0));
+        assertEquals(1, PackageStorageCache.cacheRefreshQuota(20, 1000));
+        assertEquals(1, PackageStorageCache.cacheRefreshQuota(0, MINUTE_MS));
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testes da varredura paralela de pacotes, executados na JVM.
+ */
+public class ParallelPackageScannerTest {
+
+    private static List<String> packages(int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            names.add("com.example.app" + i);
+        }
+        return names;
+    }
+
+    @Test
+    public void scanIsolatesFailuresPerPackage() throws Exception {
+        ParallelPackageScanner<Long> scanner = new ParallelPackageScanner<>(4);
+
+        ParallelPackageScanner.ScanResult<Long> result = scanner.scan(packages(50), name -> {
+            if (name.endsWith("7")) {
+                throw new IllegalStateException("falha simulada");
+            }
+            return 10L;
+        }, 5_000);
+
+        // app7, app17, app27, app37 e app47 falham; os demais continuam
+        assertEquals(5, result.getFailures().size());
+        assertEquals(45, result.getResults().size());
+        assertTrue(result.isComplete());
+        assertEquals(0.9, result.getCompleteness(), 0.0001);
+    }
+
+    @Test
+    public void scanReturnsPartialResultWhenDeadlineExpires() throws Exception {
+        ParallelPackageScanner<Long> scanner = new ParallelPackageScanner<>(2);
+
+        ParallelPackageScanner.ScanResult<Long> result = scanner.scan(packages(100), name -> {
+            Thread.sleep(50);
+            return 1L;
+        }, 300);
+
+        assertFalse(result.isComplete());
+        assertTrue(result.getCompleteness() > 0);
+        assertTrue(result.getCompleteness() < 1);
+        assertTrue("A varredura deve respeitar o prazo", result.getElapsedMs() < 1_000);
+    }
+
+    @Test
+    public void scanRunsPackagesInParallel() throws Exception {
+        ParallelPackageScanner<Long> scanner = new ParallelPackageScanner<>(4);
+
+        ParallelPackageScanner.ScanResult<Long> result = scanner.scan(packages(40), name -> {
+            Thread.sleep(20);
+            return 1L;
+        }, 5_000);
+
+        // Sequencialmente levaria 800 ms
+        assertTrue(result.isComplete());
+        assertTrue(result.getElapsedMs() < 600);
+    }
+}
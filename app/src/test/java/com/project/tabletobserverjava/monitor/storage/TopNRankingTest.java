@@ -0,0 +1,75 @@
+package com.project.tabletobserverjava.monitor.storage;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Testes do ranking incremental de maiores valores.
+ */
+public class TopNRankingTest {
+
+    private static String keys(List<Map.Entry<String, Long>> entries) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Long> entry : entries) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(entry.getKey());
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void keepsOnlyTheLargestValues() {
+        TopNRanking ranking = new TopNRanking(3);
+        ranking.update("a", 10);
+        ranking.update("b", 50);
+        ranking.update("c", 30);
+        ranking.update("d", 40);
+        ranking.update("e", 5);
+
+        assertEquals("b,d,c", keys(ranking.top()));
+    }
+
+    @Test
+    public void memberThatShrinksIsReplacedByOutsider() {
+        TopNRanking ranking = new TopNRanking(2);
+        ranking.update("a", 100);
+        ranking.update("b", 90);
+        ranking.update("c", 80);
+
+        // "a" teve o cache limpo e cai abaixo de "c", que estava fora do ranking
+        ranking.update("a", 10);
+
+        assertEquals("b,c", keys(ranking.top()));
+    }
+
+    @Test
+    public void removedMemberLeavesRoomForNextLargest() {
+        TopNRanking ranking = new TopNRanking(2);
+        ranking.update("a", 100);
+        ranking.update("b", 90);
+        ranking.update("c", 80);
+
+        ranking.remove("a");
+
+        assertEquals("b,c", keys(ranking.top()));
+        assertEquals(2, ranking.size());
+    }
+
+    @Test
+    public void growingOutsiderEntersRanking() {
+        TopNRanking ranking = new TopNRanking(2);
+        ranking.update("a", 100);
+        ranking.update("b", 90);
+        ranking.update("c", 80);
+
+        ranking.update("c", 95);
+
+        assertEquals("a,c", keys(ranking.top()));
+    }
+}